@@ -0,0 +1,85 @@
+package com.jari;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Binary encoding of one receiver's 1 Hz track; scores are fixes per second
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryBenchmark {
+
+    static final int SIZE = 1024;
+
+    private final NMEAFix[] fixes = new NMEAFix[SIZE];
+    private final ByteBuffer buffer = ByteBuffer.allocate(SIZE * 64);
+    private final NMEAFix into = new NMEAFix();
+    private ByteBuffer rows;
+    private ByteBuffer block;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < SIZE; i++) {
+            NMEAFix f = new NMEAFix();
+            f.source = 1;
+            f.talker = ('G' << 8) | 'P';
+            f.types = EpochFusion.DEFAULT_REQUIRED;
+            f.time = 45319000 + i * 1000;
+            f.date = 19940323;
+            f.status = 'A';
+            f.latitude = 48.1173 + i * 1e-5;
+            f.longitude = 11.516667 + i * 2e-5;
+            f.altitude = 545.4 + (i % 7) * 0.1;
+            f.fixQuality = 1;
+            f.satellites = 8;
+            f.speedKnots = 22.4;
+            f.course = 84.4;
+            f.hdop = 0.9;
+            fixes[i] = f;
+        }
+        NMEABinaryWriter writer = new NMEABinaryWriter(buffer);
+        for (NMEAFix f : fixes) writer.write(f);
+        rows = ByteBuffer.wrap(buffer.array(), 0, buffer.position()).slice();
+        NMEAColumnarWriter columnar = new NMEAColumnarWriter();
+        for (NMEAFix f : fixes) columnar.add(f);
+        block = columnar.toByteBuffer();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void writeRows(Blackhole bh) {
+        buffer.clear();
+        NMEABinaryWriter writer = new NMEABinaryWriter(buffer);
+        for (NMEAFix f : fixes) bh.consume(writer.write(f));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void readRows(Blackhole bh) {
+        NMEABinaryReader reader = new NMEABinaryReader(rows);
+        while (reader.next() != NMEABinary.END) bh.consume(reader.fix().latitude);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void readColumns(Blackhole bh) {
+        NMEAColumnarReader reader = new NMEAColumnarReader(block);
+        while (reader.next(into)) bh.consume(into.latitude);
+    }
+}
@@ -0,0 +1,41 @@
+package com.jari;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChecksumBenchmark {
+
+    private final String sentence = Corpus.sentence("GGA");
+    private final byte[] bytes = sentence.getBytes(StandardCharsets.US_ASCII);
+
+    @Benchmark
+    public boolean isValidChecksum() {
+        return NMEAParser.isValidChecksum(sentence);
+    }
+
+    @Benchmark
+    public boolean validateChars() {
+        return NMEAChecksum.isValid(sentence, 0, sentence.length(), true);
+    }
+
+    @Benchmark
+    public boolean validateBytes() {
+        return NMEAChecksum.isValid(bytes, 0, bytes.length, true);
+    }
+}
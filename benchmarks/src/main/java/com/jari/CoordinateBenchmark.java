@@ -0,0 +1,50 @@
+package com.jari;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoordinateBenchmark {
+
+    private String latitude;
+    private String longitude;
+    private final NMEASentenceDecoder decoder = new NMEASentenceDecoder(false);
+
+    @Setup
+    public void setUp() {
+        String sentence = Corpus.sentence("GGA");
+        decoder.reset(sentence);
+        latitude = decoder.fieldAsString(NMEAFields.GGA_LATITUDE);
+        longitude = decoder.fieldAsString(NMEAFields.GGA_LONGITUDE);
+    }
+
+    // The conversion behind NMEAParser.getFormattedLatitude(); the parser caches its result, so it is
+    // measured here on the raw fields rather than through a pre-built parser
+    @Benchmark
+    public void formattedLatLon(Blackhole bh) {
+        bh.consume(NMEACoordinates.format(NMEACoordinates.toFixed(latitude, 0, latitude.length(), 'N', 6), 6));
+        bh.consume(NMEACoordinates.format(NMEACoordinates.toFixed(longitude, 0, longitude.length(), 'E', 6), 6));
+    }
+
+    @Benchmark
+    public void decoderDegrees(Blackhole bh) {
+        bh.consume(decoder.fieldAsDegrees(NMEAFields.GGA_LATITUDE, NMEAFields.GGA_LAT_DIR));
+        bh.consume(decoder.fieldAsDegrees(NMEAFields.GGA_LONGITUDE, NMEAFields.GGA_LON_DIR));
+    }
+}
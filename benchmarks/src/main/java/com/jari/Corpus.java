@@ -0,0 +1,50 @@
+package com.jari;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// ===== Sentences used by the benchmarks =====
+// Every sentence carries a correct checksum; mixed() sprinkles in the kinds of lines a noisy feed delivers.
+final class Corpus {
+
+    private Corpus() {}
+
+    static final String[] TYPES = { "GGA", "RMC", "VTG", "GSA", "GSV", "GLL", "ZDA", "GST" };
+
+    static String sentence(String type) {
+        switch (type) {
+            case "GGA": return withChecksum("GPGGA,123519.00,4807.0381,N,01131.0002,E,1,08,0.9,545.4,M,46.9,M,,");
+            case "RMC": return withChecksum("GPRMC,123519.00,A,4807.0381,N,01131.0002,E,022.4,084.4,230394,003.1,W");
+            case "VTG": return withChecksum("GPVTG,054.7,T,034.4,M,005.5,N,010.2,K");
+            case "GSA": return withChecksum("GPGSA,A,3,04,05,,09,12,,,24,,,,,2.5,1.3,2.1");
+            case "GSV": return withChecksum("GPGSV,2,1,08,01,40,083,41,02,17,063,42,03,13,053,43,04,03,013,42");
+            case "GLL": return withChecksum("GPGLL,4916.4500,N,12311.1200,W,225444.00,A");
+            case "ZDA": return withChecksum("GPZDA,201530.00,04,07,2002,00,00");
+            case "GST": return withChecksum("GPGST,024603.00,1.2,0.8,1.0,45.0,0.5,0.6,0.7");
+            default: throw new IllegalArgumentException(type);
+        }
+    }
+
+    // A receiver's epoch mix (GGA, GSA, 3x GSV, RMC, VTG, GST) with ~3% malformed lines
+    static String[] mixed(int size, long seed) {
+        Random random = new Random(seed);
+        String[] epoch = { sentence("GGA"), sentence("GSA"), sentence("GSV"), sentence("GSV"), sentence("GSV"),
+                sentence("RMC"), sentence("VTG"), sentence("GST") };
+        List<String> out = new ArrayList<>(size);
+        for (int i = 0; out.size() < size; i++) {
+            String s = epoch[i % epoch.length];
+            int roll = random.nextInt(100);
+            if (roll == 0) s = s.substring(0, s.length() - 1) + (s.charAt(s.length() - 1) == '0' ? '1' : '0');
+            else if (roll == 1) s = s.substring(1);
+            else if (roll == 2) s = withChecksum("PGRME,15.0,M,45.0,M,25.0,M");
+            out.add(s);
+        }
+        return out.toArray(new String[0]);
+    }
+
+    static String withChecksum(String body) {
+        int cs = NMEAChecksum.compute(body, 0, body.length());
+        return NMEAChecksum.appendHex(new StringBuilder(body.length() + 4).append('$').append(body).append('*'), cs).toString();
+    }
+}
@@ -0,0 +1,73 @@
+package com.jari;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// A realistic receiver feed including malformed lines; scores are sentences per second
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MixedCorpusBenchmark {
+
+    static final int SIZE = 1024;
+
+    private final String[] corpus = Corpus.mixed(SIZE, 42);
+    private final NMEASentenceDecoder decoder = new NMEASentenceDecoder(true);
+    private final NMEARecord record = new NMEARecord();
+    private final NMEAParseCache<NMEASentence> cache = NMEAParseCache.forSentences(256);
+    private final NMEABatchParser batchParser = new NMEABatchParser();
+    private final NMEAColumns columns = new NMEAColumns(SIZE);
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void parser(Blackhole bh) {
+        for (String s : corpus) {
+            try {
+                bh.consume(NMEAParser.of(s).toData());
+            } catch (RuntimeException e) {
+                bh.consume(e);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void decoder(Blackhole bh) {
+        for (String s : corpus) {
+            if (decoder.reset(s)) bh.consume(record.decode(decoder));
+        }
+    }
+
+    // Repeated GSA / GSV / VTG lines come out of the cache; the rest are decoded into typed records
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void cachedDecoder(Blackhole bh) {
+        for (String s : corpus) {
+            if (decoder.reset(s)) bh.consume(cache.get(decoder));
+        }
+    }
+
+    // The whole corpus into primitive columns in one loop
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void batchColumns(Blackhole bh) {
+        columns.clear();
+        batchParser.parse(Arrays.asList(corpus), columns);
+        bh.consume(columns.latitude);
+    }
+}
@@ -0,0 +1,82 @@
+package com.jari;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// NMEAParser per sentence type, next to the allocation-free decoder path
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+    @Param({ "GGA", "RMC", "VTG", "GSA", "GSV", "GLL", "ZDA", "GST" })
+    public String type;
+
+    private String sentence;
+    private NMEAParser parser;
+    private final NMEASentenceDecoder decoder = new NMEASentenceDecoder(true);
+    private final NMEARecord record = new NMEARecord();
+
+    @Setup
+    public void setUp() {
+        sentence = Corpus.sentence(type);
+        parser = NMEAParser.of(sentence);
+    }
+
+    @Benchmark
+    public NMEAParser parse() {
+        return NMEAParser.of(sentence);
+    }
+
+    // NMEAData is an auxiliary class of NMEAParser.java; consuming it keeps its name out of this file
+    @Benchmark
+    public void toData(Blackhole bh) {
+        bh.consume(parser.toData());
+    }
+
+    @Benchmark
+    public String summary() {
+        return parser.summary();
+    }
+
+    @Benchmark
+    public NMEARecord decodeFlyweight() {
+        decoder.reset(sentence);
+        record.decode(decoder);
+        return record;
+    }
+
+    @Benchmark
+    public NMEASentence decodeRecord() {
+        decoder.reset(sentence);
+        return NMEASentence.from(decoder);
+    }
+
+    // Position-only consumers: the eager parser against the lazy view
+    @Benchmark
+    public double parserPosition() {
+        NMEAParser p = NMEAParser.of(sentence);
+        return p.getLatitude() + p.getLongitude();
+    }
+
+    @Benchmark
+    public double lazyPosition() {
+        NMEALazySentence s = NMEALazySentence.of(sentence);
+        return s.latitude() + s.longitude();
+    }
+}
@@ -0,0 +1,50 @@
+package com.jari;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// ===== Reusable CharSequence view over ASCII bytes (no decoding, no copy) =====
+// Views a byte[] or, e.g. for a memory-mapped file, a ByteBuffer through absolute gets. One class
+// for both keeps the decoder's charAt() call sites bimorphic (String and this).
+final class AsciiSequence implements CharSequence {
+
+    private byte[] bytes = new byte[0];
+    private ByteBuffer buffer;
+    private int offset;
+    private int length;
+
+    AsciiSequence reset(byte[] bytes, int offset, int length) {
+        this.bytes = bytes;
+        this.buffer = null;
+        this.offset = offset;
+        this.length = length;
+        return this;
+    }
+
+    // The buffer's position and limit are not used or changed
+    AsciiSequence reset(ByteBuffer buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+        return this;
+    }
+
+    @Override
+    public int length() { return length; }
+
+    @Override
+    public char charAt(int index) {
+        return (char) (((buffer == null) ? bytes[offset + index] : buffer.get(offset + index)) & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (buffer == null) return new String(bytes, offset + start, end - start, StandardCharsets.ISO_8859_1);
+        return new StringBuilder(end - start).append(this, start, end).toString();
+    }
+
+    @Override
+    public String toString() {
+        return subSequence(0, length).toString();
+    }
+}
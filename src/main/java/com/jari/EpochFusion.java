@@ -0,0 +1,238 @@
+package com.jari;
+
+import static com.jari.NMEAFields.*;
+
+// ===== Merges the sentences of one receiver epoch into a single NMEAFix =====
+// Sentences are grouped per (source, talker) and UTC time. GGA/RMC/GLL/GST/ZDA carry the time and open
+// the epoch; VTG and GSA carry none and join the epoch that is currently open (or are counted as orphans).
+// An epoch is emitted as soon as every required type has arrived, when a sentence with a newer time
+// shows up, or once the deadline has passed (see expire()). Each receiver's previous epoch counts as
+// required too, so a receiver that follows RMC with VTG and GSA has them merged rather than orphaned;
+// only its first epoch, and the first after it starts sending a new type, can close before them.
+// A receiver is forgotten, and its slot reused, once it has sent nothing for the idle timeout.
+// Not thread-safe: feed each engine from one thread.
+public final class EpochFusion {
+
+    public interface Listener {
+        // The fix is reused after the callback returns; use NMEAFix.copy() to keep it
+        void onFix(NMEAFix fix);
+    }
+
+    public static final int DEFAULT_REQUIRED = mask(NMEAType.GGA, NMEAType.RMC);
+    public static final long DEFAULT_IDLE_MILLIS = 10_000;
+
+    private final SlotTable table;
+    private final long[] keys;
+    private final NMEAFix[] fixes;
+    private final boolean[] open;
+    private final long[] openedAt;
+    private final long[] lastSeen;
+    private final int[] lastEmittedTime;
+    // Types of the slot's previous epoch, including sentences that arrived after it was emitted
+    private final int[] lastTypes;
+    private final boolean[] used;
+    private final int required;
+    private final long deadlineMillis;
+    private final Listener listener;
+    private long idleMillis;
+
+    private long emitted;
+    private long emittedByDeadline;
+    private long late;
+    private long orphans;
+    private long dropped;
+
+    public EpochFusion(int maxReceivers, long deadlineMillis, Listener listener) {
+        this(maxReceivers, DEFAULT_REQUIRED, deadlineMillis, listener);
+    }
+
+    public EpochFusion(int maxReceivers, int requiredTypes, long deadlineMillis, Listener listener) {
+        this.table = new SlotTable(maxReceivers);
+        this.keys = new long[maxReceivers];
+        this.fixes = new NMEAFix[maxReceivers];
+        for (int i = 0; i < maxReceivers; i++) fixes[i] = new NMEAFix();
+        this.open = new boolean[maxReceivers];
+        this.openedAt = new long[maxReceivers];
+        this.lastSeen = new long[maxReceivers];
+        this.lastEmittedTime = new int[maxReceivers];
+        this.lastTypes = new int[maxReceivers];
+        this.used = new boolean[maxReceivers];
+        this.required = requiredTypes;
+        this.deadlineMillis = deadlineMillis;
+        this.listener = listener;
+        this.idleMillis = Math.max(DEFAULT_IDLE_MILLIS, deadlineMillis);
+    }
+
+    // ======= OPTIONS =======
+    // How long a receiver may stay silent before expire() forgets it, from its last sentence; keep it
+    // well above the epoch interval, since a forgotten receiver starts over without its epoch history
+    public EpochFusion idleTimeout(long millis) {
+        if (millis < deadlineMillis) throw new IllegalArgumentException("Idle timeout below the deadline: " + millis);
+        this.idleMillis = millis;
+        return this;
+    }
+
+    public static int mask(NMEAType... types) {
+        int m = 0;
+        for (NMEAType t : types) m |= 1 << t.ordinal();
+        return m;
+    }
+
+    // ======= INPUT =======
+    // Returns false when the sentence type does not contribute to a fix (GSV, unknown types)
+    public boolean accept(int source, NMEASentenceDecoder d, long nowMillis) {
+        NMEAType type = d.type();
+        int time;
+        switch (type) {
+            case GGA: time = d.fieldAsTimeMillis(GGA_TIME); break;
+            case RMC: time = d.fieldAsTimeMillis(RMC_TIME); break;
+            case GLL: time = d.fieldAsTimeMillis(GLL_TIME); break;
+            case GST: time = d.fieldAsTimeMillis(GST_TIME); break;
+            case ZDA: time = d.fieldAsTimeMillis(ZDA_TIME); break;
+            case VTG: case GSA: time = -1; break;
+            default: return false;
+        }
+
+        int talker = d.talker();
+        long key = SlotTable.key(source, talker);
+        int slot = table.get(key);
+        if (slot >= 0) {
+            lastSeen[slot] = nowMillis;
+            if (open[slot] && nowMillis - openedAt[slot] >= deadlineMillis) emit(slot, true);
+        }
+
+        int bit = 1 << type.ordinal();
+        if (time < 0) {
+            if (slot < 0 || !open[slot]) {
+                orphans++;
+                if (slot >= 0) lastTypes[slot] |= bit;
+                return true;
+            }
+        } else {
+            if (slot < 0) {
+                slot = table.acquire(key);
+                if (slot < 0) {
+                    expire(nowMillis);
+                    slot = table.acquire(key);
+                }
+                if (slot < 0) {
+                    dropped++;
+                    return true;
+                }
+                keys[slot] = key;
+                used[slot] = true;
+                lastSeen[slot] = nowMillis;
+                open[slot] = false;
+                lastEmittedTime[slot] = -1;
+                lastTypes[slot] = 0;
+            }
+            if (open[slot] && fixes[slot].time != time) emit(slot, false);
+            if (!open[slot]) {
+                if (time == lastEmittedTime[slot]) {
+                    late++;
+                    lastTypes[slot] |= bit;
+                    return true;
+                }
+                fixes[slot].clear(source, talker);
+                fixes[slot].time = time;
+                open[slot] = true;
+                openedAt[slot] = nowMillis;
+            }
+        }
+
+        NMEAFix fix = fixes[slot];
+        merge(fix, type, d);
+        fix.types |= bit;
+        int expected = required | lastTypes[slot];
+        if ((fix.types & expected) == expected) emit(slot, false);
+        return true;
+    }
+
+    private static void merge(NMEAFix fix, NMEAType type, NMEASentenceDecoder d) {
+        switch (type) {
+            case GGA:
+                // GGA is the richest position source, so it wins over RMC / GLL
+                fix.latitude = d.fieldAsDegrees(GGA_LATITUDE, GGA_LAT_DIR);
+                fix.longitude = d.fieldAsDegrees(GGA_LONGITUDE, GGA_LON_DIR);
+                fix.altitude = d.fieldAsDouble(GGA_ALTITUDE);
+                fix.fixQuality = d.fieldAsInt(GGA_FIX_QUALITY);
+                fix.satellites = d.fieldAsInt(GGA_SATELLITES);
+                if (Double.isNaN(fix.hdop)) fix.hdop = d.fieldAsDouble(GGA_HDOP);
+                break;
+            case RMC:
+                if (!fix.hasPosition()) {
+                    fix.latitude = d.fieldAsDegrees(RMC_LATITUDE, RMC_LAT_DIR);
+                    fix.longitude = d.fieldAsDegrees(RMC_LONGITUDE, RMC_LON_DIR);
+                }
+                fix.status = d.fieldAsChar(RMC_STATUS);
+                fix.speedKnots = d.fieldAsDouble(RMC_SPEED_KNOTS);
+                fix.course = d.fieldAsDouble(RMC_TRACK_ANGLE);
+                fix.date = d.fieldAsDate(RMC_DATE);
+                break;
+            case GLL:
+                if (!fix.hasPosition()) {
+                    fix.latitude = d.fieldAsDegrees(GLL_LATITUDE, GLL_LAT_DIR);
+                    fix.longitude = d.fieldAsDegrees(GLL_LONGITUDE, GLL_LON_DIR);
+                }
+                if (fix.status == '\0') fix.status = d.fieldAsChar(GLL_STATUS);
+                break;
+            case VTG:
+                if (Double.isNaN(fix.speedKnots)) fix.speedKnots = d.fieldAsDouble(VTG_SPEED_KNOTS);
+                if (Double.isNaN(fix.course)) fix.course = d.fieldAsDouble(VTG_TRACK_TRUE);
+                break;
+            case GSA:
+                fix.fixType = d.fieldAsInt(GSA_FIX_TYPE);
+                fix.pdop = d.fieldAsDouble(GSA_PDOP);
+                fix.hdop = d.fieldAsDouble(GSA_HDOP);
+                fix.vdop = d.fieldAsDouble(GSA_VDOP);
+                break;
+            case GST:
+                fix.rms = d.fieldAsDouble(GST_RMS);
+                fix.sigmaLat = d.fieldAsDouble(GST_SIGMA_LAT);
+                fix.sigmaLon = d.fieldAsDouble(GST_SIGMA_LON);
+                fix.sigmaAlt = d.fieldAsDouble(GST_SIGMA_ALT);
+                break;
+            case ZDA:
+                fix.date = NMEANumbers.date(d.fieldAsInt(ZDA_YEAR), d.fieldAsInt(ZDA_MONTH), d.fieldAsInt(ZDA_DAY));
+                break;
+            default:
+                break;
+        }
+    }
+
+    // ======= EMISSION =======
+    private void emit(int slot, boolean byDeadline) {
+        open[slot] = false;
+        lastEmittedTime[slot] = fixes[slot].time;
+        lastTypes[slot] = fixes[slot].types;
+        emitted++;
+        if (byDeadline) emittedByDeadline++;
+        listener.onFix(fixes[slot]);
+    }
+
+    // Emits every epoch whose deadline has passed and forgets receivers silent for the idle timeout
+    public void expire(long nowMillis) {
+        for (int slot = 0; slot < fixes.length; slot++) {
+            if (!used[slot]) continue;
+            if (open[slot] && nowMillis - openedAt[slot] >= deadlineMillis) emit(slot, true);
+            if (!open[slot] && nowMillis - lastSeen[slot] >= idleMillis) {
+                table.release(keys[slot]);
+                used[slot] = false;
+            }
+        }
+    }
+
+    // Emits every open epoch, e.g. at end of input
+    public void flush() {
+        for (int slot = 0; slot < fixes.length; slot++) {
+            if (used[slot] && open[slot]) emit(slot, true);
+        }
+    }
+
+    // ======= STATS =======
+    public long emittedFixes() { return emitted; }
+    public long emittedByDeadline() { return emittedByDeadline; }
+    public long lateSentences() { return late; }
+    public long orphanSentences() { return orphans; }
+    public long droppedSentences() { return dropped; }
+}
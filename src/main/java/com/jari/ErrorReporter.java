@@ -0,0 +1,42 @@
+package com.jari;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// ===== Applies an NMEAErrorPolicy: per-status counters and the dead-letter sink =====
+// Shared by the threads of one reader, pipeline or log file; each thread passes its own NMEAError.
+final class ErrorReporter {
+
+    private static final NMEAStatus[] STATUSES = NMEAStatus.values();
+
+    private final NMEAErrorPolicy policy;
+    private final NMEADeadLetterSink sink;
+    private final LongAdder[] counts = new LongAdder[STATUSES.length];
+
+    static final ErrorReporter SKIP = new ErrorReporter(NMEAErrorPolicy.SKIP, null);
+
+    ErrorReporter(NMEAErrorPolicy policy, NMEADeadLetterSink sink) {
+        if (policy == NMEAErrorPolicy.DEAD_LETTER && sink == null)
+            throw new IllegalArgumentException("DEAD_LETTER needs a sink");
+        this.policy = policy;
+        this.sink = sink;
+        for (int i = 0; i < counts.length; i++) counts[i] = new LongAdder();
+    }
+
+    // True when the error's details are needed; otherwise count() is enough
+    boolean wantsDetails() {
+        return policy == NMEAErrorPolicy.DEAD_LETTER;
+    }
+
+    void count(NMEAStatus status) {
+        if (policy != NMEAErrorPolicy.SKIP) counts[status.ordinal()].increment();
+    }
+
+    void report(NMEAError error) {
+        count(error.status());
+        if (sink != null) sink.accept(error);
+    }
+
+    long errors(NMEAStatus status) {
+        return counts[status.ordinal()].sum();
+    }
+}
@@ -0,0 +1,27 @@
+package com.jari;
+
+import static com.jari.NMEAFields.*;
+
+public final class GGASentence extends NMEASentence {
+
+    public final int time;
+    public final double latitude;
+    public final double longitude;
+    public final int fixQuality;
+    public final int satellites;
+    public final double hdop;
+    public final double altitude;
+    public final char altitudeUnits;
+
+    GGASentence(NMEASentenceDecoder d) {
+        super(NMEAType.GGA, d);
+        time = d.fieldAsTimeMillis(GGA_TIME);
+        latitude = d.fieldAsDegrees(GGA_LATITUDE, GGA_LAT_DIR);
+        longitude = d.fieldAsDegrees(GGA_LONGITUDE, GGA_LON_DIR);
+        fixQuality = d.fieldAsInt(GGA_FIX_QUALITY);
+        satellites = d.fieldAsInt(GGA_SATELLITES);
+        hdop = d.fieldAsDouble(GGA_HDOP);
+        altitude = d.fieldAsDouble(GGA_ALTITUDE);
+        altitudeUnits = d.fieldAsChar(GGA_ALTITUDE_UNITS);
+    }
+}
@@ -0,0 +1,19 @@
+package com.jari;
+
+import static com.jari.NMEAFields.*;
+
+public final class GLLSentence extends NMEASentence {
+
+    public final double latitude;
+    public final double longitude;
+    public final int time;
+    public final char status;
+
+    GLLSentence(NMEASentenceDecoder d) {
+        super(NMEAType.GLL, d);
+        latitude = d.fieldAsDegrees(GLL_LATITUDE, GLL_LAT_DIR);
+        longitude = d.fieldAsDegrees(GLL_LONGITUDE, GLL_LON_DIR);
+        time = d.fieldAsTimeMillis(GLL_TIME);
+        status = d.fieldAsChar(GLL_STATUS);
+    }
+}
@@ -0,0 +1,31 @@
+package com.jari;
+
+import java.util.Arrays;
+
+import static com.jari.NMEAFields.*;
+
+public final class GSASentence extends NMEASentence {
+
+    public final char mode;
+    public final int fixType;
+    public final double pdop;
+    public final double hdop;
+    public final double vdop;
+    private final int[] satellitesUsed;
+
+    GSASentence(NMEASentenceDecoder d) {
+        super(NMEAType.GSA, d);
+        mode = d.fieldAsChar(GSA_MODE);
+        fixType = d.fieldAsInt(GSA_FIX_TYPE);
+        int[] used = new int[GSA_LAST_SATELLITE - GSA_FIRST_SATELLITE + 1];
+        int n = 0;
+        for (int i = GSA_FIRST_SATELLITE; i <= GSA_LAST_SATELLITE; i++) if (!d.isFieldEmpty(i)) used[n++] = d.fieldAsInt(i);
+        satellitesUsed = (n == used.length) ? used : Arrays.copyOf(used, n);
+        pdop = d.fieldAsDouble(GSA_PDOP);
+        hdop = d.fieldAsDouble(GSA_HDOP);
+        vdop = d.fieldAsDouble(GSA_VDOP);
+    }
+
+    public int satelliteCount() { return satellitesUsed.length; }
+    public int satelliteUsed(int i) { return satellitesUsed[i]; }
+}
@@ -0,0 +1,27 @@
+package com.jari;
+
+import static com.jari.NMEAFields.*;
+
+public final class GSTSentence extends NMEASentence {
+
+    public final int time;
+    public final double rms;
+    public final double sigmaMajor;
+    public final double sigmaMinor;
+    public final double orientation;
+    public final double sigmaLat;
+    public final double sigmaLon;
+    public final double sigmaAlt;
+
+    GSTSentence(NMEASentenceDecoder d) {
+        super(NMEAType.GST, d);
+        time = d.fieldAsTimeMillis(GST_TIME);
+        rms = d.fieldAsDouble(GST_RMS);
+        sigmaMajor = d.fieldAsDouble(GST_SIGMA_MAJOR);
+        sigmaMinor = d.fieldAsDouble(GST_SIGMA_MINOR);
+        orientation = d.fieldAsDouble(GST_ORIENTATION);
+        sigmaLat = d.fieldAsDouble(GST_SIGMA_LAT);
+        sigmaLon = d.fieldAsDouble(GST_SIGMA_LON);
+        sigmaAlt = d.fieldAsDouble(GST_SIGMA_ALT);
+    }
+}
@@ -0,0 +1,133 @@
+package com.jari;
+
+import static com.jari.NMEAFields.*;
+
+// ===== Assembles multi-sentence GSV groups into complete sky views =====
+// Groups are tracked per (source, talker) in a fixed number of preallocated slots, so a long-lived
+// assembler can serve hundreds of receivers without allocating. A group is emitted when its last
+// message arrives; out-of-sequence messages discard the group and stale groups time out.
+// Not thread-safe: feed each assembler from one thread.
+public final class GSVAssembler {
+
+    public interface Listener {
+        // The view is reused after the callback returns; use SkyView.copy() to keep it
+        void onSkyView(SkyView view);
+    }
+
+    private final SlotTable table;
+    private final long[] keys;
+    private final boolean[] active;
+    private final SkyView[] views;
+    private final int[] totalMessages;
+    private final int[] nextMessage;
+    private final long[] startedAt;
+    private final long timeoutMillis;
+    private final Listener listener;
+    private NMEAMetrics metrics = NMEAMetrics.NOOP;
+
+    private long completed;
+    private long timedOut;
+    private long discarded;
+
+    public GSVAssembler(int maxGroups, long timeoutMillis, Listener listener) {
+        this.table = new SlotTable(maxGroups);
+        this.keys = new long[maxGroups];
+        this.active = new boolean[maxGroups];
+        this.views = new SkyView[maxGroups];
+        for (int i = 0; i < maxGroups; i++) views[i] = new SkyView();
+        this.totalMessages = new int[maxGroups];
+        this.nextMessage = new int[maxGroups];
+        this.startedAt = new long[maxGroups];
+        this.timeoutMillis = timeoutMillis;
+        this.listener = listener;
+    }
+
+    public GSVAssembler metrics(NMEAMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
+    // ======= INPUT =======
+    // Returns false when the sentence is not a GSV message
+    public boolean accept(int source, NMEASentenceDecoder d, long nowMillis) {
+        if (d.type() != NMEAType.GSV) return false;
+        int talker = d.talker();
+        int total = d.fieldAsInt(GSV_TOTAL_MESSAGES, 1);
+        int number = d.fieldAsInt(GSV_MESSAGE_NUMBER, 1);
+        long key = SlotTable.key(source, talker);
+
+        int slot = table.get(key);
+        if (slot >= 0 && nowMillis - startedAt[slot] > timeoutMillis) {
+            timedOut++;
+            metrics.gsvGroupTimedOut();
+            release(slot);
+            slot = -1;
+        }
+
+        if (number == 1) {
+            if (slot >= 0) discarded++;
+            else slot = table.acquire(key);
+            if (slot < 0) {
+                expire(nowMillis);
+                slot = table.acquire(key);
+            }
+            if (slot < 0) {
+                discarded++;
+                return true;
+            }
+            keys[slot] = key;
+            active[slot] = true;
+            views[slot].clear(source, talker);
+            totalMessages[slot] = total;
+            nextMessage[slot] = 1;
+            startedAt[slot] = nowMillis;
+        } else if (slot < 0) {
+            discarded++;
+            return true;
+        }
+
+        if (number != nextMessage[slot] || total != totalMessages[slot]) {
+            discarded++;
+            release(slot);
+            return true;
+        }
+
+        SkyView view = views[slot];
+        view.satellitesInView = d.fieldAsInt(GSV_SATELLITES_IN_VIEW, 0);
+        for (int i = GSV_FIRST_SATELLITE; i + 3 < d.fieldCount(); i += GSV_SATELLITE_BLOCK) {
+            view.add(d.fieldAsInt(i), d.fieldAsInt(i + 1), d.fieldAsInt(i + 2), d.fieldAsInt(i + 3));
+        }
+
+        if (number == total) {
+            completed++;
+            metrics.gsvGroupCompleted();
+            release(slot);
+            listener.onSkyView(view);
+        } else {
+            nextMessage[slot]++;
+        }
+        return true;
+    }
+
+    // Drops every group that has been waiting for more than the timeout
+    public void expire(long nowMillis) {
+        for (int slot = 0; slot < views.length; slot++) {
+            if (active[slot] && nowMillis - startedAt[slot] > timeoutMillis) {
+                timedOut++;
+                metrics.gsvGroupTimedOut();
+                release(slot);
+            }
+        }
+    }
+
+    private void release(int slot) {
+        active[slot] = false;
+        table.release(keys[slot]);
+    }
+
+    // ======= STATS =======
+    public int pendingGroups() { return table.size(); }
+    public long completedGroups() { return completed; }
+    public long timedOutGroups() { return timedOut; }
+    public long discardedMessages() { return discarded; }
+}
@@ -0,0 +1,39 @@
+package com.jari;
+
+import static com.jari.NMEAFields.*;
+
+// One message of a GSV group; see GSVAssembler for complete sky views
+public final class GSVSentence extends NMEASentence {
+
+    public final int totalMessages;
+    public final int messageNumber;
+    public final int satellitesInView;
+    private final int[] id;
+    private final int[] elevation;
+    private final int[] azimuth;
+    private final int[] snr;
+
+    GSVSentence(NMEASentenceDecoder d) {
+        super(NMEAType.GSV, d);
+        totalMessages = d.fieldAsInt(GSV_TOTAL_MESSAGES, 1);
+        messageNumber = d.fieldAsInt(GSV_MESSAGE_NUMBER, 1);
+        satellitesInView = d.fieldAsInt(GSV_SATELLITES_IN_VIEW, 0);
+        int n = Math.max(0, (d.fieldCount() - GSV_FIRST_SATELLITE) / GSV_SATELLITE_BLOCK);
+        id = new int[n];
+        elevation = new int[n];
+        azimuth = new int[n];
+        snr = new int[n];
+        for (int k = 0, i = GSV_FIRST_SATELLITE; k < n; k++, i += GSV_SATELLITE_BLOCK) {
+            id[k] = d.fieldAsInt(i);
+            elevation[k] = d.fieldAsInt(i + 1);
+            azimuth[k] = d.fieldAsInt(i + 2);
+            snr[k] = d.fieldAsInt(i + 3);
+        }
+    }
+
+    public int satelliteCount() { return id.length; }
+    public int satelliteId(int i) { return id[i]; }
+    public int elevation(int i) { return elevation[i]; }
+    public int azimuth(int i) { return azimuth[i]; }
+    public int snr(int i) { return snr[i]; }
+}
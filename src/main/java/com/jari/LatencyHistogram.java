@@ -0,0 +1,72 @@
+package com.jari;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// ===== Lock-free log-linear histogram of non-negative values (HdrHistogram-style) =====
+// Values below 16 get their own bucket; above that every power of two is split into 8 sub-buckets,
+// so a recorded value is reported within 12.5%. Buckets are LongAdders, which stripe under contention.
+final class LatencyHistogram {
+
+    private static final int LINEAR = 16;
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    // Exponents 4..62 above the linear range
+    static final int BUCKETS = LINEAR + (63 - 4) * SUB_BUCKETS;
+
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+
+    LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) counts[i] = new LongAdder();
+    }
+
+    static int bucket(long value) {
+        if (value < LINEAR) return (int) Math.max(0, value);
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR + (exponent - 4) * SUB_BUCKETS + sub;
+    }
+
+    // Largest value that lands in the bucket
+    static long highestValue(int bucket) {
+        if (bucket < LINEAR) return bucket;
+        int exponent = (bucket - LINEAR) / SUB_BUCKETS + 4;
+        int sub = (bucket - LINEAR) % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + sub + 1) << (exponent - SUB_BITS)) - 1;
+    }
+
+    void record(long value) {
+        counts[bucket(value)].increment();
+        total.increment();
+        sum.add(value);
+    }
+
+    long count() { return total.sum(); }
+
+    double mean() {
+        long n = total.sum();
+        return (n == 0) ? 0 : (double) sum.sum() / n;
+    }
+
+    // Upper bound of the bucket holding the given percentile (0..100), or 0 when empty
+    long percentile(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) n += snapshot[i] = counts[i].sum();
+        if (n == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) return highestValue(i);
+        }
+        return highestValue(BUCKETS - 1);
+    }
+
+    void reset() {
+        for (LongAdder c : counts) c.reset();
+        total.reset();
+        sum.reset();
+    }
+}
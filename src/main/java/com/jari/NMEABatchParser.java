@@ -0,0 +1,171 @@
+package com.jari;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static com.jari.NMEAFields.*;
+
+// ===== Decodes many sentences straight into NMEAColumns, with no per-sentence objects =====
+// One decoder pass per line fills time, position, altitude, speed, HDOP, fix quality and satellite
+// count where the sentence carries them: GGA all but speed, RMC time/position/speed (position only
+// when its status is not 'V'), GLL time/position, VTG speed, GSA HDOP, ZDA / GST time.
+// Sentences of the selected types (all known types by default) become rows; others are skipped.
+// Not thread-safe: keep one parser per thread.
+//
+//   NMEAColumns batch = new NMEAColumns(65536);
+//   while (in.hasRemaining()) {
+//       parser.parse(in, batch);
+//       if (batch.isFull()) { store(batch); batch.clear(); }
+//   }
+public final class NMEABatchParser {
+
+    private final NMEASentenceDecoder decoder;
+    private final byte[] line = new byte[NMEAStreamReader.MAX_SENTENCE_LENGTH];
+    private final NMEAError error = new NMEAError();
+    private int types = EpochFusion.mask(NMEAType.GGA, NMEAType.RMC, NMEAType.VTG, NMEAType.GSA,
+            NMEAType.GSV, NMEAType.GLL, NMEAType.ZDA, NMEAType.GST);
+    private ErrorReporter errors = ErrorReporter.SKIP;
+
+    private long rows;
+    private long skipped;
+    private long rejected;
+
+    public NMEABatchParser() {
+        this(true);
+    }
+
+    public NMEABatchParser(boolean validateChecksum) {
+        this.decoder = new NMEASentenceDecoder(validateChecksum);
+    }
+
+    // ======= OPTIONS =======
+    // Only these sentence types become rows
+    public NMEABatchParser types(NMEAType... types) {
+        this.types = EpochFusion.mask(types);
+        return this;
+    }
+
+    // SKIP (the default), COUNT per NMEAStatus, or DEAD_LETTER to hand every rejected sentence to sink
+    public NMEABatchParser onError(NMEAErrorPolicy policy, NMEADeadLetterSink sink) {
+        this.errors = new ErrorReporter(policy, sink);
+        return this;
+    }
+
+    // ======= PARSING =======
+    // Decodes lines[from..] until the list ends or the batch is full; returns the index of the first
+    // line not consumed, so a full batch can be drained and the call repeated from there
+    public int parse(List<? extends CharSequence> lines, int from, NMEAColumns out) {
+        int i = from;
+        for (int n = lines.size(); i < n && !out.isFull(); i++) {
+            CharSequence s = lines.get(i);
+            if (decoder.reset(s)) add(out);
+            else reject();
+        }
+        return i;
+    }
+
+    public int parse(List<? extends CharSequence> lines, NMEAColumns out) {
+        return parse(lines, 0, out);
+    }
+
+    // Decodes '\n' / '\r' terminated lines from the buffer's position until the batch is full or no
+    // complete line is left; the position moves past every consumed line, so an incomplete last line
+    // stays for the next call (compact() and refill the buffer first). Returns the number of rows added.
+    public int parse(ByteBuffer in, NMEAColumns out) {
+        int before = out.size();
+        int limit = in.limit();
+        boolean heap = in.hasArray();
+        byte[] array = heap ? in.array() : line;
+        int base = heap ? in.arrayOffset() : 0;
+        int lineStart = in.position();
+
+        for (int i = lineStart; i < limit && !out.isFull(); i++) {
+            byte b = in.get(i);
+            if (b != '\n' && b != '\r') continue;
+            int start = lineStart;
+            while (start < i && in.get(start) != '$' && in.get(start) != '!') start++;
+            int len = i - start;
+            if (len > NMEAStreamReader.MAX_SENTENCE_LENGTH) {
+                rejected++;
+                if (errors.wantsDetails()) {
+                    errors.report(error.set(NMEAStatus.TOO_LONG, -1, -1).text(copy(in, start, NMEAStreamReader.MAX_SENTENCE_LENGTH), 0, NMEAStreamReader.MAX_SENTENCE_LENGTH));
+                } else {
+                    errors.count(NMEAStatus.TOO_LONG);
+                }
+            } else if (len > 0) {
+                boolean ok = heap ? decoder.reset(array, base + start, len) : decoder.reset(copy(in, start, len), 0, len);
+                if (ok) add(out);
+                else reject();
+            }
+            lineStart = i + 1;
+        }
+        in.position(lineStart);
+        return out.size() - before;
+    }
+
+    private byte[] copy(ByteBuffer in, int start, int len) {
+        for (int k = 0; k < len; k++) line[k] = in.get(start + k);
+        return line;
+    }
+
+    // Positions are -1 on both paths: a buffer index means nothing once the caller compacts and refills
+    private void reject() {
+        rejected++;
+        if (errors.wantsDetails()) errors.report(error.set(decoder.status(), -1, -1).from(decoder));
+        else errors.count(decoder.status());
+    }
+
+    // ======= COLUMNS =======
+    private void add(NMEAColumns out) {
+        NMEASentenceDecoder d = decoder;
+        NMEAType type = d.type();
+        if ((types & (1 << type.ordinal())) == 0) {
+            skipped++;
+            return;
+        }
+        rows++;
+        int row = out.add(type, d.talker());
+        switch (type) {
+            case GGA:
+                out.time(row, d.fieldAsTimeMillis(GGA_TIME));
+                out.position(row, d.fieldAsDegrees(GGA_LATITUDE, GGA_LAT_DIR), d.fieldAsDegrees(GGA_LONGITUDE, GGA_LON_DIR));
+                out.value(NMEAColumns.ALTITUDE, out.altitude, row, d.fieldAsDouble(GGA_ALTITUDE));
+                out.value(NMEAColumns.HDOP, out.hdop, row, d.fieldAsDouble(GGA_HDOP));
+                out.value(NMEAColumns.FIX_QUALITY, out.fixQuality, row, d.fieldAsInt(GGA_FIX_QUALITY));
+                out.value(NMEAColumns.SATELLITES, out.satellites, row, d.fieldAsInt(GGA_SATELLITES));
+                break;
+            case RMC:
+                out.time(row, d.fieldAsTimeMillis(RMC_TIME));
+                if (d.fieldAsChar(RMC_STATUS) != 'V') {
+                    out.position(row, d.fieldAsDegrees(RMC_LATITUDE, RMC_LAT_DIR), d.fieldAsDegrees(RMC_LONGITUDE, RMC_LON_DIR));
+                }
+                out.value(NMEAColumns.SPEED, out.speedKnots, row, d.fieldAsDouble(RMC_SPEED_KNOTS));
+                break;
+            case GLL:
+                out.time(row, d.fieldAsTimeMillis(GLL_TIME));
+                out.position(row, d.fieldAsDegrees(GLL_LATITUDE, GLL_LAT_DIR), d.fieldAsDegrees(GLL_LONGITUDE, GLL_LON_DIR));
+                break;
+            case VTG:
+                out.value(NMEAColumns.SPEED, out.speedKnots, row, d.fieldAsDouble(VTG_SPEED_KNOTS));
+                break;
+            case GSA:
+                out.value(NMEAColumns.HDOP, out.hdop, row, d.fieldAsDouble(GSA_HDOP));
+                break;
+            case ZDA:
+                out.time(row, d.fieldAsTimeMillis(ZDA_TIME));
+                break;
+            case GST:
+                out.time(row, d.fieldAsTimeMillis(GST_TIME));
+                break;
+            default:
+                break;
+        }
+    }
+
+    // ======= STATS =======
+    public long rowCount() { return rows; }
+    // Well-formed sentences of a type not selected by types()
+    public long skippedCount() { return skipped; }
+    public long rejectedCount() { return rejected; }
+    public long errorCount(NMEAStatus status) { return errors.errors(status); }
+}
@@ -0,0 +1,178 @@
+package com.jari;
+
+import java.nio.ByteBuffer;
+
+// ===== Compact binary encoding of NMEAFix and SkyView =====
+// Streams start with a 4-byte header (magic + version). Integers are LEB128 varints; signed values are
+// zigzagged. A fix is a presence bitmask followed by its present fields only. Time, date and lat/lon are
+// deltas against the previous fix in the same stream. Doubles are stored fixed-point:
+//   lat/lon 1e-7 deg, altitude 1 cm, speed 0.001 kn, course 0.01 deg, DOP 0.01, rms / sigmas 1 mm.
+// Row streams are written by NMEABinaryWriter and read by NMEABinaryReader; NMEAColumnarWriter /
+// NMEAColumnarReader store blocks of fixes column by column for archives.
+public final class NMEABinary {
+
+    private NMEABinary() {}
+
+    public static final int VERSION = 1;
+    // Record tags in row streams
+    public static final int FIX = 1;
+    public static final int SKY_VIEW = 2;
+    public static final int END = -1;
+
+    static final byte[] ROW_MAGIC = { 'N', 'M', 'B' };
+    static final byte[] COLUMNAR_MAGIC = { 'N', 'M', 'C' };
+    static final int HEADER_LENGTH = 4;
+
+    // ======= FIX COLUMNS =======
+    // Source, talker and types are always present; the others carry a presence bit (1 << column)
+    static final int C_SOURCE = 0, C_TALKER = 1, C_TYPES = 2, C_TIME = 3, C_DATE = 4, C_STATUS = 5,
+            C_LATITUDE = 6, C_LONGITUDE = 7, C_ALTITUDE = 8, C_FIX_QUALITY = 9, C_SATELLITES = 10,
+            C_SPEED = 11, C_COURSE = 12, C_FIX_TYPE = 13, C_PDOP = 14, C_HDOP = 15, C_VDOP = 16,
+            C_RMS = 17, C_SIGMA_LAT = 18, C_SIGMA_LON = 19, C_SIGMA_ALT = 20;
+    static final int COLUMNS = 21;
+    static final int ALWAYS_PRESENT = 3; // the first three columns
+
+    // Delta state carried from one fix to the next
+    static final int S_TIME = 0, S_DATE = 1, S_LATITUDE = 2, S_LONGITUDE = 3;
+    static final int STATE = 4;
+
+    private static final double E7 = 1e7;
+    private static final double CM = 100;
+    private static final double MILLI = 1000;
+    private static final double CENTI = 100;
+
+    // Fills v with the encoded (zigzagged / unsigned) value of every present column and next with the
+    // delta state after this fix; returns the presence mask shifted past the always-present columns.
+    static int encodeFix(NMEAFix f, long[] state, long[] next, long[] v) {
+        System.arraycopy(state, 0, next, 0, STATE);
+        int mask = 0;
+        v[C_SOURCE] = zigzag(f.source);
+        v[C_TALKER] = f.talker & 0xFFFF;
+        v[C_TYPES] = f.types & 0xFFFFFFFFL;
+        if (f.time >= 0) {
+            mask |= 1 << C_TIME;
+            v[C_TIME] = zigzag(f.time - state[S_TIME]);
+            next[S_TIME] = f.time;
+        }
+        if (f.date >= 0) {
+            mask |= 1 << C_DATE;
+            v[C_DATE] = zigzag(f.date - state[S_DATE]);
+            next[S_DATE] = f.date;
+        }
+        if (f.status != '\0') {
+            mask |= 1 << C_STATUS;
+            v[C_STATUS] = f.status;
+        }
+        if (!Double.isNaN(f.latitude)) {
+            long e7 = Math.round(f.latitude * E7);
+            mask |= 1 << C_LATITUDE;
+            v[C_LATITUDE] = zigzag(e7 - state[S_LATITUDE]);
+            next[S_LATITUDE] = e7;
+        }
+        if (!Double.isNaN(f.longitude)) {
+            long e7 = Math.round(f.longitude * E7);
+            mask |= 1 << C_LONGITUDE;
+            v[C_LONGITUDE] = zigzag(e7 - state[S_LONGITUDE]);
+            next[S_LONGITUDE] = e7;
+        }
+        mask |= fixed(f.altitude, CM, C_ALTITUDE, v);
+        mask |= count(f.fixQuality, C_FIX_QUALITY, v);
+        mask |= count(f.satellites, C_SATELLITES, v);
+        mask |= fixed(f.speedKnots, MILLI, C_SPEED, v);
+        mask |= fixed(f.course, CENTI, C_COURSE, v);
+        mask |= count(f.fixType, C_FIX_TYPE, v);
+        mask |= fixed(f.pdop, CENTI, C_PDOP, v);
+        mask |= fixed(f.hdop, CENTI, C_HDOP, v);
+        mask |= fixed(f.vdop, CENTI, C_VDOP, v);
+        mask |= fixed(f.rms, MILLI, C_RMS, v);
+        mask |= fixed(f.sigmaLat, MILLI, C_SIGMA_LAT, v);
+        mask |= fixed(f.sigmaLon, MILLI, C_SIGMA_LON, v);
+        mask |= fixed(f.sigmaAlt, MILLI, C_SIGMA_ALT, v);
+        return mask >>> ALWAYS_PRESENT;
+    }
+
+    private static int fixed(double value, double scale, int column, long[] v) {
+        if (Double.isNaN(value)) return 0;
+        v[column] = zigzag(Math.round(value * scale));
+        return 1 << column;
+    }
+
+    private static int count(int value, int column, long[] v) {
+        if (value < 0) return 0;
+        v[column] = value;
+        return 1 << column;
+    }
+
+    static boolean isPresent(int mask, int column) {
+        return column < ALWAYS_PRESENT || (mask & (1 << (column - ALWAYS_PRESENT))) != 0;
+    }
+
+    // Inverse of encodeFix; only columns present in mask are read from v, and state is advanced
+    static void decodeFix(int mask, long[] v, long[] state, NMEAFix f) {
+        f.clear((int) unzigzag(v[C_SOURCE]), (int) v[C_TALKER]);
+        f.types = (int) v[C_TYPES];
+        if (isPresent(mask, C_TIME)) f.time = (int) (state[S_TIME] += unzigzag(v[C_TIME]));
+        if (isPresent(mask, C_DATE)) f.date = (int) (state[S_DATE] += unzigzag(v[C_DATE]));
+        if (isPresent(mask, C_STATUS)) f.status = (char) v[C_STATUS];
+        if (isPresent(mask, C_LATITUDE)) f.latitude = (state[S_LATITUDE] += unzigzag(v[C_LATITUDE])) / E7;
+        if (isPresent(mask, C_LONGITUDE)) f.longitude = (state[S_LONGITUDE] += unzigzag(v[C_LONGITUDE])) / E7;
+        if (isPresent(mask, C_ALTITUDE)) f.altitude = unzigzag(v[C_ALTITUDE]) / CM;
+        if (isPresent(mask, C_FIX_QUALITY)) f.fixQuality = (int) v[C_FIX_QUALITY];
+        if (isPresent(mask, C_SATELLITES)) f.satellites = (int) v[C_SATELLITES];
+        if (isPresent(mask, C_SPEED)) f.speedKnots = unzigzag(v[C_SPEED]) / MILLI;
+        if (isPresent(mask, C_COURSE)) f.course = unzigzag(v[C_COURSE]) / CENTI;
+        if (isPresent(mask, C_FIX_TYPE)) f.fixType = (int) v[C_FIX_TYPE];
+        if (isPresent(mask, C_PDOP)) f.pdop = unzigzag(v[C_PDOP]) / CENTI;
+        if (isPresent(mask, C_HDOP)) f.hdop = unzigzag(v[C_HDOP]) / CENTI;
+        if (isPresent(mask, C_VDOP)) f.vdop = unzigzag(v[C_VDOP]) / CENTI;
+        if (isPresent(mask, C_RMS)) f.rms = unzigzag(v[C_RMS]) / MILLI;
+        if (isPresent(mask, C_SIGMA_LAT)) f.sigmaLat = unzigzag(v[C_SIGMA_LAT]) / MILLI;
+        if (isPresent(mask, C_SIGMA_LON)) f.sigmaLon = unzigzag(v[C_SIGMA_LON]) / MILLI;
+        if (isPresent(mask, C_SIGMA_ALT)) f.sigmaAlt = unzigzag(v[C_SIGMA_ALT]) / MILLI;
+    }
+
+    // ======= VARINTS =======
+    static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    static long unzigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    // Writes v as an unsigned LEB128 varint at pos and returns the position after it
+    static int putVarint(byte[] b, int pos, long v) {
+        while ((v & ~0x7FL) != 0) {
+            b[pos++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        b[pos++] = (byte) v;
+        return pos;
+    }
+
+    static long getVarint(ByteBuffer b) {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte x = b.get();
+            v |= (long) (x & 0x7F) << shift;
+            if (x >= 0) return v;
+        }
+        throw new IllegalArgumentException("Malformed varint at " + (b.position() - 1));
+    }
+
+    // ======= HEADER =======
+    static int putHeader(byte[] b, int pos, byte[] magic) {
+        System.arraycopy(magic, 0, b, pos, magic.length);
+        b[pos + magic.length] = (byte) VERSION;
+        return pos + HEADER_LENGTH;
+    }
+
+    static void checkHeader(ByteBuffer b, byte[] magic) {
+        if (b.remaining() < HEADER_LENGTH) throw new IllegalArgumentException("Missing NMEA binary header");
+        for (byte m : magic) {
+            if (b.get() != m) throw new IllegalArgumentException("Not an NMEA binary stream");
+        }
+        int version = b.get() & 0xFF;
+        if (version != VERSION) throw new IllegalArgumentException("Unsupported NMEA binary version: " + version);
+    }
+}
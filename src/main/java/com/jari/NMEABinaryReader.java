@@ -0,0 +1,67 @@
+package com.jari;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import static com.jari.NMEABinary.*;
+
+// ===== Reads a row stream written by NMEABinaryWriter straight out of a ByteBuffer =====
+// Records are decoded into one reused NMEAFix / SkyView, so reading does not allocate; copy() what
+// has to outlive the next call. The caller's buffer position is not moved.
+//
+//   NMEABinaryReader r = new NMEABinaryReader(buffer);
+//   for (int tag; (tag = r.next()) != NMEABinary.END; ) if (tag == NMEABinary.FIX) use(r.fix());
+// Not thread-safe.
+public final class NMEABinaryReader {
+
+    private final ByteBuffer in;
+    private final long[] values = new long[COLUMNS];
+    private final long[] state = new long[STATE];
+    private final NMEAFix fix = new NMEAFix();
+    private final SkyView view = new SkyView();
+
+    public NMEABinaryReader(ByteBuffer in) {
+        this.in = in.duplicate();
+        checkHeader(this.in, ROW_MAGIC);
+    }
+
+    // Decodes the next record and returns its tag (FIX or SKY_VIEW), or END when the buffer is exhausted
+    public int next() {
+        if (!in.hasRemaining()) return END;
+        int tag = in.get();
+        try {
+            switch (tag) {
+                case FIX: readFix(); break;
+                case SKY_VIEW: readSkyView(); break;
+                default: throw new IllegalArgumentException("Unknown record tag " + tag + " at " + (in.position() - 1));
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated record");
+        }
+        return tag;
+    }
+
+    private void readFix() {
+        int mask = (int) getVarint(in);
+        for (int c = 0; c < COLUMNS; c++) {
+            if (isPresent(mask, c)) values[c] = getVarint(in);
+        }
+        decodeFix(mask, values, state, fix);
+    }
+
+    private void readSkyView() {
+        view.clear((int) unzigzag(getVarint(in)), (int) getVarint(in));
+        view.satellitesInView = (int) unzigzag(getVarint(in));
+        int count = (int) getVarint(in);
+        if (count > SkyView.MAX_SATELLITES) throw new IllegalArgumentException("Too many satellites: " + count);
+        for (int i = 0; i < count; i++) {
+            view.add((int) unzigzag(getVarint(in)), (int) unzigzag(getVarint(in)),
+                    (int) unzigzag(getVarint(in)), (int) unzigzag(getVarint(in)));
+        }
+    }
+
+    // Valid after next() returned FIX / SKY_VIEW, until the following call
+    public NMEAFix fix() { return fix; }
+    public SkyView skyView() { return view; }
+    public int position() { return in.position(); }
+}
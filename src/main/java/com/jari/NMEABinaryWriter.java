@@ -0,0 +1,65 @@
+package com.jari;
+
+import java.nio.ByteBuffer;
+
+import static com.jari.NMEABinary.*;
+
+// ===== Writes fixes and sky views as a row stream into a caller-supplied ByteBuffer =====
+// A record is encoded into a scratch array first, so a record that does not fit leaves the buffer and
+// the delta state untouched: write() returns false, and the caller drains the buffer and retries.
+// The header goes out on construction; start a new writer for every message or file.
+// Not thread-safe.
+public final class NMEABinaryWriter {
+
+    private static final int MAX_RECORD = 2048;
+
+    private final ByteBuffer out;
+    private final byte[] scratch = new byte[MAX_RECORD];
+    private final long[] values = new long[COLUMNS];
+    private final long[] state = new long[STATE];
+    private final long[] next = new long[STATE];
+    private long records;
+
+    public NMEABinaryWriter(ByteBuffer out) {
+        this.out = out;
+        out.put(scratch, 0, putHeader(scratch, 0, ROW_MAGIC));
+    }
+
+    public boolean write(NMEAFix fix) {
+        int mask = encodeFix(fix, state, next, values);
+        int pos = 0;
+        scratch[pos++] = FIX;
+        pos = putVarint(scratch, pos, mask);
+        for (int c = 0; c < COLUMNS; c++) {
+            if (isPresent(mask, c)) pos = putVarint(scratch, pos, values[c]);
+        }
+        if (!flush(pos)) return false;
+        System.arraycopy(next, 0, state, 0, STATE);
+        return true;
+    }
+
+    public boolean write(SkyView view) {
+        int pos = 0;
+        scratch[pos++] = SKY_VIEW;
+        pos = putVarint(scratch, pos, zigzag(view.source));
+        pos = putVarint(scratch, pos, view.talker & 0xFFFF);
+        pos = putVarint(scratch, pos, zigzag(view.satellitesInView));
+        pos = putVarint(scratch, pos, view.satelliteCount);
+        for (int i = 0; i < view.satelliteCount; i++) {
+            pos = putVarint(scratch, pos, zigzag(view.id[i]));
+            pos = putVarint(scratch, pos, zigzag(view.elevation[i]));
+            pos = putVarint(scratch, pos, zigzag(view.azimuth[i]));
+            pos = putVarint(scratch, pos, zigzag(view.snr[i]));
+        }
+        return flush(pos);
+    }
+
+    private boolean flush(int length) {
+        if (out.remaining() < length) return false;
+        out.put(scratch, 0, length);
+        records++;
+        return true;
+    }
+
+    public long recordCount() { return records; }
+}
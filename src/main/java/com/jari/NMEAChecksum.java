@@ -0,0 +1,110 @@
+package com.jari;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// ===== Table-driven NMEA checksum (XOR of everything between the start delimiter and '*') =====
+// Works on CharSequence, byte[] and ByteBuffer ranges in one pass without substrings or formatting.
+// NMEASentenceDecoder folds the same XOR into its tokenizing scan, so decoded sentences are not scanned twice.
+public final class NMEAChecksum {
+
+    private NMEAChecksum() {}
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+    private static final byte[] HEX_VALUE = new byte[128];
+
+    static {
+        Arrays.fill(HEX_VALUE, (byte) -1);
+        for (int i = 0; i < 10; i++) HEX_VALUE['0' + i] = (byte) i;
+        for (int i = 0; i < 6; i++) {
+            HEX_VALUE['A' + i] = (byte) (10 + i);
+            HEX_VALUE['a' + i] = (byte) (10 + i);
+        }
+    }
+
+    // ======= HEX =======
+    public static int hexValue(int c) {
+        return (c >= 0 && c < 128) ? HEX_VALUE[c] : -1;
+    }
+
+    // Two hex digits as 0..255, or -1
+    public static int hexByte(int hi, int lo) {
+        int h = hexValue(hi), l = hexValue(lo);
+        return (h < 0 || l < 0) ? -1 : (h << 4) | l;
+    }
+
+    public static char hexDigit(int nibble) {
+        return HEX_DIGITS[nibble & 0xF];
+    }
+
+    public static StringBuilder appendHex(StringBuilder sb, int checksum) {
+        return sb.append(HEX_DIGITS[(checksum >> 4) & 0xF]).append(HEX_DIGITS[checksum & 0xF]);
+    }
+
+    // ======= COMPUTE =======
+    // XOR of [start, end) up to the first '*'; callers pass the range after the start delimiter
+    public static int compute(CharSequence s, int start, int end) {
+        int cs = 0;
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (c == '*') break;
+            cs ^= c;
+        }
+        return cs & 0xFF;
+    }
+
+    public static int compute(byte[] b, int start, int end) {
+        int cs = 0;
+        for (int i = start; i < end; i++) {
+            byte c = b[i];
+            if (c == '*') break;
+            cs ^= c;
+        }
+        return cs & 0xFF;
+    }
+
+    public static int compute(ByteBuffer b, int start, int end) {
+        if (b.hasArray()) return compute(b.array(), b.arrayOffset() + start, b.arrayOffset() + end);
+        int cs = 0;
+        for (int i = start; i < end; i++) {
+            byte c = b.get(i);
+            if (c == '*') break;
+            cs ^= c;
+        }
+        return cs & 0xFF;
+    }
+
+    // ======= VALIDATE =======
+    // [start, end) is a whole sentence whose first character is the start delimiter ('$' or '!').
+    // A sentence without '*' is valid unless requireChecksum is set.
+    public static boolean isValid(CharSequence s, int start, int end, boolean requireChecksum) {
+        int cs = 0;
+        for (int i = start + 1; i < end; i++) {
+            char c = s.charAt(i);
+            if (c == '*') return i + 2 < end && hexByte(s.charAt(i + 1), s.charAt(i + 2)) == (cs & 0xFF);
+            cs ^= c;
+        }
+        return !requireChecksum;
+    }
+
+    public static boolean isValid(byte[] b, int start, int end, boolean requireChecksum) {
+        int cs = 0;
+        for (int i = start + 1; i < end; i++) {
+            byte c = b[i];
+            if (c == '*') return i + 2 < end && hexByte(b[i + 1], b[i + 2]) == (cs & 0xFF);
+            cs ^= c;
+        }
+        return !requireChecksum;
+    }
+
+    public static boolean isValid(ByteBuffer b, int start, int end, boolean requireChecksum) {
+        if (b.hasArray()) return isValid(b.array(), b.arrayOffset() + start, b.arrayOffset() + end, requireChecksum);
+        int cs = 0;
+        for (int i = start + 1; i < end; i++) {
+            byte c = b.get(i);
+            if (c == '*') return i + 2 < end && hexByte(b.get(i + 1), b.get(i + 2)) == (cs & 0xFF);
+            cs ^= c;
+        }
+        return !requireChecksum;
+    }
+}
@@ -0,0 +1,59 @@
+package com.jari;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import static com.jari.NMEABinary.*;
+
+// ===== Reads a block written by NMEAColumnarWriter, row by row =====
+// Every column is a read-only slice of the caller's buffer and is consumed with its own cursor, so
+// nothing is copied. next() fills a caller-supplied fix.
+// Not thread-safe.
+public final class NMEAColumnarReader {
+
+    private final ByteBuffer[] columns = new ByteBuffer[COLUMNS + 1];
+    private final long[] values = new long[COLUMNS];
+    private final long[] state = new long[STATE];
+    private final int count;
+    private int read;
+
+    public NMEAColumnarReader(ByteBuffer block) {
+        ByteBuffer in = block.duplicate();
+        checkHeader(in, COLUMNAR_MAGIC);
+        try {
+            count = (int) getVarint(in);
+            columns[COLUMNS] = slice(in);
+            for (int c = 0; c < COLUMNS; c++) columns[c] = slice(in);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated block");
+        }
+    }
+
+    private static ByteBuffer slice(ByteBuffer in) {
+        int length = (int) getVarint(in);
+        if (length > in.remaining()) throw new BufferUnderflowException();
+        ByteBuffer column = in.slice();
+        column.limit(length);
+        in.position(in.position() + length);
+        return column;
+    }
+
+    public int size() { return count; }
+    public int remaining() { return count - read; }
+
+    // Fills the fix with the next row; false once all rows have been read
+    public boolean next(NMEAFix into) {
+        if (read == count) return false;
+        try {
+            int mask = (int) getVarint(columns[COLUMNS]);
+            for (int c = 0; c < COLUMNS; c++) {
+                if (isPresent(mask, c)) values[c] = getVarint(columns[c]);
+            }
+            decodeFix(mask, values, state, into);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated column at row " + read);
+        }
+        read++;
+        return true;
+    }
+}
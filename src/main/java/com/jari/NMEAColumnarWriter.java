@@ -0,0 +1,90 @@
+package com.jari;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static com.jari.NMEABinary.*;
+
+// ===== Bulk archive writer: buffers fixes and writes them as one block, column by column =====
+// Block layout: header, varint fix count, then the presence masks and every field column, each as a
+// varint byte length followed by the column's varints. Values of one kind sit next to each other,
+// which makes the deltas tiny and lets general-purpose compressors do well on archived blocks.
+// Not thread-safe.
+public final class NMEAColumnarWriter {
+
+    // Column COLUMNS holds the presence masks
+    private final byte[][] columns = new byte[COLUMNS + 1][];
+    private final int[] lengths = new int[COLUMNS + 1];
+    private final long[] values = new long[COLUMNS];
+    private final long[] state = new long[STATE];
+    private int count;
+
+    public NMEAColumnarWriter() {
+        for (int c = 0; c < columns.length; c++) columns[c] = new byte[256];
+    }
+
+    public NMEAColumnarWriter add(NMEAFix fix) {
+        int mask = encodeFix(fix, state, state, values);
+        append(COLUMNS, mask);
+        for (int c = 0; c < COLUMNS; c++) {
+            if (isPresent(mask, c)) append(c, values[c]);
+        }
+        count++;
+        return this;
+    }
+
+    private void append(int column, long value) {
+        if (lengths[column] + 10 > columns[column].length)
+            columns[column] = Arrays.copyOf(columns[column], columns[column].length * 2);
+        lengths[column] = putVarint(columns[column], lengths[column], value);
+    }
+
+    public int size() { return count; }
+
+    // Encoded size of the block as it stands
+    public int blockLength() {
+        byte[] scratch = new byte[10];
+        int n = HEADER_LENGTH + putVarint(scratch, 0, count);
+        for (int c = 0; c <= COLUMNS; c++) n += putVarint(scratch, 0, lengths[c]) + lengths[c];
+        return n;
+    }
+
+    // ======= OUTPUT =======
+    public void writeTo(OutputStream out) throws IOException {
+        byte[] scratch = new byte[16];
+        out.write(scratch, 0, putHeader(scratch, 0, COLUMNAR_MAGIC));
+        out.write(scratch, 0, putVarint(scratch, 0, count));
+        // Masks first: a reader needs them before any field column
+        writeColumn(out, scratch, COLUMNS);
+        for (int c = 0; c < COLUMNS; c++) writeColumn(out, scratch, c);
+    }
+
+    private void writeColumn(OutputStream out, byte[] scratch, int column) throws IOException {
+        out.write(scratch, 0, putVarint(scratch, 0, lengths[column]));
+        out.write(columns[column], 0, lengths[column]);
+    }
+
+    public ByteBuffer toByteBuffer() {
+        byte[] block = new byte[blockLength()];
+        int pos = putHeader(block, 0, COLUMNAR_MAGIC);
+        pos = putVarint(block, pos, count);
+        pos = copyColumn(block, pos, COLUMNS);
+        for (int c = 0; c < COLUMNS; c++) pos = copyColumn(block, pos, c);
+        return ByteBuffer.wrap(block);
+    }
+
+    private int copyColumn(byte[] block, int pos, int column) {
+        pos = putVarint(block, pos, lengths[column]);
+        System.arraycopy(columns[column], 0, block, pos, lengths[column]);
+        return pos + lengths[column];
+    }
+
+    // Starts a new block; column buffers are kept
+    public void reset() {
+        Arrays.fill(lengths, 0);
+        Arrays.fill(state, 0);
+        count = 0;
+    }
+}
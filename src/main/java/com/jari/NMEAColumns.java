@@ -0,0 +1,116 @@
+package com.jari;
+
+import java.util.Arrays;
+
+// ===== Preallocated struct-of-arrays batch of decoded sentences =====
+// Row i is the i-th accepted sentence. Every column has a validity bitmap (bit i of word i >> 6), so a
+// missing field is never confused with a value. The arrays are public for handing them to columnar
+// stores as they are; only rows below size() are meaningful, and values of invalid rows are undefined.
+// Filled by NMEABatchParser; clear() and refill to reuse a batch. Not thread-safe.
+public final class NMEAColumns {
+
+    // Column ids for isValid() / validity()
+    public static final int TYPE = 0, TALKER = 1, TIME = 2, LATITUDE = 3, LONGITUDE = 4, ALTITUDE = 5,
+            SPEED = 6, HDOP = 7, FIX_QUALITY = 8, SATELLITES = 9;
+    public static final int COLUMNS = 10;
+
+    // NMEAType ordinal; always valid
+    public final byte[] type;
+    // Talker packed as (c0 << 8) | c1, e.g. "GP"; always valid
+    public final short[] talker;
+    // UTC milliseconds of the day
+    public final int[] time;
+    public final double[] latitude;
+    public final double[] longitude;
+    public final double[] altitude;
+    public final double[] speedKnots;
+    public final double[] hdop;
+    public final int[] fixQuality;
+    public final int[] satellites;
+
+    private final long[][] valid = new long[COLUMNS][];
+    private final int capacity;
+    private int size;
+
+    public NMEAColumns(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        this.capacity = capacity;
+        type = new byte[capacity];
+        talker = new short[capacity];
+        time = new int[capacity];
+        latitude = new double[capacity];
+        longitude = new double[capacity];
+        altitude = new double[capacity];
+        speedKnots = new double[capacity];
+        hdop = new double[capacity];
+        fixQuality = new int[capacity];
+        satellites = new int[capacity];
+        for (int c = 0; c < COLUMNS; c++) valid[c] = new long[(capacity + 63) >>> 6];
+    }
+
+    public int size() { return size; }
+    public int capacity() { return capacity; }
+    public boolean isFull() { return size == capacity; }
+
+    public NMEAType type(int row) { return NMEAType.values()[type[row]]; }
+
+    public boolean isValid(int column, int row) {
+        return (valid[column][row >>> 6] & (1L << row)) != 0;
+    }
+
+    // The bitmap itself, (capacity + 63) / 64 words; bits at and past size() are zero
+    public long[] validity(int column) { return valid[column]; }
+
+    public int validCount(int column) {
+        int n = 0;
+        for (long word : valid[column]) n += Long.bitCount(word);
+        return n;
+    }
+
+    public void clear() {
+        int words = (size + 63) >>> 6;
+        for (long[] bits : valid) Arrays.fill(bits, 0, words, 0L);
+        size = 0;
+    }
+
+    // ======= FILLING =======
+    // Starts a row with its always-valid columns; returns its index
+    int add(NMEAType t, int talkerCode) {
+        int row = size++;
+        type[row] = (byte) t.ordinal();
+        talker[row] = (short) talkerCode;
+        set(TYPE, row);
+        set(TALKER, row);
+        return row;
+    }
+
+    void set(int column, int row) {
+        valid[column][row >>> 6] |= 1L << row;
+    }
+
+    void time(int row, int millis) {
+        if (millis < 0) return;
+        time[row] = millis;
+        set(TIME, row);
+    }
+
+    void position(int row, double lat, double lon) {
+        if (Double.isNaN(lat) || Double.isNaN(lon)) return;
+        latitude[row] = lat;
+        longitude[row] = lon;
+        set(LATITUDE, row);
+        set(LONGITUDE, row);
+    }
+
+    void value(int column, double[] values, int row, double v) {
+        if (Double.isNaN(v)) return;
+        values[row] = v;
+        set(column, row);
+    }
+
+    void value(int column, int[] values, int row, int v) {
+        if (v < 0) return;
+        values[row] = v;
+        set(column, row);
+    }
+}
@@ -0,0 +1,108 @@
+package com.jari;
+
+// ===== ddmm.mmmm / dddmm.mmmm conversion straight from characters =====
+// Degrees are the integer digits before the last two; the rest are minutes. Fixed-point results are the
+// exact coordinate rounded half-up at the requested number of decimals, computed in long arithmetic,
+// so no substring, Double.parseDouble or String.format is involved.
+public final class NMEACoordinates {
+
+    private NMEACoordinates() {}
+
+    public static final long INVALID = Long.MIN_VALUE;
+
+    private static final long[] POW10 = new long[19];
+
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++) POW10[i] = POW10[i - 1] * 10;
+    }
+
+    // Minute decimals plus output decimals beyond this could overflow a long; the double path takes over
+    private static final int MAX_TOTAL_DIGITS = 17;
+
+    // ======= PARSING =======
+    // Signed degrees in units of 1e-7 (about 1 cm), or INVALID
+    public static long toE7(CharSequence s, int start, int end, char direction) {
+        return toFixed(s, start, end, direction, 7);
+    }
+
+    // Signed degrees scaled by 10^decimals (0..9), or INVALID
+    public static long toFixed(CharSequence s, int start, int end, char direction, int decimals) {
+        if (decimals < 0 || decimals > 9) throw new IllegalArgumentException("decimals must be 0..9: " + decimals);
+        int dot = dot(s, start, end);
+        if (dot < 0) return INVALID;
+
+        long degrees = 0;
+        for (int i = start; i < dot - 2; i++) degrees = degrees * 10 + (s.charAt(i) - '0');
+
+        // Whole minutes are 00..59 (checked by dot()); this keeps minutes * 10^decimals below 6e18
+        long minutes = (s.charAt(dot - 2) - '0') * 10 + (s.charAt(dot - 1) - '0');
+        int fractionDigits = Math.max(0, end - dot - 1);
+        if (fractionDigits + decimals > MAX_TOTAL_DIGITS) return slowFixed(s, start, end, direction, decimals);
+        for (int i = dot + 1; i < end; i++) minutes = minutes * 10 + (s.charAt(i) - '0');
+
+        // minutes / (60 * 10^fractionDigits) degrees, rounded half-up to 10^-decimals
+        long divisor = 60 * POW10[fractionDigits];
+        long scaled = degrees * POW10[decimals] + (minutes * POW10[decimals] + divisor / 2) / divisor;
+        return isNegative(direction) ? -scaled : scaled;
+    }
+
+    private static long slowFixed(CharSequence s, int start, int end, char direction, int decimals) {
+        double d = toDegrees(s, start, end, direction);
+        return Double.isNaN(d) ? INVALID : Math.round(d * POW10[decimals]);
+    }
+
+    // Signed decimal degrees, or NaN; accepts exactly what toFixed() accepts
+    public static double toDegrees(CharSequence s, int start, int end, char direction) {
+        if (dot(s, start, end) < 0) return Double.NaN;
+        double v = NMEANumbers.parseDouble(s, start, end, Double.NaN);
+        if (Double.isNaN(v)) return Double.NaN;
+        double degrees = Math.floor(v / 100.0);
+        double dec = degrees + (v - degrees * 100.0) / 60.0;
+        return isNegative(direction) ? -dec : dec;
+    }
+
+    // Index of the decimal point (end without one) of a well-formed ddmm.mmmm value, or -1: digits and
+    // at most one '.', at least two whole-minute digits, and whole minutes below 60
+    private static int dot(CharSequence s, int start, int end) {
+        int dot = end;
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (c == '.') {
+                if (dot != end) return -1;
+                dot = i;
+            } else if (c < '0' || c > '9') {
+                return -1;
+            }
+        }
+        if (dot - start < 2) return -1;
+        return (s.charAt(dot - 2) - '0') * 10 + (s.charAt(dot - 1) - '0') < 60 ? dot : -1;
+    }
+
+    public static boolean isNegative(char direction) {
+        return direction == 'S' || direction == 's' || direction == 'W' || direction == 'w';
+    }
+
+    // ======= FORMATTING =======
+    // "48.117300" for (48117300, 6); the fixed-point value is printed exactly, without String.format
+    public static String format(long fixed, int decimals) {
+        return appendFixed(new StringBuilder(16), fixed, decimals).toString();
+    }
+
+    public static StringBuilder appendFixed(StringBuilder sb, long fixed, int decimals) {
+        if (fixed < 0) {
+            sb.append('-');
+            fixed = -fixed;
+        }
+        long unit = POW10[decimals];
+        sb.append(fixed / unit);
+        if (decimals == 0) return sb;
+        sb.append('.');
+        long fraction = fixed % unit;
+        for (long p = unit / 10; p > 0; p /= 10) {
+            sb.append((char) ('0' + fraction / p));
+            fraction %= p;
+        }
+        return sb;
+    }
+}
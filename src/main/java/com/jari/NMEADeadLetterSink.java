@@ -0,0 +1,9 @@
+package com.jari;
+
+// Receives rejected sentences under NMEAErrorPolicy.DEAD_LETTER
+@FunctionalInterface
+public interface NMEADeadLetterSink {
+    // The error is reused after the call returns; use NMEAError.copy() to keep it.
+    // Pipeline workers and log-file chunks call this concurrently.
+    void accept(NMEAError error);
+}
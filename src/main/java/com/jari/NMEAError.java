@@ -0,0 +1,77 @@
+package com.jari;
+
+// ===== Details of one rejected sentence, without an exception or stack trace =====
+// Readers fill one instance per thread and reuse it for every error; call copy() to keep one.
+// Text is kept up to NMEAStreamReader.MAX_SENTENCE_LENGTH characters.
+public final class NMEAError {
+
+    private final StringBuilder text = new StringBuilder(NMEAStreamReader.MAX_SENTENCE_LENGTH);
+    private NMEAStatus status = NMEAStatus.OK;
+    private int source = -1;
+    private long position = -1;
+    private int declaredChecksum = -1;
+    private int computedChecksum = -1;
+
+    public NMEAStatus status() { return status; }
+    // Receiver id where one applies, else -1
+    public int source() { return source; }
+    // Byte offset of the sentence in its stream or file, else -1
+    public long position() { return position; }
+    // Checksums, for CHECKSUM_MISMATCH only; -1 otherwise
+    public int declaredChecksum() { return declaredChecksum; }
+    public int computedChecksum() { return computedChecksum; }
+    public CharSequence text() { return text; }
+
+    // ======= FILLING =======
+    NMEAError set(NMEAStatus status, int source, long position) {
+        this.status = status;
+        this.source = source;
+        this.position = position;
+        declaredChecksum = computedChecksum = -1;
+        text.setLength(0);
+        return this;
+    }
+
+    NMEAError text(CharSequence s, int start, int end) {
+        text.setLength(0);
+        text.append(s, start, Math.min(end, start + NMEAStreamReader.MAX_SENTENCE_LENGTH));
+        return this;
+    }
+
+    NMEAError text(byte[] b, int start, int end) {
+        text.setLength(0);
+        end = Math.min(end, start + NMEAStreamReader.MAX_SENTENCE_LENGTH);
+        for (int i = start; i < end; i++) text.append((char) (b[i] & 0xFF));
+        return this;
+    }
+
+    // Status, checksums and text of a sentence the decoder just rejected
+    NMEAError from(NMEASentenceDecoder d) {
+        status = d.status();
+        if (status == NMEAStatus.CHECKSUM_MISMATCH) {
+            declaredChecksum = d.declaredChecksum();
+            computedChecksum = d.computedChecksum();
+        }
+        return text(d.source(), d.sentenceStart(), d.sentenceEnd());
+    }
+
+    public NMEAError copy() {
+        NMEAError c = new NMEAError().set(status, source, position);
+        c.declaredChecksum = declaredChecksum;
+        c.computedChecksum = computedChecksum;
+        c.text.append(text);
+        return c;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("NMEAError{").append(status);
+        if (source >= 0) sb.append(", source=").append(source);
+        if (position >= 0) sb.append(", position=").append(position);
+        if (declaredChecksum >= 0) {
+            NMEAChecksum.appendHex(sb.append(", declared="), declaredChecksum);
+            NMEAChecksum.appendHex(sb.append(", computed="), computedChecksum);
+        }
+        return sb.append(", text=").append(text).append('}').toString();
+    }
+}
@@ -0,0 +1,11 @@
+package com.jari;
+
+// ===== What the streaming and batch readers do with a rejected sentence =====
+public enum NMEAErrorPolicy {
+    // Drop it; only the total rejected count moves
+    SKIP,
+    // Drop it and count it per NMEAStatus
+    COUNT,
+    // Count it and hand an NMEAError to the dead-letter sink
+    DEAD_LETTER
+}
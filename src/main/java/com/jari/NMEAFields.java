@@ -0,0 +1,78 @@
+package com.jari;
+
+// ===== Field layout of the supported sentences =====
+// Index 0 is the address field (e.g. "GPGGA"); the checksum is never part of a field.
+public final class NMEAFields {
+
+    private NMEAFields() {}
+
+    // ======= GGA =======
+    public static final int GGA_TIME = 1;
+    public static final int GGA_LATITUDE = 2;
+    public static final int GGA_LAT_DIR = 3;
+    public static final int GGA_LONGITUDE = 4;
+    public static final int GGA_LON_DIR = 5;
+    public static final int GGA_FIX_QUALITY = 6;
+    public static final int GGA_SATELLITES = 7;
+    public static final int GGA_HDOP = 8;
+    public static final int GGA_ALTITUDE = 9;
+    public static final int GGA_ALTITUDE_UNITS = 10;
+
+    // ======= RMC =======
+    public static final int RMC_TIME = 1;
+    public static final int RMC_STATUS = 2;
+    public static final int RMC_LATITUDE = 3;
+    public static final int RMC_LAT_DIR = 4;
+    public static final int RMC_LONGITUDE = 5;
+    public static final int RMC_LON_DIR = 6;
+    public static final int RMC_SPEED_KNOTS = 7;
+    public static final int RMC_TRACK_ANGLE = 8;
+    public static final int RMC_DATE = 9;
+
+    // ======= VTG =======
+    public static final int VTG_TRACK_TRUE = 1;
+    public static final int VTG_TRACK_MAGNETIC = 3;
+    public static final int VTG_SPEED_KNOTS = 5;
+    public static final int VTG_SPEED_KMH = 7;
+
+    // ======= GSA =======
+    public static final int GSA_MODE = 1;
+    public static final int GSA_FIX_TYPE = 2;
+    public static final int GSA_FIRST_SATELLITE = 3;
+    public static final int GSA_LAST_SATELLITE = 14;
+    public static final int GSA_PDOP = 15;
+    public static final int GSA_HDOP = 16;
+    public static final int GSA_VDOP = 17;
+
+    // ======= GSV =======
+    public static final int GSV_TOTAL_MESSAGES = 1;
+    public static final int GSV_MESSAGE_NUMBER = 2;
+    public static final int GSV_SATELLITES_IN_VIEW = 3;
+    public static final int GSV_FIRST_SATELLITE = 4;
+    // Each satellite block is id, elevation, azimuth, snr
+    public static final int GSV_SATELLITE_BLOCK = 4;
+
+    // ======= GLL =======
+    public static final int GLL_LATITUDE = 1;
+    public static final int GLL_LAT_DIR = 2;
+    public static final int GLL_LONGITUDE = 3;
+    public static final int GLL_LON_DIR = 4;
+    public static final int GLL_TIME = 5;
+    public static final int GLL_STATUS = 6;
+
+    // ======= ZDA =======
+    public static final int ZDA_TIME = 1;
+    public static final int ZDA_DAY = 2;
+    public static final int ZDA_MONTH = 3;
+    public static final int ZDA_YEAR = 4;
+
+    // ======= GST =======
+    public static final int GST_TIME = 1;
+    public static final int GST_RMS = 2;
+    public static final int GST_SIGMA_MAJOR = 3;
+    public static final int GST_SIGMA_MINOR = 4;
+    public static final int GST_ORIENTATION = 5;
+    public static final int GST_SIGMA_LAT = 6;
+    public static final int GST_SIGMA_LON = 7;
+    public static final int GST_SIGMA_ALT = 8;
+}
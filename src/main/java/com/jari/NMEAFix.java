@@ -0,0 +1,103 @@
+package com.jari;
+
+// ===== One position fix per receiver epoch, merged from several sentences =====
+// Instances handed to an EpochFusion.Listener are reused; call copy() to keep one past the callback.
+// Missing values follow NMEASentence: NaN for doubles, -1 for ints, '\0' for chars.
+public final class NMEAFix {
+
+    public int source;
+    public int talker;
+    // Bit (1 << NMEAType.ordinal()) for every sentence type merged into this fix
+    public int types;
+
+    public int time;
+    public int date;
+    public char status;
+
+    public double latitude;
+    public double longitude;
+    public double altitude;
+    public int fixQuality;
+    public int satellites;
+
+    public double speedKnots;
+    public double course;
+
+    public int fixType;
+    public double pdop;
+    public double hdop;
+    public double vdop;
+
+    public double rms;
+    public double sigmaLat;
+    public double sigmaLon;
+    public double sigmaAlt;
+
+    public NMEAFix() {
+        clear(0, 0);
+    }
+
+    void clear(int source, int talker) {
+        this.source = source;
+        this.talker = talker;
+        types = 0;
+        time = date = -1;
+        status = '\0';
+        latitude = longitude = altitude = Double.NaN;
+        fixQuality = satellites = fixType = -1;
+        speedKnots = course = Double.NaN;
+        pdop = hdop = vdop = Double.NaN;
+        rms = sigmaLat = sigmaLon = sigmaAlt = Double.NaN;
+    }
+
+    public boolean has(NMEAType type) {
+        return (types & (1 << type.ordinal())) != 0;
+    }
+
+    public boolean hasPosition() {
+        return !Double.isNaN(latitude) && !Double.isNaN(longitude);
+    }
+
+    // Milliseconds since the epoch, or -1 unless both date and time are known
+    public long epochMillis() {
+        if (date < 0 || time < 0) return -1;
+        return NMEANumbers.epochDay(date / 10000, date / 100 % 100, date % 100) * 86_400_000L + time;
+    }
+
+    public NMEAFix copy() {
+        NMEAFix c = new NMEAFix();
+        c.copyFrom(this);
+        return c;
+    }
+
+    public void copyFrom(NMEAFix o) {
+        source = o.source;
+        talker = o.talker;
+        types = o.types;
+        time = o.time;
+        date = o.date;
+        status = o.status;
+        latitude = o.latitude;
+        longitude = o.longitude;
+        altitude = o.altitude;
+        fixQuality = o.fixQuality;
+        satellites = o.satellites;
+        speedKnots = o.speedKnots;
+        course = o.course;
+        fixType = o.fixType;
+        pdop = o.pdop;
+        hdop = o.hdop;
+        vdop = o.vdop;
+        rms = o.rms;
+        sigmaLat = o.sigmaLat;
+        sigmaLon = o.sigmaLon;
+        sigmaAlt = o.sigmaAlt;
+    }
+
+    @Override
+    public String toString() {
+        return "NMEAFix{source=" + source + ", time=" + time + ", date=" + date
+                + ", lat=" + latitude + ", lon=" + longitude + ", alt=" + altitude
+                + ", speed=" + speedKnots + ", course=" + course + ", hdop=" + hdop + "}";
+    }
+}
@@ -0,0 +1,62 @@
+package com.jari;
+
+// ===== Handlers keyed by sentence formatter, independent of the talker =====
+// "GGA" serves GPGGA, GNGGA, GLGGA, ...; proprietary sentences ($PGRME, $PUBX, ...) are keyed by their
+// three-letter manufacturer code. Lookups index a flat array with the packed formatter code, so they
+// are O(1), lock-free and allocation-free however many types are registered.
+// Registration copies the table and may happen at any time, also while other threads dispatch.
+public final class NMEAHandlerRegistry<H> {
+
+    private volatile Object[] standard = new Object[NMEAType.CODES];
+    private volatile Object[] proprietary = new Object[NMEAType.CODES];
+
+    // ======= REGISTRATION =======
+    public synchronized NMEAHandlerRegistry<H> register(String formatter, H handler) {
+        standard = with(standard, formatter, handler);
+        return this;
+    }
+
+    public synchronized NMEAHandlerRegistry<H> registerProprietary(String manufacturer, H handler) {
+        proprietary = with(proprietary, manufacturer, handler);
+        return this;
+    }
+
+    public synchronized void unregister(String formatter) {
+        standard = with(standard, formatter, null);
+    }
+
+    public synchronized void unregisterProprietary(String manufacturer) {
+        proprietary = with(proprietary, manufacturer, null);
+    }
+
+    private static Object[] with(Object[] table, String id, Object handler) {
+        int code = (id == null || id.length() != 3) ? -1 : NMEAType.code(id.charAt(0), id.charAt(1), id.charAt(2));
+        if (code < 0) throw new IllegalArgumentException("Expected three letters A-Z: " + id);
+        Object[] copy = table.clone();
+        copy[code] = handler;
+        return copy;
+    }
+
+    // ======= LOOKUP =======
+    public H lookup(NMEASentenceDecoder d) {
+        return (d.fieldCount() == 0) ? null : lookup(d.source(), d.fieldStart(0), d.fieldEnd(0));
+    }
+
+    // [addressStart, addressEnd) is the address field without the start delimiter, e.g. "GPGGA"
+    @SuppressWarnings("unchecked")
+    public H lookup(CharSequence s, int addressStart, int addressEnd) {
+        int len = addressEnd - addressStart;
+        int code;
+        Object[] table;
+        if (len >= 4 && s.charAt(addressStart) == 'P') {
+            table = proprietary;
+            code = NMEAType.code(s.charAt(addressStart + 1), s.charAt(addressStart + 2), s.charAt(addressStart + 3));
+        } else if (len == 5) {
+            table = standard;
+            code = NMEAType.code(s.charAt(addressStart + 2), s.charAt(addressStart + 3), s.charAt(addressStart + 4));
+        } else {
+            return null;
+        }
+        return (code < 0) ? null : (H) table[code];
+    }
+}
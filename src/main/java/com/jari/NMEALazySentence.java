@@ -0,0 +1,238 @@
+package com.jari;
+
+import static com.jari.NMEAFields.*;
+
+// ===== Lazily converted view of one sentence =====
+// The single scan records field boundaries only; a field is converted the first time it is read and
+// the result is memoized, so a consumer that only wants position and time never pays for the rest.
+// Accessors follow NMEASentence: NaN for missing doubles, -1 for missing ints, '\0' for chars.
+// Instances are independent of the decoder they came from. Memoization is unsynchronized: share an
+// instance between threads only after safe publication, or read it from one thread.
+//
+//   NMEALazySentence s = NMEALazySentence.of(line);
+//   if (s != null) track(s.time(), s.latitude(), s.longitude());
+public final class NMEALazySentence {
+
+    private static final ThreadLocal<NMEASentenceDecoder> SCANNER =
+            ThreadLocal.withInitial(() -> new NMEASentenceDecoder(true));
+
+    private static final int TIME = 1, DATE = 2, POSITION = 4, SATELLITES_USED = 8;
+
+    private final String text;
+    private final int[] bounds; // start of field i at 2i, end at 2i + 1
+    private final int fieldCount;
+    private final NMEAType type;
+    private final int talker;
+
+    private int resolved;
+    private long decodedLow;
+    private long decodedHigh;
+    private double[] numbers;
+
+    private int time;
+    private int date;
+    private double latitude;
+    private double longitude;
+    private int[] satellitesUsed;
+
+    private NMEALazySentence(NMEASentenceDecoder d) {
+        CharSequence source = d.source();
+        int start = d.sentenceStart();
+        int end = d.sentenceEnd();
+        text = (source instanceof String && start == 0 && end == source.length())
+                ? (String) source
+                : source.subSequence(start, end).toString();
+        fieldCount = d.fieldCount();
+        bounds = new int[fieldCount * 2];
+        for (int i = 0; i < fieldCount; i++) {
+            bounds[2 * i] = d.fieldStart(i) - start;
+            bounds[2 * i + 1] = d.fieldEnd(i) - start;
+        }
+        type = d.type();
+        talker = d.talker();
+    }
+
+    // Copies the decoder's current sentence; the decoder can be reset right after
+    public static NMEALazySentence from(NMEASentenceDecoder d) {
+        return new NMEALazySentence(d);
+    }
+
+    // null when the sentence is malformed or fails its checksum
+    public static NMEALazySentence of(CharSequence sentence) {
+        NMEASentenceDecoder d = SCANNER.get();
+        return d.reset(sentence) ? new NMEALazySentence(d) : null;
+    }
+
+    // ======= SENTENCE =======
+    public NMEAType type() { return type; }
+    public int talker() { return talker; }
+    public int fieldCount() { return fieldCount; }
+    public String text() { return text; }
+
+    @Override
+    public String toString() { return text; }
+
+    // ======= RAW FIELDS =======
+    private int start(int i) { return bounds[2 * i]; }
+    private int end(int i) { return bounds[2 * i + 1]; }
+
+    public boolean isFieldEmpty(int i) {
+        return i >= fieldCount || start(i) == end(i);
+    }
+
+    public char fieldAsChar(int i) {
+        return isFieldEmpty(i) ? '\0' : text.charAt(start(i));
+    }
+
+    public int fieldAsInt(int i) {
+        return (i < fieldCount) ? NMEANumbers.parseInt(text, start(i), end(i), -1) : -1;
+    }
+
+    // Memoized per field
+    public double fieldAsDouble(int i) {
+        if (i >= fieldCount) return Double.NaN;
+        long bit = 1L << (i & 63);
+        if (i < 64 ? (decodedLow & bit) != 0 : (decodedHigh & bit) != 0) return numbers[i];
+        if (numbers == null) numbers = new double[fieldCount];
+        double v = NMEANumbers.parseDouble(text, start(i), end(i), Double.NaN);
+        numbers[i] = v;
+        if (i < 64) decodedLow |= bit;
+        else decodedHigh |= bit;
+        return v;
+    }
+
+    public String fieldAsString(int i) {
+        return (i < fieldCount) ? text.substring(start(i), end(i)) : "";
+    }
+
+    // ======= TIME / DATE =======
+    // Milliseconds since midnight UTC, or -1
+    public int time() {
+        if ((resolved & TIME) == 0) {
+            int i;
+            switch (type) {
+                case GGA: i = GGA_TIME; break;
+                case RMC: i = RMC_TIME; break;
+                case GLL: i = GLL_TIME; break;
+                case ZDA: i = ZDA_TIME; break;
+                case GST: i = GST_TIME; break;
+                default: i = -1; break;
+            }
+            time = (i >= 0 && i < fieldCount) ? NMEANumbers.parseTimeMillis(text, start(i), end(i)) : -1;
+            resolved |= TIME;
+        }
+        return time;
+    }
+
+    // yyyymmdd from RMC or ZDA, or -1
+    public int date() {
+        if ((resolved & DATE) == 0) {
+            date = -1;
+            if (type == NMEAType.RMC && !isFieldEmpty(RMC_DATE) && end(RMC_DATE) - start(RMC_DATE) == 6) {
+                int from = start(RMC_DATE);
+                int day = NMEANumbers.twoDigits(text, from);
+                int month = NMEANumbers.twoDigits(text, from + 2);
+                int year = NMEANumbers.twoDigits(text, from + 4);
+                if (day >= 0 && month >= 0 && year >= 0)
+                    date = NMEANumbers.date((year < 80) ? 2000 + year : 1900 + year, month, day);
+            } else if (type == NMEAType.ZDA) {
+                date = NMEANumbers.date(fieldAsInt(ZDA_YEAR), fieldAsInt(ZDA_MONTH), fieldAsInt(ZDA_DAY));
+            }
+            resolved |= DATE;
+        }
+        return date;
+    }
+
+    // ======= POSITION =======
+    public double latitude() {
+        resolvePosition();
+        return latitude;
+    }
+
+    public double longitude() {
+        resolvePosition();
+        return longitude;
+    }
+
+    private void resolvePosition() {
+        if ((resolved & POSITION) != 0) return;
+        switch (type) {
+            case GGA: position(GGA_LATITUDE, GGA_LAT_DIR, GGA_LONGITUDE, GGA_LON_DIR); break;
+            case RMC: position(RMC_LATITUDE, RMC_LAT_DIR, RMC_LONGITUDE, RMC_LON_DIR); break;
+            case GLL: position(GLL_LATITUDE, GLL_LAT_DIR, GLL_LONGITUDE, GLL_LON_DIR); break;
+            default: latitude = longitude = Double.NaN; break;
+        }
+        resolved |= POSITION;
+    }
+
+    private void position(int lat, int latDir, int lon, int lonDir) {
+        latitude = degrees(lat, latDir);
+        longitude = degrees(lon, lonDir);
+    }
+
+    private double degrees(int value, int direction) {
+        if (value >= fieldCount) return Double.NaN;
+        return NMEACoordinates.toDegrees(text, start(value), end(value), fieldAsChar(direction));
+    }
+
+    public boolean hasPosition() {
+        return !Double.isNaN(latitude()) && !Double.isNaN(longitude());
+    }
+
+    // ======= MOTION / QUALITY =======
+    public double altitude() {
+        return (type == NMEAType.GGA) ? fieldAsDouble(GGA_ALTITUDE) : Double.NaN;
+    }
+
+    public double speedKnots() {
+        switch (type) {
+            case RMC: return fieldAsDouble(RMC_SPEED_KNOTS);
+            case VTG: return fieldAsDouble(VTG_SPEED_KNOTS);
+            default: return Double.NaN;
+        }
+    }
+
+    // True course over ground in degrees
+    public double course() {
+        switch (type) {
+            case RMC: return fieldAsDouble(RMC_TRACK_ANGLE);
+            case VTG: return fieldAsDouble(VTG_TRACK_TRUE);
+            default: return Double.NaN;
+        }
+    }
+
+    public double hdop() {
+        switch (type) {
+            case GGA: return fieldAsDouble(GGA_HDOP);
+            case GSA: return fieldAsDouble(GSA_HDOP);
+            default: return Double.NaN;
+        }
+    }
+
+    // ======= GSA SATELLITES =======
+    // PRNs listed in GSA's satellites_used slots, empty slots skipped; 0 for other types
+    public int satelliteUsedCount() {
+        return resolveSatellitesUsed().length;
+    }
+
+    public int satelliteUsed(int i) {
+        return resolveSatellitesUsed()[i];
+    }
+
+    private int[] resolveSatellitesUsed() {
+        if ((resolved & SATELLITES_USED) == 0) {
+            int n = 0;
+            if (type == NMEAType.GSA) {
+                for (int i = GSA_FIRST_SATELLITE; i <= GSA_LAST_SATELLITE; i++) if (!isFieldEmpty(i)) n++;
+            }
+            int[] used = new int[n];
+            n = 0;
+            if (type == NMEAType.GSA) {
+                for (int i = GSA_FIRST_SATELLITE; i <= GSA_LAST_SATELLITE; i++) if (!isFieldEmpty(i)) used[n++] = fieldAsInt(i);
+            }
+            satellitesUsed = used;
+            resolved |= SATELLITES_USED;
+        }
+        return satellitesUsed;
+    }
+}
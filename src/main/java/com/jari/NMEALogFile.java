@@ -0,0 +1,267 @@
+package com.jari;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+// ===== Bulk parser for NMEA log files =====
+// The file is memory-mapped chunk by chunk; chunks end on a line boundary and are decoded in parallel
+// on a ForkJoinPool. Each line is decoded from its first '$' / '!', so per-line prefixes such as
+// receive timestamps are ignored.
+public final class NMEALogFile implements Closeable {
+
+    public static final int DEFAULT_CHUNK_SIZE = 8 << 20;
+
+    private final FileChannel channel;
+    private final long size;
+
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    private boolean validateChecksum = true;
+    private NMEADeadLetterSink deadLetters;
+
+    private NMEALogFile(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+    }
+
+    public static NMEALogFile open(Path path) throws IOException {
+        return new NMEALogFile(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    // ======= OPTIONS =======
+    public NMEALogFile chunkSize(int chunkSize) {
+        if (chunkSize < NMEAStreamReader.MAX_SENTENCE_LENGTH || chunkSize > 1 << 30)
+            throw new IllegalArgumentException("Chunk size out of range: " + chunkSize);
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    public NMEALogFile pool(ForkJoinPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    public NMEALogFile validateChecksum(boolean validateChecksum) {
+        this.validateChecksum = validateChecksum;
+        return this;
+    }
+
+    // Rejections are always counted per NMEAStatus in NMEALogStats; DEAD_LETTER also hands each one to
+    // the sink, which is called concurrently from the pool's workers
+    public NMEALogFile onError(NMEAErrorPolicy policy, NMEADeadLetterSink sink) {
+        if (policy == NMEAErrorPolicy.DEAD_LETTER && sink == null)
+            throw new IllegalArgumentException("DEAD_LETTER needs a sink");
+        this.deadLetters = (policy == NMEAErrorPolicy.DEAD_LETTER) ? sink : null;
+        return this;
+    }
+
+    public long size() { return size; }
+    ForkJoinPool pool() { return pool; }
+
+    // ======= PARSING =======
+    // Delivers every typed sentence to the sink on the calling thread, in file order.
+    // At most two chunks per worker are decoded ahead of the sink, which bounds memory.
+    public NMEALogStats parse(Consumer<? super NMEASentence> sink) throws IOException {
+        long[] bounds = chunkBounds();
+        long[] ranges = new long[(bounds.length - 1) * 2];
+        for (int i = 0; i < bounds.length - 1; i++) {
+            ranges[2 * i] = bounds[i];
+            ranges[2 * i + 1] = bounds[i + 1];
+        }
+        return parseOrdered(ranges, sink);
+    }
+
+    // Same, for the byte ranges of an NMEALogIndex query only ({from, to, from, to, ...}; every from on
+    // a line start). Ranges longer than the chunk size are split on line boundaries.
+    public NMEALogStats parse(long[] ranges, Consumer<? super NMEASentence> sink) throws IOException {
+        if ((ranges.length & 1) != 0) throw new IllegalArgumentException("Ranges come in from/to pairs");
+        List<Long> split = new ArrayList<>();
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        for (int i = 0; i < ranges.length; i += 2) {
+            long from = ranges[i], to = ranges[i + 1];
+            if (from < 0 || to > size || from > to)
+                throw new IllegalArgumentException("Range out of file: " + from + ".." + to);
+            while (to - from > chunkSize) {
+                long boundary = nextLineStart(from + chunkSize, probe);
+                if (boundary >= to) break;
+                split.add(from);
+                split.add(boundary);
+                from = boundary;
+            }
+            split.add(from);
+            split.add(to);
+        }
+        long[] result = new long[split.size()];
+        for (int i = 0; i < result.length; i++) result[i] = split.get(i);
+        return parseOrdered(result, sink);
+    }
+
+    private NMEALogStats parseOrdered(long[] ranges, Consumer<? super NMEASentence> sink) throws IOException {
+        long started = System.nanoTime();
+        int window = pool.getParallelism() * 2;
+        ArrayDeque<ForkJoinTask<Chunk>> inFlight = new ArrayDeque<>();
+        NMEALogStats stats = new NMEALogStats();
+
+        int next = 0;
+        try {
+            while (next < ranges.length || !inFlight.isEmpty()) {
+                while (next < ranges.length && inFlight.size() < window) {
+                    final long from = ranges[next], to = ranges[next + 1];
+                    inFlight.add(pool.submit(() -> decodeChunk(from, to, true, null)));
+                    next += 2;
+                }
+                Chunk chunk = join(inFlight.poll());
+                for (NMEASentence s : chunk.sentences) sink.accept(s);
+                stats.merge(chunk.stats);
+            }
+        } finally {
+            // A failed chunk or sink ends the parse; chunks not yet started are not decoded any more
+            for (ForkJoinTask<Chunk> task : inFlight) task.cancel(false);
+        }
+        stats.elapsedNanos(System.nanoTime() - started);
+        return stats;
+    }
+
+    // Calls the sink concurrently from the pool's workers in no particular order; meant for aggregations.
+    public NMEALogStats parseUnordered(Consumer<? super NMEASentence> sink) throws IOException {
+        long started = System.nanoTime();
+        long[] bounds = chunkBounds();
+        List<ForkJoinTask<Chunk>> tasks = new ArrayList<>(bounds.length);
+        for (int i = 0; i < bounds.length - 1; i++) {
+            final long from = bounds[i], to = bounds[i + 1];
+            tasks.add(pool.submit(() -> decodeChunk(from, to, false, sink)));
+        }
+        NMEALogStats stats = new NMEALogStats();
+        try {
+            for (ForkJoinTask<Chunk> task : tasks) stats.merge(join(task).stats);
+        } finally {
+            for (ForkJoinTask<Chunk> task : tasks) task.cancel(false);
+        }
+        stats.elapsedNanos(System.nanoTime() - started);
+        return stats;
+    }
+
+    static <T> T join(ForkJoinTask<T> task) throws IOException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while parsing", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) throw ((UncheckedIOException) cause).getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IOException(cause);
+        }
+    }
+
+    // ======= CHUNKING =======
+    // Chunk boundaries: 0, the byte after the first '\n' at or past every chunkSize step, and size
+    long[] chunkBounds() throws IOException {
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long pos = chunkSize;
+        while (pos < size) {
+            long boundary = nextLineStart(pos, probe);
+            if (boundary >= size) break;
+            bounds.add(boundary);
+            pos = boundary + chunkSize;
+        }
+        bounds.add(size);
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) result[i] = bounds.get(i);
+        return result;
+    }
+
+    private long nextLineStart(long pos, ByteBuffer probe) throws IOException {
+        while (pos < size) {
+            probe.clear();
+            int read = channel.read(probe, pos);
+            if (read <= 0) return size;
+            for (int i = 0; i < read; i++) if (probe.get(i) == '\n') return pos + i + 1;
+            pos += read;
+        }
+        return size;
+    }
+
+    // ======= DECODING =======
+    static final class Chunk {
+        final List<NMEASentence> sentences;
+        final NMEALogStats stats = new NMEALogStats();
+
+        Chunk(boolean keep) {
+            sentences = keep ? new ArrayList<>() : null;
+        }
+    }
+
+    // Read-only view of [from, to); called from pool workers
+    MappedByteBuffer map(long from, long to) {
+        try {
+            return channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Lines are decoded in place from the mapped buffer; nothing is copied before a sentence is accepted
+    private Chunk decodeChunk(long from, long to, boolean keep, Consumer<? super NMEASentence> sink) {
+        Chunk chunk = new Chunk(keep);
+        MappedByteBuffer map = map(from, to);
+        NMEASentenceDecoder decoder = new NMEASentenceDecoder(validateChecksum);
+        NMEAError error = (deadLetters != null) ? new NMEAError() : null;
+        int limit = map.limit();
+        int start = -1; // the line's first '$' / '!', -1 until seen
+
+        for (int i = 0; i <= limit; i++) {
+            byte b = (i < limit) ? map.get(i) : (byte) '\n';
+            if (b == '\n' || b == '\r') {
+                if (start >= 0) decodeLine(map, start, i - start, from, decoder, error, chunk, sink);
+                start = -1;
+            } else if (start < 0 && (b == '$' || b == '!')) {
+                start = i;
+            }
+        }
+        chunk.stats.addBytes(to - from);
+        return chunk;
+    }
+
+    private void decodeLine(ByteBuffer map, int start, int len, long from, NMEASentenceDecoder decoder,
+                            NMEAError error, Chunk chunk, Consumer<? super NMEASentence> sink) {
+        if (len > NMEAStreamReader.MAX_SENTENCE_LENGTH) {
+            chunk.stats.reject(NMEAStatus.TOO_LONG);
+            if (error != null) {
+                AsciiSequence text = new AsciiSequence().reset(map, start, NMEAStreamReader.MAX_SENTENCE_LENGTH);
+                deadLetters.accept(error.set(NMEAStatus.TOO_LONG, -1, from + start).text(text, 0, text.length()));
+            }
+        } else if (decoder.reset(map, start, len)) {
+            NMEASentence s = NMEASentence.from(decoder);
+            chunk.stats.add(decoder.type());
+            if (s != null) {
+                if (chunk.sentences != null) chunk.sentences.add(s);
+                else sink.accept(s);
+            }
+        } else {
+            chunk.stats.reject(decoder.status());
+            if (error != null) deadLetters.accept(error.set(decoder.status(), -1, from + start).from(decoder));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,422 @@
+package com.jari;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+
+import static com.jari.NMEAFields.*;
+
+// ===== Time and area index over an NMEA log file, for replaying only part of it =====
+// The file is cut into line-aligned blocks of about blockSize bytes. Each block records the UTC time
+// range and bounding box of its GGA / RMC / GLL / ZDA sentences, plus the grid cells its positions fall
+// in. A query returns the byte ranges of the blocks that may match, for NMEALogFile.parse(ranges, sink);
+// blocks are matched as a whole, so filter the parsed sentences for exact bounds.
+//
+// Times are epoch milliseconds. Sentences before the first RMC / ZDA date borrow the first date in the
+// file, and midnight is detected as the time of day jumping back by more than 12 hours. In a file with
+// no dates at all, times are milliseconds of the day.
+//
+//   NMEALogIndex index = NMEALogIndex.forFile(path);   // loads "<path>.idx", or builds and saves it
+//   try (NMEALogFile log = NMEALogFile.open(path)) {
+//       log.parse(index.ranges(from, to), sentence -> ...);
+//   }
+public final class NMEALogIndex {
+
+    public static final int DEFAULT_BLOCK_SIZE = 64 << 10;
+    public static final double DEFAULT_CELL_DEGREES = 0.01;
+    public static final int VERSION = 1;
+
+    private static final byte[] MAGIC = { 'N', 'M', 'X' };
+    // Magic, version, log size and time, block size, cell degrees and block count
+    private static final int HEADER_BYTES = MAGIC.length + 1 + 8 + 8 + 4 + 8 + 4;
+    // Range, time bounds, bounding box and cell count of one block, without its cells
+    private static final int BLOCK_BYTES = 8 * 8 + 4;
+    private static final long DAY = 86_400_000L;
+    private static final long HALF_DAY = DAY / 2;
+    private static final int UNKNOWN_DAY = Integer.MIN_VALUE;
+
+    private final long logSize;
+    private final long logModified;
+    private final int blockSize;
+    private final double cellDegrees;
+    private final long columns;
+    private final Block[] blocks;
+
+    private NMEALogIndex(long logSize, long logModified, int blockSize, double cellDegrees, Block[] blocks) {
+        this.logSize = logSize;
+        this.logModified = logModified;
+        this.blockSize = blockSize;
+        this.cellDegrees = cellDegrees;
+        this.columns = (long) Math.ceil(360 / cellDegrees);
+        this.blocks = blocks;
+    }
+
+    public int blockCount() { return blocks.length; }
+    public int blockSize() { return blockSize; }
+    public double cellDegrees() { return cellDegrees; }
+    public long logSize() { return logSize; }
+
+    // ======= BUILDING =======
+    public static NMEALogIndex build(Path path) throws IOException {
+        return build(path, DEFAULT_BLOCK_SIZE, DEFAULT_CELL_DEGREES);
+    }
+
+    public static NMEALogIndex build(Path path, int blockSize, double cellDegrees) throws IOException {
+        try (NMEALogFile log = NMEALogFile.open(path)) {
+            return build(log, Files.getLastModifiedTime(path).toMillis(), blockSize, cellDegrees);
+        }
+    }
+
+    // Decodes the file's chunks in parallel on the log's pool; no sentence objects are created
+    static NMEALogIndex build(NMEALogFile log, long logModified, int blockSize, double cellDegrees) throws IOException {
+        if (blockSize < NMEAStreamReader.MAX_SENTENCE_LENGTH)
+            throw new IllegalArgumentException("Block size out of range: " + blockSize);
+        if (!(cellDegrees > 0 && cellDegrees <= 90))
+            throw new IllegalArgumentException("Cell size out of range: " + cellDegrees);
+        long columns = (long) Math.ceil(360 / cellDegrees);
+        long[] bounds = log.chunkBounds();
+        List<ForkJoinTask<Chunk>> tasks = new ArrayList<>(bounds.length);
+        for (int i = 0; i < bounds.length - 1; i++) {
+            final long from = bounds[i], to = bounds[i + 1];
+            tasks.add(log.pool().submit(() -> scan(log, from, to, blockSize, cellDegrees, columns)));
+        }
+        List<Chunk> chunks = new ArrayList<>(tasks.size());
+        for (ForkJoinTask<Chunk> task : tasks) chunks.add(NMEALogFile.join(task));
+        return new NMEALogIndex(log.size(), logModified, blockSize, cellDegrees, resolve(chunks));
+    }
+
+    // ======= QUERIES =======
+    // Byte ranges {from, to, from, to, ...} of the blocks that may hold a sentence in [fromMillis, toMillis]
+    public long[] ranges(long fromMillis, long toMillis) {
+        return ranges(fromMillis, toMillis, -90, -180, 90, 180);
+    }
+
+    // Same, for positions inside the box; west > east crosses the antimeridian
+    public long[] ranges(double south, double west, double north, double east) {
+        return ranges(Long.MIN_VALUE, Long.MAX_VALUE, south, west, north, east);
+    }
+
+    public long[] ranges(long fromMillis, long toMillis, double south, double west, double north, double east) {
+        boolean anyTime = fromMillis == Long.MIN_VALUE && toMillis == Long.MAX_VALUE;
+        boolean anyArea = south <= -90 && north >= 90 && west <= -180 && east >= 180;
+        long rowFrom = row(south), rowTo = row(north);
+        long[] out = new long[16];
+        int n = 0;
+        for (Block b : blocks) {
+            if (!anyTime && (b.maxTime < fromMillis || b.minTime > toMillis)) continue;
+            if (!anyArea && !b.overlaps(south, west, north, east, rowFrom, rowTo, column(west), column(east), columns)) continue;
+            if (n > 0 && out[n - 1] == b.from) {
+                out[n - 1] = b.to;
+            } else {
+                if (n == out.length) out = Arrays.copyOf(out, n * 2);
+                out[n++] = b.from;
+                out[n++] = b.to;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private long row(double latitude) {
+        return (long) Math.floor((Math.max(-90, Math.min(90, latitude)) + 90) / cellDegrees);
+    }
+
+    private long column(double longitude) {
+        return Math.min(columns - 1, (long) Math.floor((Math.max(-180, Math.min(180, longitude)) + 180) / cellDegrees));
+    }
+
+    // ======= BLOCKS =======
+    static final class Block {
+        long from;
+        long to;
+        long minTime = Long.MAX_VALUE;
+        long maxTime = Long.MIN_VALUE;
+        // Times before the chunk's day is known: milliseconds relative to that day
+        long minRelative = Long.MAX_VALUE;
+        long maxRelative = Long.MIN_VALUE;
+        double south = Double.POSITIVE_INFINITY;
+        double west = Double.POSITIVE_INFINITY;
+        double north = Double.NEGATIVE_INFINITY;
+        double east = Double.NEGATIVE_INFINITY;
+        long[] cells = new long[8];
+        int cellCount;
+
+        void time(long t) {
+            minTime = Math.min(minTime, t);
+            maxTime = Math.max(maxTime, t);
+        }
+
+        void relative(long t) {
+            minRelative = Math.min(minRelative, t);
+            maxRelative = Math.max(maxRelative, t);
+        }
+
+        void position(double lat, double lon, long cell) {
+            south = Math.min(south, lat);
+            north = Math.max(north, lat);
+            west = Math.min(west, lon);
+            east = Math.max(east, lon);
+            // Positions arrive in runs from the same cell; duplicates that slip through are removed in seal()
+            if (cellCount > 0 && cells[cellCount - 1] == cell) return;
+            if (cellCount == cells.length) cells = Arrays.copyOf(cells, cellCount * 2);
+            cells[cellCount++] = cell;
+        }
+
+        void seal() {
+            Arrays.sort(cells, 0, cellCount);
+            int n = 0;
+            for (int i = 0; i < cellCount; i++) if (n == 0 || cells[n - 1] != cells[i]) cells[n++] = cells[i];
+            cells = Arrays.copyOf(cells, n);
+            cellCount = n;
+        }
+
+        boolean overlaps(double s, double w, double n, double e, long rowFrom, long rowTo, long colFrom, long colTo, long columns) {
+            if (cellCount == 0 || north < s || south > n) return false;
+            boolean wraps = w > e;
+            if (wraps ? (east < w && west > e) : (east < w || west > e)) return false;
+            for (int i = 0; i < cellCount; i++) {
+                long row = cells[i] / columns, col = cells[i] % columns;
+                if (row < rowFrom || row > rowTo) continue;
+                if (wraps ? (col >= colFrom || col <= colTo) : (col >= colFrom && col <= colTo)) return true;
+            }
+            return false;
+        }
+    }
+
+    // ======= SCANNING =======
+    // Blocks of one chunk, plus what is needed to date the chunk's undated start afterwards
+    static final class Chunk {
+        final List<Block> blocks = new ArrayList<>();
+        int baseDay = UNKNOWN_DAY;  // day that relative times count from
+        int firstTimeOfDay = -1;
+        int endRelativeDay;         // days rolled over before baseDay was known, at the chunk's end
+        int endDay = UNKNOWN_DAY;
+        int endTimeOfDay = -1;
+    }
+
+    private static Chunk scan(NMEALogFile log, long from, long to, int blockSize, double cellDegrees, long columns) {
+        Chunk chunk = new Chunk();
+        MappedByteBuffer map = log.map(from, to);
+        NMEASentenceDecoder decoder = new NMEASentenceDecoder(true);
+        int limit = map.limit();
+        int start = -1; // the line's first '$' / '!', -1 until seen
+        int relativeDay = 0;
+        int day = UNKNOWN_DAY;
+        int lastTimeOfDay = -1;
+        Block block = new Block();
+        block.from = from;
+
+        for (int i = 0; i <= limit; i++) {
+            byte b = (i < limit) ? map.get(i) : (byte) '\n';
+            if (b == '\n' || b == '\r') {
+                int len = i - start;
+                if (start >= 0 && len <= NMEAStreamReader.MAX_SENTENCE_LENGTH && decoder.reset(map, start, len)) {
+                    int timeOfDay = -1, date = -1;
+                    double lat = Double.NaN, lon = Double.NaN;
+                    switch (decoder.type()) {
+                        case GGA:
+                            timeOfDay = decoder.fieldAsTimeMillis(GGA_TIME);
+                            lat = decoder.fieldAsDegrees(GGA_LATITUDE, GGA_LAT_DIR);
+                            lon = decoder.fieldAsDegrees(GGA_LONGITUDE, GGA_LON_DIR);
+                            break;
+                        case RMC:
+                            timeOfDay = decoder.fieldAsTimeMillis(RMC_TIME);
+                            date = decoder.fieldAsDate(RMC_DATE);
+                            lat = decoder.fieldAsDegrees(RMC_LATITUDE, RMC_LAT_DIR);
+                            lon = decoder.fieldAsDegrees(RMC_LONGITUDE, RMC_LON_DIR);
+                            break;
+                        case GLL:
+                            timeOfDay = decoder.fieldAsTimeMillis(GLL_TIME);
+                            lat = decoder.fieldAsDegrees(GLL_LATITUDE, GLL_LAT_DIR);
+                            lon = decoder.fieldAsDegrees(GLL_LONGITUDE, GLL_LON_DIR);
+                            break;
+                        case ZDA:
+                            timeOfDay = decoder.fieldAsTimeMillis(ZDA_TIME);
+                            date = NMEANumbers.date(decoder.fieldAsInt(ZDA_YEAR), decoder.fieldAsInt(ZDA_MONTH), decoder.fieldAsInt(ZDA_DAY));
+                            break;
+                        default:
+                            break;
+                    }
+                    if (timeOfDay >= 0) {
+                        if (date > 0) {
+                            int d = (int) NMEANumbers.epochDay(date / 10000, date / 100 % 100, date % 100);
+                            if (day == UNKNOWN_DAY) chunk.baseDay = d - relativeDay;
+                            day = d;
+                        } else if (lastTimeOfDay >= 0 && timeOfDay < lastTimeOfDay - HALF_DAY) {
+                            if (day == UNKNOWN_DAY) relativeDay++;
+                            else day++;
+                        }
+                        if (chunk.firstTimeOfDay < 0) chunk.firstTimeOfDay = timeOfDay;
+                        lastTimeOfDay = timeOfDay;
+                        if (day == UNKNOWN_DAY) block.relative(relativeDay * DAY + timeOfDay);
+                        else block.time(day * DAY + timeOfDay);
+                    }
+                    if (!Double.isNaN(lat) && !Double.isNaN(lon)) {
+                        long row = (long) Math.floor((lat + 90) / cellDegrees);
+                        long col = Math.min(columns - 1, (long) Math.floor((lon + 180) / cellDegrees));
+                        block.position(lat, lon, row * columns + col);
+                    }
+                }
+                start = -1;
+                if (i + 1 < limit && i + 1 - (block.from - from) >= blockSize) {
+                    block.to = from + i + 1;
+                    block.seal();
+                    chunk.blocks.add(block);
+                    block = new Block();
+                    block.from = from + i + 1;
+                }
+            } else if (start < 0 && (b == '$' || b == '!')) {
+                start = i;
+            }
+        }
+        block.to = to;
+        block.seal();
+        chunk.blocks.add(block);
+        chunk.endRelativeDay = relativeDay;
+        chunk.endDay = day;
+        chunk.endTimeOfDay = lastTimeOfDay;
+        return chunk;
+    }
+
+    // Dates every chunk's relative times from the chunk before it, in file order
+    private static Block[] resolve(List<Chunk> chunks) {
+        int firstDay = 0;
+        for (Chunk c : chunks) {
+            if (c.baseDay != UNKNOWN_DAY) {
+                firstDay = c.baseDay;
+                break;
+            }
+        }
+        int prevDay = UNKNOWN_DAY, prevTimeOfDay = -1;
+        List<Block> all = new ArrayList<>();
+        for (Chunk c : chunks) {
+            int base = c.baseDay;
+            if (base == UNKNOWN_DAY) {
+                if (prevDay == UNKNOWN_DAY) base = firstDay;
+                else base = (c.firstTimeOfDay >= 0 && c.firstTimeOfDay < prevTimeOfDay - HALF_DAY) ? prevDay + 1 : prevDay;
+            }
+            for (Block b : c.blocks) {
+                if (b.minRelative <= b.maxRelative) {
+                    b.time(base * DAY + b.minRelative);
+                    b.time(base * DAY + b.maxRelative);
+                }
+                all.add(b);
+            }
+            if (c.endTimeOfDay >= 0) {
+                prevDay = (c.endDay != UNKNOWN_DAY) ? c.endDay : base + c.endRelativeDay;
+                prevTimeOfDay = c.endTimeOfDay;
+            }
+        }
+        return all.toArray(new Block[0]);
+    }
+
+    // ======= SIDECAR FILE =======
+    public static Path sidecar(Path log) {
+        return log.resolveSibling(log.getFileName() + ".idx");
+    }
+
+    // Loads the sidecar of the log when it is current, else builds the index and writes the sidecar
+    public static NMEALogIndex forFile(Path log) throws IOException {
+        Path sidecar = sidecar(log);
+        if (Files.exists(sidecar)) {
+            try {
+                NMEALogIndex index = read(sidecar);
+                if (index.isCurrent(log)) return index;
+            } catch (IOException e) {
+                // Truncated, foreign or older-version sidecar: rebuild it below
+            }
+        }
+        NMEALogIndex index = build(log);
+        index.write(sidecar);
+        return index;
+    }
+
+    // True when the log still has the size and modification time it was indexed with
+    public boolean isCurrent(Path log) throws IOException {
+        return Files.size(log) == logSize && Files.getLastModifiedTime(log).toMillis() == logModified;
+    }
+
+    // Writes a temporary file next to path and moves it into place, so readers never see a partial index
+    public void write(Path path) throws IOException {
+        Path tmp = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+        try {
+            writeTo(tmp);
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private void writeTo(Path path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.write(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(logSize);
+            out.writeLong(logModified);
+            out.writeInt(blockSize);
+            out.writeDouble(cellDegrees);
+            out.writeInt(blocks.length);
+            for (Block b : blocks) {
+                out.writeLong(b.from);
+                out.writeLong(b.to);
+                out.writeLong(b.minTime);
+                out.writeLong(b.maxTime);
+                out.writeDouble(b.south);
+                out.writeDouble(b.west);
+                out.writeDouble(b.north);
+                out.writeDouble(b.east);
+                out.writeInt(b.cellCount);
+                for (int i = 0; i < b.cellCount; i++) out.writeLong(b.cells[i]);
+            }
+        }
+    }
+
+    public static NMEALogIndex read(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            byte[] magic = new byte[MAGIC.length];
+            in.readFully(magic);
+            if (!Arrays.equals(magic, MAGIC)) throw new IOException("Not an NMEA log index: " + path);
+            int version = in.readUnsignedByte();
+            if (version != VERSION) throw new IOException("Unsupported index version " + version + ": " + path);
+            long logSize = in.readLong();
+            long logModified = in.readLong();
+            int blockSize = in.readInt();
+            double cellDegrees = in.readDouble();
+            // Counts are checked against the bytes left, so a corrupt sidecar fails here rather than allocating
+            long remaining = Files.size(path) - HEADER_BYTES;
+            Block[] blocks = new Block[count(in.readInt(), remaining, BLOCK_BYTES, path)];
+            for (int i = 0; i < blocks.length; i++) {
+                Block b = new Block();
+                b.from = in.readLong();
+                b.to = in.readLong();
+                b.minTime = in.readLong();
+                b.maxTime = in.readLong();
+                b.south = in.readDouble();
+                b.west = in.readDouble();
+                b.north = in.readDouble();
+                b.east = in.readDouble();
+                remaining -= BLOCK_BYTES;
+                b.cellCount = count(in.readInt(), remaining - (long) (blocks.length - i - 1) * BLOCK_BYTES, Long.BYTES, path);
+                remaining -= (long) b.cellCount * Long.BYTES;
+                b.cells = new long[b.cellCount];
+                for (int c = 0; c < b.cellCount; c++) b.cells[c] = in.readLong();
+                blocks[i] = b;
+            }
+            return new NMEALogIndex(logSize, logModified, blockSize, cellDegrees, blocks);
+        }
+    }
+
+    private static int count(int n, long remaining, int recordBytes, Path path) throws IOException {
+        if (n < 0 || (long) n * recordBytes > remaining) throw new IOException("Corrupt index count " + n + ": " + path);
+        return n;
+    }
+}
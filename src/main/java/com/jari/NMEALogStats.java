@@ -0,0 +1,65 @@
+package com.jari;
+
+// ===== Throughput and per-type counts of a bulk parse =====
+public final class NMEALogStats {
+
+    private final long[] perType = new long[NMEAType.values().length];
+    private final long[] perStatus = new long[NMEAStatus.values().length];
+    private long sentences;
+    private long rejected;
+    private long bytes;
+    private long elapsedNanos;
+
+    void add(NMEAType type) {
+        perType[type.ordinal()]++;
+        sentences++;
+    }
+
+    void reject(NMEAStatus status) {
+        perStatus[status.ordinal()]++;
+        rejected++;
+    }
+
+    void addBytes(long n) { bytes += n; }
+    void elapsedNanos(long nanos) { elapsedNanos = nanos; }
+
+    void merge(NMEALogStats other) {
+        for (int i = 0; i < perType.length; i++) perType[i] += other.perType[i];
+        for (int i = 0; i < perStatus.length; i++) perStatus[i] += other.perStatus[i];
+        sentences += other.sentences;
+        rejected += other.rejected;
+        bytes += other.bytes;
+    }
+
+    public long sentences() { return sentences; }
+    public long rejected() { return rejected; }
+    public long bytes() { return bytes; }
+    public long elapsedNanos() { return elapsedNanos; }
+    public long count(NMEAType type) { return perType[type.ordinal()]; }
+    public long errors(NMEAStatus status) { return perStatus[status.ordinal()]; }
+
+    public double sentencesPerSecond() {
+        return (elapsedNanos == 0) ? 0.0 : sentences * 1e9 / elapsedNanos;
+    }
+
+    public double bytesPerSecond() {
+        return (elapsedNanos == 0) ? 0.0 : bytes * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Sentences: ").append(sentences).append(" (rejected ").append(rejected).append(")\n");
+        sb.append("Bytes: ").append(bytes).append("\n");
+        sb.append("Elapsed (ms): ").append(elapsedNanos / 1_000_000).append("\n");
+        sb.append("Sentences/sec: ").append((long) sentencesPerSecond()).append("\n");
+        sb.append("MB/sec: ").append(String.format("%.1f", bytesPerSecond() / (1024 * 1024))).append("\n");
+        for (NMEAType type : NMEAType.values()) {
+            if (perType[type.ordinal()] > 0) sb.append(type).append(": ").append(perType[type.ordinal()]).append("\n");
+        }
+        for (NMEAStatus status : NMEAStatus.values()) {
+            if (perStatus[status.ordinal()] > 0) sb.append(status).append(": ").append(perStatus[status.ordinal()]).append("\n");
+        }
+        return sb.toString();
+    }
+}
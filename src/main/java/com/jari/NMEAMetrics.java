@@ -0,0 +1,33 @@
+package com.jari;
+
+// ===== Instrumentation hooks called from the parsing hot paths =====
+// Every method defaults to doing nothing, so NOOP costs an empty, inlinable call: timer() returns 0
+// without reading the clock, and nothing else runs. NMEAMetricsRegistry is the counting implementation.
+// Implementations are called concurrently from parser, reader and pipeline threads.
+public interface NMEAMetrics {
+
+    NMEAMetrics NOOP = new NMEAMetrics() {};
+
+    // Start of a timed parse; pass the result to parsed()
+    default long timer() { return 0; }
+
+    // A sentence was accepted; talker is packed as in NMEASentenceDecoder.talker()
+    default void parsed(int talker, NMEAType type, long timer) {}
+
+    default void checksumFailure() {}
+
+    default void malformed() {}
+
+    // Well-formed, but no handler knows the sentence type
+    default void unsupported() {}
+
+    default void gsvGroupCompleted() {}
+
+    default void gsvGroupTimedOut() {}
+
+    // Classifies a sentence the decoder rejected
+    default void rejected(NMEASentenceDecoder d) {
+        if (d.checksumFailed()) checksumFailure();
+        else malformed();
+    }
+}
@@ -0,0 +1,27 @@
+package com.jari;
+
+import java.util.Map;
+
+// JMX view of an NMEAMetricsRegistry; see NMEAMetricsRegistry.register()
+public interface NMEAMetricsMXBean {
+
+    long getSentences();
+    long getChecksumFailures();
+    long getMalformedSentences();
+    long getUnsupportedSentences();
+
+    // Keys are talker.type, e.g. "GP.GGA"; "??" stands for talkers outside A-Z
+    Map<String, Long> getSentencesByTalkerAndType();
+
+    long getGsvGroupsCompleted();
+    long getGsvGroupsTimedOut();
+    double getGsvCompletionRate();
+
+    double getMeanParseNanos();
+    long getParseNanosP50();
+    long getParseNanosP99();
+    long getParseNanosP999();
+    long getParseNanosMax();
+
+    void reset();
+}
@@ -0,0 +1,157 @@
+package com.jari;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+// ===== Counting NMEAMetrics backed by LongAdders =====
+// Per talker/type counters are created on first use. Talkers are two letters A-Z; anything else shares
+// one "??" row. Parse latency goes into a lock-free log-linear histogram.
+//
+//   NMEAMetricsRegistry metrics = new NMEAMetricsRegistry().register("receivers");
+//   NMEAParser.setMetrics(metrics);
+public final class NMEAMetricsRegistry implements NMEAMetrics, NMEAMetricsMXBean {
+
+    private static final NMEAType[] TYPES = NMEAType.values();
+    private static final int TALKERS = 26 * 26 + 1;
+    private static final int OTHER_TALKER = TALKERS - 1;
+
+    private final AtomicReferenceArray<LongAdder> byTalkerAndType = new AtomicReferenceArray<>(TALKERS * TYPES.length);
+    private final LongAdder sentences = new LongAdder();
+    private final LongAdder checksumFailures = new LongAdder();
+    private final LongAdder malformed = new LongAdder();
+    private final LongAdder unsupported = new LongAdder();
+    private final LongAdder gsvCompleted = new LongAdder();
+    private final LongAdder gsvTimedOut = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    // ======= NMEAMetrics =======
+    @Override
+    public long timer() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public void parsed(int talker, NMEAType type, long timer) {
+        latency.record(System.nanoTime() - timer);
+        sentences.increment();
+        counter(talkerIndex(talker) * TYPES.length + type.ordinal()).increment();
+    }
+
+    @Override
+    public void checksumFailure() { checksumFailures.increment(); }
+
+    @Override
+    public void malformed() { malformed.increment(); }
+
+    @Override
+    public void unsupported() { unsupported.increment(); }
+
+    @Override
+    public void gsvGroupCompleted() { gsvCompleted.increment(); }
+
+    @Override
+    public void gsvGroupTimedOut() { gsvTimedOut.increment(); }
+
+    private static int talkerIndex(int talker) {
+        int a = (talker >> 8) - 'A', b = (talker & 0xFF) - 'A';
+        return (a >= 0 && a < 26 && b >= 0 && b < 26) ? a * 26 + b : OTHER_TALKER;
+    }
+
+    private LongAdder counter(int index) {
+        LongAdder c = byTalkerAndType.get(index);
+        if (c == null) {
+            byTalkerAndType.compareAndSet(index, null, new LongAdder());
+            c = byTalkerAndType.get(index);
+        }
+        return c;
+    }
+
+    // ======= QUERIES =======
+    public long count(String talker, NMEAType type) {
+        int packed = (talker.length() == 2) ? (talker.charAt(0) << 8) | talker.charAt(1) : 0;
+        LongAdder c = byTalkerAndType.get(talkerIndex(packed) * TYPES.length + type.ordinal());
+        return (c == null) ? 0 : c.sum();
+    }
+
+    // Upper bound of the bucket holding the percentile, in nanoseconds
+    public long parseNanosPercentile(double percentile) {
+        return latency.percentile(percentile);
+    }
+
+    // ======= NMEAMetricsMXBean =======
+    @Override public long getSentences() { return sentences.sum(); }
+    @Override public long getChecksumFailures() { return checksumFailures.sum(); }
+    @Override public long getMalformedSentences() { return malformed.sum(); }
+    @Override public long getUnsupportedSentences() { return unsupported.sum(); }
+    @Override public long getGsvGroupsCompleted() { return gsvCompleted.sum(); }
+    @Override public long getGsvGroupsTimedOut() { return gsvTimedOut.sum(); }
+
+    @Override
+    public double getGsvCompletionRate() {
+        long done = gsvCompleted.sum(), total = done + gsvTimedOut.sum();
+        return (total == 0) ? 0 : (double) done / total;
+    }
+
+    @Override
+    public Map<String, Long> getSentencesByTalkerAndType() {
+        Map<String, Long> out = new TreeMap<>();
+        for (int i = 0; i < byTalkerAndType.length(); i++) {
+            LongAdder c = byTalkerAndType.get(i);
+            if (c == null) continue;
+            int talker = i / TYPES.length;
+            String id = (talker == OTHER_TALKER) ? "??"
+                    : new String(new char[] { (char) ('A' + talker / 26), (char) ('A' + talker % 26) });
+            out.put(id + "." + TYPES[i % TYPES.length], c.sum());
+        }
+        return out;
+    }
+
+    @Override public double getMeanParseNanos() { return latency.mean(); }
+    @Override public long getParseNanosP50() { return latency.percentile(50); }
+    @Override public long getParseNanosP99() { return latency.percentile(99); }
+    @Override public long getParseNanosP999() { return latency.percentile(99.9); }
+    @Override public long getParseNanosMax() { return latency.percentile(100); }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < byTalkerAndType.length(); i++) {
+            LongAdder c = byTalkerAndType.get(i);
+            if (c != null) c.reset();
+        }
+        sentences.reset();
+        checksumFailures.reset();
+        malformed.reset();
+        unsupported.reset();
+        gsvCompleted.reset();
+        gsvTimedOut.reset();
+        latency.reset();
+    }
+
+    // ======= JMX =======
+    // Registers under com.jari:type=NMEAMetrics,name=<name> on the platform MBean server
+    public NMEAMetricsRegistry register(String name) throws JMException {
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName(name));
+        return this;
+    }
+
+    public void unregister(String name) throws JMException {
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName(name));
+    }
+
+    private static ObjectName objectName(String name) throws JMException {
+        return new ObjectName("com.jari:type=NMEAMetrics,name=" + ObjectName.quote(name));
+    }
+
+    @Override
+    public String toString() {
+        return "NMEAMetrics{sentences=" + getSentences() + ", checksumFailures=" + getChecksumFailures()
+                + ", malformed=" + getMalformedSentences() + ", unsupported=" + getUnsupportedSentences()
+                + ", p50=" + getParseNanosP50() + "ns, p99=" + getParseNanosP99() + "ns}";
+    }
+}
@@ -0,0 +1,115 @@
+package com.jari;
+
+// ===== Allocation-free number parsing over CharSequence ranges =====
+final class NMEANumbers {
+
+    private NMEANumbers() {}
+
+    private static final double[] POW10 = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    // Mantissas below 2^53 and powers up to 1e22 are exact doubles, so a single division rounds correctly
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    static int parseInt(CharSequence s, int start, int end, int def) {
+        if (start >= end) return def;
+        int i = start;
+        boolean neg = false;
+        char c = s.charAt(i);
+        if (c == '-' || c == '+') {
+            neg = c == '-';
+            if (++i == end) return def;
+        }
+        if (end - i > 10) return def;
+        long v = 0;
+        for (; i < end; i++) {
+            c = s.charAt(i);
+            if (c < '0' || c > '9') return def;
+            v = v * 10 + (c - '0');
+        }
+        if (neg) v = -v;
+        return (v < Integer.MIN_VALUE || v > Integer.MAX_VALUE) ? def : (int) v;
+    }
+
+    static double parseDouble(CharSequence s, int start, int end, double def) {
+        if (start >= end) return def;
+        int i = start;
+        boolean neg = false;
+        char c = s.charAt(i);
+        if (c == '-' || c == '+') {
+            neg = c == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int scale = 0;
+        boolean dot = false;
+        boolean digits = false;
+        for (; i < end; i++) {
+            c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits = true;
+                if (mantissa >= MAX_EXACT_MANTISSA / 10) return parseDoubleSlow(s, start, end, def);
+                mantissa = mantissa * 10 + (c - '0');
+                if (dot) scale++;
+            } else if (c == '.' && !dot) {
+                dot = true;
+            } else {
+                return parseDoubleSlow(s, start, end, def);
+            }
+        }
+        if (!digits) return def;
+        if (scale >= POW10.length) return parseDoubleSlow(s, start, end, def);
+        double v = (scale == 0) ? mantissa : mantissa / POW10[scale];
+        return neg ? -v : v;
+    }
+
+    // Exponents, very long mantissas and the like are rare enough to go through the JDK
+    private static double parseDoubleSlow(CharSequence s, int start, int end, double def) {
+        try { return Double.parseDouble(s.subSequence(start, end).toString()); } catch (Exception e) { return def; }
+    }
+
+    // hhmmss[.sss] -> milliseconds since midnight, or -1
+    static int parseTimeMillis(CharSequence s, int start, int end) {
+        if (end - start < 6) return -1;
+        int hh = twoDigits(s, start);
+        int mm = twoDigits(s, start + 2);
+        int ss = twoDigits(s, start + 4);
+        if (hh < 0 || mm < 0 || ss < 0 || hh > 23 || mm > 59 || ss > 60) return -1;
+        int millis = 0;
+        int i = start + 6;
+        if (i < end) {
+            if (s.charAt(i++) != '.') return -1;
+            int scale = 100;
+            for (; i < end; i++) {
+                char c = s.charAt(i);
+                if (c < '0' || c > '9') return -1;
+                millis += (c - '0') * scale;
+                scale /= 10;
+            }
+        }
+        return ((hh * 60 + mm) * 60 + ss) * 1000 + millis;
+    }
+
+    // yyyymmdd, or -1 when any part is missing
+    static int date(int year, int month, int day) {
+        return (year < 0 || month < 0 || day < 0) ? -1 : (year * 100 + month) * 100 + day;
+    }
+
+    // Days since 1970-01-01 for a proleptic Gregorian date (H. Hinnant's days_from_civil)
+    static long epochDay(int year, int month, int day) {
+        int y = (month <= 2) ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yoe = y - era * 400;
+        int doy = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097L + doe - 719468;
+    }
+
+    static int twoDigits(CharSequence s, int i) {
+        char a = s.charAt(i), b = s.charAt(i + 1);
+        if (a < '0' || a > '9' || b < '0' || b > '9') return -1;
+        return (a - '0') * 10 + (b - '0');
+    }
+}
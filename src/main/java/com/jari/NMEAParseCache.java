@@ -0,0 +1,199 @@
+package com.jari;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.function.Function;
+
+// ===== Bounded LRU cache of parse results for byte-identical sentences =====
+// Stationary receivers repeat the same GSA / GSV / VTG sentences for hours. The key is the raw sentence
+// text; its hash comes from the decoder's scan, and the text is only copied when a new entry is stored.
+// Entries live in preallocated arrays threaded into hash chains and an intrusive LRU list, so a hit
+// allocates nothing. Cached values are shared between callers and must be immutable (NMEASentence,
+// NMEAParser). Types outside the enabled set bypass the cache.
+// Not thread-safe: keep one cache per thread, e.g. per NMEAPipeline worker.
+//
+//   NMEAParseCache<NMEASentence> cache = NMEAParseCache.forSentences(4096);
+//   NMEASentence s = cache.get(decoder);
+public final class NMEAParseCache<V> {
+
+    // GGA, RMC, GLL, ZDA and GST carry the time and never repeat
+    public static final EnumSet<NMEAType> DEFAULT_TYPES = EnumSet.of(NMEAType.GSA, NMEAType.GSV, NMEAType.VTG);
+
+    private static final int NONE = -1;
+
+    private final Function<? super NMEASentenceDecoder, ? extends V> loader;
+    private final NMEASentenceDecoder decoder = new NMEASentenceDecoder(true);
+    private final boolean[] enabled = new boolean[NMEAType.values().length];
+
+    private final int[] buckets;
+    private final int mask;
+    private final char[][] keys;
+    private final int[] hashes;
+    private final Object[] values;
+    private final int[] chain;
+    private final int[] prev;
+    private final int[] next;
+    private int head = NONE;  // most recently used
+    private int tail = NONE;  // eviction candidate
+    private int size;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long bypassed;
+
+    public NMEAParseCache(int capacity, Function<? super NMEASentenceDecoder, ? extends V> loader) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        this.loader = loader;
+        int tableSize = Integer.highestOneBit(Math.max(2, capacity * 2 - 1)) << 1;
+        buckets = new int[tableSize];
+        Arrays.fill(buckets, NONE);
+        mask = tableSize - 1;
+        keys = new char[capacity][];
+        hashes = new int[capacity];
+        values = new Object[capacity];
+        chain = new int[capacity];
+        prev = new int[capacity];
+        next = new int[capacity];
+        enabledTypes(DEFAULT_TYPES);
+    }
+
+    // Typed records for the decoder path
+    public static NMEAParseCache<NMEASentence> forSentences(int capacity) {
+        return new NMEAParseCache<>(capacity, NMEASentence::from);
+    }
+
+    // NMEAParser instances; the decoder has already validated the checksum
+    public static NMEAParseCache<NMEAParser> forParsers(int capacity) {
+        return new NMEAParseCache<>(capacity,
+                d -> NMEAParser.of(d.source().subSequence(d.sentenceStart(), d.sentenceEnd()).toString(), false));
+    }
+
+    public NMEAParseCache<V> enabledTypes(EnumSet<NMEAType> types) {
+        Arrays.fill(enabled, false);
+        for (NMEAType t : types) enabled[t.ordinal()] = true;
+        return this;
+    }
+
+    // ======= LOOKUP =======
+    // Decodes the sentence with the cache's own decoder; null when it is malformed or fails its checksum
+    public V get(CharSequence sentence) {
+        return decoder.reset(sentence) ? get(decoder) : null;
+    }
+
+    // The decoder must be positioned on a sentence that reset() accepted
+    @SuppressWarnings("unchecked")
+    public V get(NMEASentenceDecoder d) {
+        if (!enabled[d.type().ordinal()]) {
+            bypassed++;
+            return loader.apply(d);
+        }
+        CharSequence s = d.source();
+        int start = d.sentenceStart();
+        int length = d.sentenceEnd() - start;
+        int hash = d.hash();
+        int bucket = spread(hash) & mask;
+
+        for (int e = buckets[bucket]; e != NONE; e = chain[e]) {
+            if (hashes[e] == hash && matches(keys[e], s, start, length)) {
+                hits++;
+                touch(e);
+                return (V) values[e];
+            }
+        }
+
+        misses++;
+        V value = loader.apply(d);
+        if (value == null) return null;
+        int e;
+        if (size < keys.length) {
+            e = size++;
+        } else {
+            e = tail;
+            unlinkChain(e);
+            unlinkLru(e);
+            evictions++;
+        }
+        char[] key = keys[e];
+        if (key == null || key.length != length) key = keys[e] = new char[length];
+        for (int k = 0; k < length; k++) key[k] = s.charAt(start + k);
+        hashes[e] = hash;
+        values[e] = value;
+        chain[e] = buckets[bucket];
+        buckets[bucket] = e;
+        pushFront(e);
+        return value;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean matches(char[] key, CharSequence s, int start, int length) {
+        if (key.length != length) return false;
+        for (int k = 0; k < length; k++) if (key[k] != s.charAt(start + k)) return false;
+        return true;
+    }
+
+    // ======= LRU / CHAINS =======
+    private void touch(int e) {
+        if (e == head) return;
+        unlinkLru(e);
+        pushFront(e);
+    }
+
+    private void pushFront(int e) {
+        prev[e] = NONE;
+        next[e] = head;
+        if (head != NONE) prev[head] = e;
+        head = e;
+        if (tail == NONE) tail = e;
+    }
+
+    private void unlinkLru(int e) {
+        if (prev[e] != NONE) next[prev[e]] = next[e];
+        else head = next[e];
+        if (next[e] != NONE) prev[next[e]] = prev[e];
+        else tail = prev[e];
+    }
+
+    private void unlinkChain(int e) {
+        int bucket = spread(hashes[e]) & mask;
+        if (buckets[bucket] == e) {
+            buckets[bucket] = chain[e];
+            return;
+        }
+        for (int p = buckets[bucket]; p != NONE; p = chain[p]) {
+            if (chain[p] == e) {
+                chain[p] = chain[e];
+                return;
+            }
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(buckets, NONE);
+        Arrays.fill(values, null);
+        head = tail = NONE;
+        size = 0;
+    }
+
+    // ======= STATS =======
+    public int size() { return size; }
+    public int capacity() { return keys.length; }
+    public long hits() { return hits; }
+    public long misses() { return misses; }
+    public long evictions() { return evictions; }
+    public long bypassed() { return bypassed; }
+
+    public double hitRate() {
+        long lookups = hits + misses;
+        return (lookups == 0) ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return "NMEAParseCache{size=" + size + "/" + keys.length + ", hits=" + hits + ", misses=" + misses
+                + ", evictions=" + evictions + ", bypassed=" + bypassed + "}";
+    }
+}
@@ -5,8 +5,12 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import static com.jari.NMEAFields.*;
+
 // ===== Custom Exception =====
 class ChecksumException extends RuntimeException {
     public ChecksumException(String message) {
@@ -56,50 +60,162 @@ public class NMEAParser {
 
     private static final Logger LOG = Logger.getLogger(NMEAParser.class.getName());
 
-    private final Map<String, String> data = Collections.synchronizedMap(new HashMap<>());
-    private final List<Map<String, String>> satellites = Collections.synchronizedList(new ArrayList<>());
+    private static volatile NMEAMetrics metrics = NMEAMetrics.NOOP;
+
+    private final Map<String, String> data = new HashMap<>();
+    private final List<Map<String, String>> satellites = new ArrayList<>();
     private final boolean validateChecksum;
+    private final boolean requireChecksum;
+    private final String sentence;
+
+    private volatile boolean coordinatesResolved;
+    private long latitudeE7;
+    private long longitudeE7;
+    private String formattedLatitude;
+    private String formattedLongitude;
+
+    private volatile boolean sentenceResolved;
+    private NMEASentence typed;
+
+    private final List<Integer> gpgsvMessageNumbers = new ArrayList<>();
+
+    // ======= HANDLERS =======
+    // Custom handler for sentence types the parser does not know. fields is the comma-split sentence
+    // (fields[0] is "$" + address, the last field still carries "*hh"); results go into data and are
+    // readable through get(key).
+    @FunctionalInterface
+    public interface FieldHandler {
+        void parse(String[] fields, Map<String, String> data);
+    }
+
+    private interface Handler {
+        void parse(NMEAParser parser, String[] fields);
+    }
+
+    private static final Map<String, Handler> BUILT_IN = new HashMap<>();
+    private static final NMEAHandlerRegistry<Handler> HANDLERS = new NMEAHandlerRegistry<>();
+
+    static {
+        BUILT_IN.put("GGA", NMEAParser::parseGPGGA);
+        BUILT_IN.put("RMC", NMEAParser::parseGPRMC);
+        BUILT_IN.put("VTG", NMEAParser::parseGPVTG);
+        BUILT_IN.put("GSA", NMEAParser::parseGPGSA);
+        BUILT_IN.put("GSV", NMEAParser::parseGPGSV);
+        BUILT_IN.put("GLL", NMEAParser::parseGPGLL);
+        BUILT_IN.put("ZDA", NMEAParser::parseGPZDA);
+        BUILT_IN.put("GST", NMEAParser::parseGPGST);
+        BUILT_IN.forEach(HANDLERS::register);
+    }
+
+    // Handlers are process-wide: they apply to every NMEAParser in the JVM until unregistered.
+    // Applies to every talker, e.g. "HDT" serves $HEHDT and $GPHDT; replaces a built-in handler of the same formatter
+    public static void registerHandler(String formatter, FieldHandler handler) {
+        HANDLERS.register(formatter, (parser, fields) -> handler.parse(fields, parser.data));
+    }
+
+    // Removes a custom handler; a replaced built-in formatter such as "GGA" gets its built-in handler back
+    public static void unregisterHandler(String formatter) {
+        Handler builtIn = BUILT_IN.get(formatter);
+        if (builtIn != null) HANDLERS.register(formatter, builtIn);
+        else HANDLERS.unregister(formatter);
+    }
+
+    // Proprietary sentences by manufacturer code, e.g. "GRM" serves $PGRME and $PGRMZ
+    public static void registerProprietaryHandler(String manufacturer, FieldHandler handler) {
+        HANDLERS.registerProprietary(manufacturer, (parser, fields) -> handler.parse(fields, parser.data));
+    }
+
+    public static void unregisterProprietaryHandler(String manufacturer) {
+        HANDLERS.unregisterProprietary(manufacturer);
+    }
 
-    private final List<Integer> gpgsvMessageNumbers = Collections.synchronizedList(new ArrayList<>());
+    // ======= METRICS =======
+    // Applies to every parser created afterwards; NMEAMetrics.NOOP (the default) switches it off
+    public static void setMetrics(NMEAMetrics m) {
+        metrics = (m == null) ? NMEAMetrics.NOOP : m;
+    }
 
     // ======= CONSTRUCTORS =======
     public static NMEAParser of(String nmeaSentence) {
-        return new NMEAParser(nmeaSentence, true);
+        return of(nmeaSentence, true, false);
     }
 
     public static NMEAParser of(String nmeaSentence, boolean validateChecksum) {
-        return new NMEAParser(nmeaSentence, validateChecksum);
+        return of(nmeaSentence, validateChecksum, false);
     }
 
-    private NMEAParser(String nmeaSentence, boolean validateChecksum) {
-        this.validateChecksum = validateChecksum;
-        if (nmeaSentence != null && !nmeaSentence.isBlank()) parse(nmeaSentence);
+    // requireChecksum: reject sentences without "*hh" instead of accepting them.
+    // Throwing wrapper around check(); a blank sentence gives an empty parser.
+    public static NMEAParser of(String nmeaSentence, boolean validateChecksum, boolean requireChecksum) {
+        long timer = metrics.timer();
+        NMEAStatus status = check(nmeaSentence, validateChecksum, requireChecksum);
+        if (status == NMEAStatus.EMPTY) return new NMEAParser(nmeaSentence, validateChecksum, requireChecksum, timer);
+        if (status != NMEAStatus.OK) {
+            rejected(status, nmeaSentence);
+            if (status.isChecksumError()) throw new ChecksumException("Checksum validation failed for: " + nmeaSentence);
+            throw new IllegalArgumentException("Invalid NMEA sentence: " + nmeaSentence);
+        }
+        return new NMEAParser(nmeaSentence, validateChecksum, requireChecksum, timer);
     }
 
-    // ======= PARSING =======
-    private void parse(String nmeaSentence) {
-        if (nmeaSentence == null || !nmeaSentence.startsWith("$"))
-            throw new IllegalArgumentException("Invalid NMEA sentence: " + nmeaSentence);
+    // Result-code variant of of(): returns null and fills error (when given) instead of throwing
+    public static NMEAParser tryParse(String nmeaSentence, NMEAError error) {
+        return tryParse(nmeaSentence, true, false, error);
+    }
 
-        if (validateChecksum && !isValidChecksum(nmeaSentence))
-            throw new ChecksumException("Checksum validation failed for: " + nmeaSentence);
+    public static NMEAParser tryParse(String nmeaSentence, boolean validateChecksum, boolean requireChecksum, NMEAError error) {
+        long timer = metrics.timer();
+        NMEAStatus status = check(nmeaSentence, validateChecksum, requireChecksum);
+        if (status == NMEAStatus.OK) return new NMEAParser(nmeaSentence, validateChecksum, requireChecksum, timer);
+        rejected(status, nmeaSentence);
+        if (error != null) {
+            error.set(status, -1, -1);
+            if (nmeaSentence != null) error.text(nmeaSentence, 0, nmeaSentence.length());
+        }
+        return null;
+    }
 
+    // OK, or why of() would reject the sentence
+    public static NMEAStatus check(String nmeaSentence, boolean validateChecksum, boolean requireChecksum) {
+        if (nmeaSentence == null || nmeaSentence.isBlank()) return NMEAStatus.EMPTY;
+        if (!nmeaSentence.startsWith("$")) return NMEAStatus.MISSING_START;
+        if (validateChecksum && !isValidChecksum(nmeaSentence, requireChecksum))
+            return (nmeaSentence.indexOf('*') < 0) ? NMEAStatus.CHECKSUM_MISSING : NMEAStatus.CHECKSUM_MISMATCH;
+        if (nmeaSentence.length() < 6) return NMEAStatus.TOO_SHORT;
+        return NMEAStatus.OK;
+    }
+
+    private static void rejected(NMEAStatus status, String nmeaSentence) {
+        if (status.isChecksumError()) metrics.checksumFailure();
+        else metrics.malformed();
+        if (LOG.isLoggable(Level.FINE)) LOG.fine(status + ": " + nmeaSentence);
+    }
+
+    // The sentence has passed check()
+    private NMEAParser(String nmeaSentence, boolean validateChecksum, boolean requireChecksum, long timer) {
+        this.validateChecksum = validateChecksum;
+        this.requireChecksum = requireChecksum;
+        this.sentence = nmeaSentence;
+        if (nmeaSentence != null && !nmeaSentence.isBlank()) parse(nmeaSentence, timer);
+    }
+
+    // ======= PARSING =======
+    private void parse(String nmeaSentence, long timer) {
         String type = nmeaSentence.substring(1, 6);
         String[] p = nmeaSentence.split(",");
 
         data.put("type", type);
 
-        switch (type) {
-            case "GPGGA": parseGPGGA(p); break;
-            case "GPRMC": parseGPRMC(p); break;
-            case "GPVTG": parseGPVTG(p); break;
-            case "GPGSA": parseGPGSA(p); break;
-            case "GPGSV": parseGPGSV(p); break;
-            case "GPGLL": parseGPGLL(p); break;
-            case "GPZDA": parseGPZDA(p); break;
-            case "GPGST": parseGPGST(p); break;
-            default: data.put("message", "Unsupported sentence type: " + type); break;
+        NMEAMetrics m = metrics;
+        Handler handler = HANDLERS.lookup(nmeaSentence, 1, p[0].length());
+        if (handler != null) {
+            handler.parse(this, p);
+        } else {
+            data.put("message", "Unsupported sentence type: " + type);
+            m.unsupported();
+            if (LOG.isLoggable(Level.FINE)) LOG.fine("Unsupported sentence type: " + type);
         }
+        m.parsed((nmeaSentence.charAt(1) << 8) | nmeaSentence.charAt(2), NMEAType.of(nmeaSentence, 1, p[0].length()), timer);
     }
 
     private int parseIntSafe(String s, int def) {
@@ -108,52 +224,52 @@ public class NMEAParser {
 
     // ======= SENTENCE PARSERS =======
     private void parseGPGGA(String[] p) {
-        data.put("time", get(p, 1));
-        data.put("latitude", get(p, 2));
-        data.put("lat_dir", get(p, 3));
-        data.put("longitude", get(p, 4));
-        data.put("lon_dir", get(p, 5));
-        data.put("fix_quality", get(p, 6));
-        data.put("satellites", get(p, 7));
-        data.put("hdop", get(p, 8));
-        data.put("altitude", get(p, 9));
-        data.put("altitude_units", get(p, 10));
+        data.put("time", get(p, GGA_TIME));
+        data.put("latitude", get(p, GGA_LATITUDE));
+        data.put("lat_dir", get(p, GGA_LAT_DIR));
+        data.put("longitude", get(p, GGA_LONGITUDE));
+        data.put("lon_dir", get(p, GGA_LON_DIR));
+        data.put("fix_quality", get(p, GGA_FIX_QUALITY));
+        data.put("satellites", get(p, GGA_SATELLITES));
+        data.put("hdop", get(p, GGA_HDOP));
+        data.put("altitude", get(p, GGA_ALTITUDE));
+        data.put("altitude_units", get(p, GGA_ALTITUDE_UNITS));
     }
 
     private void parseGPRMC(String[] p) {
-        data.put("time", get(p, 1));
-        data.put("status", get(p, 2));
-        data.put("latitude", get(p, 3));
-        data.put("lat_dir", get(p, 4));
-        data.put("longitude", get(p, 5));
-        data.put("lon_dir", get(p, 6));
-        data.put("speed_knots", get(p, 7));
-        data.put("track_angle", get(p, 8));
-        data.put("date", get(p, 9));
+        data.put("time", get(p, RMC_TIME));
+        data.put("status", get(p, RMC_STATUS));
+        data.put("latitude", get(p, RMC_LATITUDE));
+        data.put("lat_dir", get(p, RMC_LAT_DIR));
+        data.put("longitude", get(p, RMC_LONGITUDE));
+        data.put("lon_dir", get(p, RMC_LON_DIR));
+        data.put("speed_knots", get(p, RMC_SPEED_KNOTS));
+        data.put("track_angle", get(p, RMC_TRACK_ANGLE));
+        data.put("date", get(p, RMC_DATE));
     }
 
     private void parseGPVTG(String[] p) {
-        data.put("track_true", get(p, 1));
-        data.put("track_magnetic", get(p, 3));
-        data.put("speed_knots", get(p, 5));
-        data.put("speed_kmh", get(p, 7));
+        data.put("track_true", get(p, VTG_TRACK_TRUE));
+        data.put("track_magnetic", get(p, VTG_TRACK_MAGNETIC));
+        data.put("speed_knots", get(p, VTG_SPEED_KNOTS));
+        data.put("speed_kmh", get(p, VTG_SPEED_KMH));
     }
 
     private void parseGPGSA(String[] p) {
-        data.put("mode", get(p, 1));
-        data.put("fix_type", get(p, 2));
+        data.put("mode", get(p, GSA_MODE));
+        data.put("fix_type", get(p, GSA_FIX_TYPE));
         StringBuilder used = new StringBuilder();
-        for (int i = 3; i <= 14; i++) if (!get(p, i).isEmpty()) used.append(get(p, i)).append(",");
+        for (int i = GSA_FIRST_SATELLITE; i <= GSA_LAST_SATELLITE; i++) if (!get(p, i).isEmpty()) used.append(get(p, i)).append(",");
         data.put("satellites_used", used.toString().replaceAll(",$", ""));
-        data.put("pdop", get(p, 15));
-        data.put("hdop", get(p, 16));
-        data.put("vdop", get(p, 17));
+        data.put("pdop", get(p, GSA_PDOP));
+        data.put("hdop", get(p, GSA_HDOP));
+        data.put("vdop", get(p, GSA_VDOP));
     }
 
     private void parseGPGSV(String[] p) {
-        int totalMessages = parseIntSafe(get(p, 1), 1);
-        int messageNumber = parseIntSafe(get(p, 2), 1);
-        int satellitesInView = parseIntSafe(get(p, 3), 0);
+        int totalMessages = parseIntSafe(get(p, GSV_TOTAL_MESSAGES), 1);
+        int messageNumber = parseIntSafe(get(p, GSV_MESSAGE_NUMBER), 1);
+        int satellitesInView = parseIntSafe(get(p, GSV_SATELLITES_IN_VIEW), 0);
 
         data.put("total_messages", String.valueOf(totalMessages));
         data.put("message_number", String.valueOf(messageNumber));
@@ -161,7 +277,7 @@ public class NMEAParser {
 
         if (messageNumber == 1) satellites.clear();
 
-        for (int i = 4; i + 3 < p.length; i += 4) {
+        for (int i = GSV_FIRST_SATELLITE; i + 3 < p.length; i += GSV_SATELLITE_BLOCK) {
             Map<String, String> sat = new HashMap<>();
             sat.put("id", get(p, i));
             sat.put("elevation", get(p, i + 1));
@@ -173,30 +289,30 @@ public class NMEAParser {
     }
 
     private void parseGPGLL(String[] p) {
-        data.put("latitude", get(p, 1));
-        data.put("lat_dir", get(p, 2));
-        data.put("longitude", get(p, 3));
-        data.put("lon_dir", get(p, 4));
-        data.put("time", get(p, 5));
-        data.put("status", cleanup(get(p, 6)));
+        data.put("latitude", get(p, GLL_LATITUDE));
+        data.put("lat_dir", get(p, GLL_LAT_DIR));
+        data.put("longitude", get(p, GLL_LONGITUDE));
+        data.put("lon_dir", get(p, GLL_LON_DIR));
+        data.put("time", get(p, GLL_TIME));
+        data.put("status", cleanup(get(p, GLL_STATUS)));
     }
 
     private void parseGPZDA(String[] p) {
-        data.put("time", get(p, 1));
-        data.put("day", get(p, 2));
-        data.put("month", get(p, 3));
-        data.put("year", get(p, 4));
+        data.put("time", get(p, ZDA_TIME));
+        data.put("day", get(p, ZDA_DAY));
+        data.put("month", get(p, ZDA_MONTH));
+        data.put("year", get(p, ZDA_YEAR));
     }
 
     private void parseGPGST(String[] p) {
-        data.put("time", get(p, 1));
-        data.put("rms", get(p, 2));
-        data.put("sigma_major", get(p, 3));
-        data.put("sigma_minor", get(p, 4));
-        data.put("orientation", get(p, 5));
-        data.put("sigma_lat", get(p, 6));
-        data.put("sigma_lon", get(p, 7));
-        data.put("sigma_alt", cleanup(get(p, 8)));
+        data.put("time", get(p, GST_TIME));
+        data.put("rms", get(p, GST_RMS));
+        data.put("sigma_major", get(p, GST_SIGMA_MAJOR));
+        data.put("sigma_minor", get(p, GST_SIGMA_MINOR));
+        data.put("orientation", get(p, GST_ORIENTATION));
+        data.put("sigma_lat", get(p, GST_SIGMA_LAT));
+        data.put("sigma_lon", get(p, GST_SIGMA_LON));
+        data.put("sigma_alt", cleanup(get(p, GST_SIGMA_ALT)));
     }
 
     // ======= HELPERS =======
@@ -209,39 +325,71 @@ public class NMEAParser {
     }
 
     public static boolean isValidChecksum(String sentence) {
-        int asterisk = sentence.indexOf('*');
-        if (asterisk < 0) return true;
-        String payload = sentence.substring(1, asterisk);
-        String checksumStr = sentence.substring(asterisk + 1).trim();
-        if (checksumStr.length() > 2) checksumStr = checksumStr.substring(0, 2);
-        int cs = 0;
-        for (char c : payload.toCharArray()) cs ^= c;
-        return String.format("%02X", cs).equalsIgnoreCase(checksumStr);
+        return isValidChecksum(sentence, false);
+    }
+
+    public static boolean isValidChecksum(String sentence, boolean requireChecksum) {
+        return NMEAChecksum.isValid(sentence, 0, sentence.length(), requireChecksum);
+    }
+
+    // Fixed-point degrees at 10^-decimals (exact, rounded half-up), or NMEACoordinates.INVALID
+    private static long convertToFixed(String value, String direction, int decimals) {
+        if (value == null || value.isEmpty()) return NMEACoordinates.INVALID;
+        char dir = (direction == null || direction.isEmpty()) ? '\0' : direction.charAt(0);
+        return NMEACoordinates.toFixed(value, 0, value.length(), dir, decimals);
     }
 
-    private String convertToDecimal(String value, String direction) {
+    private static String convertToDecimal(String value, String direction) {
         if (value == null || value.isEmpty()) return "";
-        try {
-            int dot = value.indexOf('.');
-            int degLen = (dot > 3) ? 3 : 2;
-            String degStr = value.substring(0, Math.min(degLen, value.length()));
-            String minStr = value.substring(Math.min(degLen, value.length()));
-            double deg = Double.parseDouble(degStr);
-            double min = minStr.isEmpty() ? 0.0 : Double.parseDouble(minStr);
-            double dec = deg + (min / 60.0);
-            if ("S".equalsIgnoreCase(direction) || "W".equalsIgnoreCase(direction)) dec = -dec;
-            return String.format("%.6f", dec);
-        } catch (Exception e) {
-            return value;
-        }
+        long e6 = convertToFixed(value, direction, 6);
+        return (e6 == NMEACoordinates.INVALID) ? value : NMEACoordinates.format(e6, 6);
+    }
+
+    // Coordinates are converted once per parser and cached; the parser never changes after construction
+    private long latitudeE7() {
+        if (!coordinatesResolved) resolveCoordinates();
+        return latitudeE7;
+    }
+
+    private long longitudeE7() {
+        if (!coordinatesResolved) resolveCoordinates();
+        return longitudeE7;
+    }
+
+    private void resolveCoordinates() {
+        latitudeE7 = convertToFixed(data.get("latitude"), data.get("lat_dir"), 7);
+        longitudeE7 = convertToFixed(data.get("longitude"), data.get("lon_dir"), 7);
+        formattedLatitude = convertToDecimal(data.get("latitude"), data.get("lat_dir"));
+        formattedLongitude = convertToDecimal(data.get("longitude"), data.get("lon_dir"));
+        coordinatesResolved = true;
     }
 
     // ======= ACCESSORS =======
     public String getType() { return data.getOrDefault("type", ""); }
+    public NMEAType getSentenceType() { String t = getType(); return NMEAType.of(t, 0, t.length()); }
+    public String get(String key) { return data.get(key); }
     public int getConnectedSatellites() { return satellites.size(); }
     public List<Map<String, String>> getSatelliteDetails() { return Collections.unmodifiableList(satellites); }
-    public String getFormattedLatitude() { return convertToDecimal(data.get("latitude"), data.get("lat_dir")); }
-    public String getFormattedLongitude() { return convertToDecimal(data.get("longitude"), data.get("lon_dir")); }
+    public String getFormattedLatitude() { latitudeE7(); return formattedLatitude; }
+    public String getFormattedLongitude() { longitudeE7(); return formattedLongitude; }
+    // Signed decimal degrees, NaN when absent or malformed
+    public double getLatitude() { long v = latitudeE7(); return (v == NMEACoordinates.INVALID) ? Double.NaN : v / 1e7; }
+    public double getLongitude() { long v = longitudeE7(); return (v == NMEACoordinates.INVALID) ? Double.NaN : v / 1e7; }
+    // Signed degrees in units of 1e-7, NMEACoordinates.INVALID when absent or malformed
+    public long getLatitudeE7() { return latitudeE7(); }
+    public long getLongitudeE7() { return longitudeE7(); }
+
+    // ======= EXPORT TO TYPED RECORD =======
+    // Returns null for blank input and for sentence types without a typed record. Decoded on first use
+    // and cached like the coordinates, so repeated calls return the same record without re-scanning.
+    public NMEASentence toSentence() {
+        if (!sentenceResolved) {
+            NMEASentenceDecoder decoder = new NMEASentenceDecoder(false);
+            typed = decoder.reset(sentence) ? NMEASentence.from(decoder) : null;
+            sentenceResolved = true;
+        }
+        return typed;
+    }
 
     // ======= EXPORT TO DTO =======
     public NMEAData toData() {
@@ -301,8 +449,8 @@ public class NMEAParser {
         StringBuilder sb = new StringBuilder();
         sb.append("Sentence Type: ").append(getType()).append("\n");
 
-        switch (getType()) {
-            case "GPGGA":
+        switch (getSentenceType()) {
+            case GGA:
                 sb.append("Time: ").append(data.getOrDefault("time", "")).append("\n");
                 sb.append("Latitude: ").append(data.getOrDefault("latitude", "")).append(" (").append(data.getOrDefault("lat_dir", "")).append(")\n");
                 sb.append("Longitude: ").append(data.getOrDefault("longitude", "")).append(" (").append(data.getOrDefault("lon_dir", "")).append(")\n");
@@ -312,7 +460,7 @@ public class NMEAParser {
                 sb.append("Altitude: ").append(data.getOrDefault("altitude", "")).append(" ").append(data.getOrDefault("altitude_units", "")).append("\n");
                 break;
 
-            case "GPRMC":
+            case RMC:
                 sb.append("Time: ").append(data.getOrDefault("time", "")).append("\n");
                 sb.append("Date: ").append(data.getOrDefault("date", "")).append("\n");
                 sb.append("Latitude: ").append(data.getOrDefault("latitude", "")).append(" (").append(data.getOrDefault("lat_dir", "")).append(")\n");
@@ -322,13 +470,13 @@ public class NMEAParser {
                 sb.append("Status: ").append(data.getOrDefault("status", "")).append("\n");
                 break;
 
-            case "GPVTG":
+            case VTG:
                 sb.append("Track (True): ").append(data.getOrDefault("track_true", "")).append("\n");
                 sb.append("Track (Magnetic): ").append(data.getOrDefault("track_magnetic", "")).append("\n");
                 sb.append("Speed: ").append(data.getOrDefault("speed_knots", "")).append(" knots / ").append(data.getOrDefault("speed_kmh", "")).append(" km/h\n");
                 break;
 
-            case "GPGSA":
+            case GSA:
                 sb.append("Mode: ").append(data.getOrDefault("mode", "")).append("\n");
                 sb.append("Fix Type: ").append(data.getOrDefault("fix_type", "")).append("\n");
                 sb.append("Connected Satellites: ").append(data.getOrDefault("satellites_used", "")).append("\n");
@@ -337,7 +485,7 @@ public class NMEAParser {
                 sb.append("VDOP: ").append(data.getOrDefault("vdop", "")).append("\n");
                 break;
 
-            case "GPGSV":
+            case GSV:
                 sb.append("Total Messages: ").append(data.getOrDefault("total_messages", "")).append("\n");
                 sb.append("Message Number: ").append(data.getOrDefault("message_number", "")).append("\n");
                 sb.append("Satellites in View: ").append(data.getOrDefault("satellites_in_view", "")).append("\n");
@@ -353,21 +501,21 @@ public class NMEAParser {
                 }
                 break;
 
-            case "GPGLL":
+            case GLL:
                 sb.append("Latitude: ").append(data.getOrDefault("latitude", "")).append(" (").append(data.getOrDefault("lat_dir", "")).append(")\n");
                 sb.append("Longitude: ").append(data.getOrDefault("longitude", "")).append(" (").append(data.getOrDefault("lon_dir", "")).append(")\n");
                 sb.append("Time: ").append(data.getOrDefault("time", "")).append("\n");
                 sb.append("Status: ").append(data.getOrDefault("status", "")).append("\n");
                 break;
 
-            case "GPZDA":
+            case ZDA:
                 sb.append("Time: ").append(data.getOrDefault("time", "")).append("\n");
                 sb.append("Date: ").append(data.getOrDefault("day", "")).append("/")
                 .append(data.getOrDefault("month", "")).append("/")
                 .append(data.getOrDefault("year", "")).append("\n");
                 break;
 
-            case "GPGST":
+            case GST:
                 sb.append("Time: ").append(data.getOrDefault("time", "")).append("\n");
                 sb.append("RMS: ").append(data.getOrDefault("rms", "")).append("\n");
                 sb.append("Sigma Major: ").append(data.getOrDefault("sigma_major", "")).append("\n");
@@ -379,7 +527,14 @@ public class NMEAParser {
                 break;
 
             default:
-                sb.append("Unsupported sentence type.\n");
+                if (data.containsKey("message")) {
+                    sb.append("Unsupported sentence type.\n");
+                    break;
+                }
+                // Filled by a registered FieldHandler
+                for (Map.Entry<String, String> e : new TreeMap<>(data).entrySet()) {
+                    if (!"type".equals(e.getKey())) sb.append(e.getKey()).append(": ").append(e.getValue()).append("\n");
+                }
                 break;
         }
 
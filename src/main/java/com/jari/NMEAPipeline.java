@@ -0,0 +1,304 @@
+package com.jari;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// ===== Multi-receiver ingestion: sentences tagged with a source id, sharded over worker threads =====
+// Every source maps to exactly one worker, so its sentences are handled in arrival order without locks;
+// each worker owns its decoder and its bounded queue. Blocking sources attached with attach() run on
+// virtual threads when the runtime supports them.
+//
+//   NMEAPipeline pipeline = NMEAPipeline.create((source, d) -> ...).workers(8).start();
+public final class NMEAPipeline implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(NMEAPipeline.class.getName());
+
+    // What submit() does when the source's worker queue is full
+    public enum OverflowPolicy { BLOCK, DROP_NEWEST, DROP_OLDEST }
+
+    @FunctionalInterface
+    public interface Handler {
+        // Called on the source's worker thread; the decoder is only valid during the call
+        void handle(int source, NMEASentenceDecoder sentence);
+    }
+
+    private static final class Entry {
+        final int source;
+        final byte[] bytes;
+
+        Entry(int source, byte[] bytes) {
+            this.source = source;
+            this.bytes = bytes;
+        }
+    }
+
+    private static final Entry STOP = new Entry(-1, new byte[0]);
+
+    private final Handler handler;
+    private int workerCount = Runtime.getRuntime().availableProcessors();
+    private int queueCapacity = 4096;
+    private OverflowPolicy policy = OverflowPolicy.BLOCK;
+    private boolean validateChecksum = true;
+    private ThreadFactory sourceThreads = Threads.forBlockingIo("nmea-source-");
+    private NMEAMetrics metrics = NMEAMetrics.NOOP;
+    private ErrorReporter errors = ErrorReporter.SKIP;
+
+    private final List<ArrayBlockingQueue<Entry>> queues = new ArrayList<>();
+    private Thread[] workers;
+    private final List<Thread> sources = new ArrayList<>();
+    private volatile boolean running;
+    // Submitters hold the read side while they check running and enqueue; close() takes the write side,
+    // so no entry can land behind a worker's STOP
+    private final ReentrantReadWriteLock gate = new ReentrantReadWriteLock();
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder handled = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    private NMEAPipeline(Handler handler) {
+        this.handler = handler;
+    }
+
+    public static NMEAPipeline create(Handler handler) {
+        return new NMEAPipeline(handler);
+    }
+
+    // ======= OPTIONS (before start) =======
+    public NMEAPipeline workers(int workers) {
+        if (workers < 1) throw new IllegalArgumentException("workers must be positive: " + workers);
+        this.workerCount = workers;
+        return this;
+    }
+
+    public NMEAPipeline queueCapacity(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        this.queueCapacity = capacity;
+        return this;
+    }
+
+    public NMEAPipeline overflowPolicy(OverflowPolicy policy) {
+        this.policy = policy;
+        return this;
+    }
+
+    public NMEAPipeline validateChecksum(boolean validateChecksum) {
+        this.validateChecksum = validateChecksum;
+        return this;
+    }
+
+    public NMEAPipeline sourceThreads(ThreadFactory factory) {
+        this.sourceThreads = factory;
+        return this;
+    }
+
+    public NMEAPipeline metrics(NMEAMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
+    // SKIP (the default), COUNT per NMEAStatus, or DEAD_LETTER; the sink is called from the workers, and
+    // from the source threads for lines that attached streams cannot frame
+    public NMEAPipeline onError(NMEAErrorPolicy policy, NMEADeadLetterSink sink) {
+        this.errors = new ErrorReporter(policy, sink);
+        return this;
+    }
+
+    // ======= LIFECYCLE =======
+    public synchronized NMEAPipeline start() {
+        if (workers != null) throw new IllegalStateException("Pipeline already started");
+        workers = new Thread[workerCount];
+        ThreadFactory factory = Threads.platform("nmea-worker-");
+        for (int i = 0; i < workerCount; i++) {
+            final ArrayBlockingQueue<Entry> queue = new ArrayBlockingQueue<>(queueCapacity);
+            queues.add(queue);
+            workers[i] = factory.newThread(() -> work(queue));
+        }
+        running = true;
+        for (Thread t : workers) t.start();
+        return this;
+    }
+
+    // Stops accepting input and lets the workers drain their queues; returns at once
+    public void shutdown() {
+        List<Thread> attached;
+        gate.writeLock().lock();
+        try {
+            synchronized (this) {
+                if (!running) return;
+                running = false;
+                attached = new ArrayList<>(sources);
+            }
+        } finally {
+            gate.writeLock().unlock();
+        }
+        for (Thread t : attached) t.interrupt();
+        // Nothing is submitted any more, so STOP is the last entry of every queue and is never dropped
+        boolean interrupted = false;
+        for (ArrayBlockingQueue<Entry> q : queues) {
+            while (true) {
+                try {
+                    q.put(STOP);
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    // Waits for the workers to finish after shutdown(); false when the timeout passed first
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (Thread t : workers) {
+            long left = deadline - System.nanoTime();
+            if (left <= 0) return false;
+            TimeUnit.NANOSECONDS.timedJoin(t, left);
+            if (t.isAlive()) return false;
+        }
+        return true;
+    }
+
+    // shutdown() and wait for the workers; an interrupt ends the wait and stays set on the thread
+    @Override
+    public void close() {
+        shutdown();
+        if (workers == null) return;
+        try {
+            for (Thread t : workers) t.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ======= INPUT =======
+    // Returns false when the sentence was dropped by the overflow policy or the pipeline is closed
+    public boolean submit(int source, CharSequence sentence) throws InterruptedException {
+        byte[] bytes = new byte[sentence.length()];
+        for (int i = 0; i < bytes.length; i++) bytes[i] = (byte) sentence.charAt(i);
+        return enqueue(new Entry(source, bytes));
+    }
+
+    public boolean submit(int source, byte[] sentence, int offset, int length) throws InterruptedException {
+        byte[] bytes = new byte[length];
+        System.arraycopy(sentence, offset, bytes, 0, length);
+        return enqueue(new Entry(source, bytes));
+    }
+
+    private boolean enqueue(Entry e) throws InterruptedException {
+        gate.readLock().lockInterruptibly();
+        try {
+            if (!running) return false;
+            submitted.increment();
+            ArrayBlockingQueue<Entry> q = queues.get(shard(e.source));
+            switch (policy) {
+                case BLOCK:
+                    q.put(e);
+                    return true;
+                case DROP_OLDEST:
+                    while (!q.offer(e)) {
+                        if (q.poll() != null) dropped.increment();
+                    }
+                    return true;
+                default:
+                    if (q.offer(e)) return true;
+                    dropped.increment();
+                    return false;
+            }
+        } finally {
+            gate.readLock().unlock();
+        }
+    }
+
+    private int shard(int source) {
+        int h = source * 0x9E3779B9;
+        return Math.floorMod(h ^ (h >>> 16), queues.size());
+    }
+
+    // Reads the stream on a source thread (virtual when available) and submits every framed sentence.
+    // Sentences are decoded once, on the worker, with the pipeline's checksum setting; lines cut off or
+    // too long to frame count as rejected here, under the pipeline's error policy and metrics.
+    public Thread attach(int source, InputStream in) {
+        Thread t = sourceThreads.newThread(() -> {
+            long framingRejects = 0;
+            try (NMEAStreamReader reader = new NMEAStreamReader(in).metrics(metrics).reportTo(source, errors)) {
+                try {
+                    while (running && reader.nextFrame()) {
+                        submit(source, reader.frameBytes(), reader.frameStart(), reader.frameEnd() - reader.frameStart());
+                        rejected.add(reader.rejectedCount() - framingRejects);
+                        framingRejects = reader.rejectedCount();
+                    }
+                } finally {
+                    rejected.add(reader.rejectedCount() - framingRejects);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                if (running) LOG.log(Level.WARNING, "Source " + source + " failed", e);
+            } finally {
+                synchronized (NMEAPipeline.this) {
+                    sources.remove(Thread.currentThread());
+                }
+            }
+        });
+        synchronized (this) {
+            if (!running) throw new IllegalStateException("Pipeline not running");
+            sources.add(t);
+        }
+        t.start();
+        return t;
+    }
+
+    // ======= WORKERS =======
+    private void work(ArrayBlockingQueue<Entry> queue) {
+        NMEASentenceDecoder decoder = new NMEASentenceDecoder(validateChecksum);
+        NMEAError error = new NMEAError();
+        while (true) {
+            Entry e;
+            try {
+                e = queue.take();
+            } catch (InterruptedException ie) {
+                return;
+            }
+            if (e == STOP) return;
+            long timer = metrics.timer();
+            if (!decoder.reset(e.bytes, 0, e.bytes.length)) {
+                rejected.increment();
+                metrics.rejected(decoder);
+                if (errors.wantsDetails()) errors.report(error.set(decoder.status(), e.source, -1).from(decoder));
+                else errors.count(decoder.status());
+                continue;
+            }
+            metrics.parsed(decoder.talker(), decoder.type(), timer);
+            try {
+                handler.handle(e.source, decoder);
+                handled.increment();
+            } catch (RuntimeException ex) {
+                LOG.log(Level.WARNING, "Handler failed for source " + e.source, ex);
+            }
+        }
+    }
+
+    // ======= STATS =======
+    public long submittedCount() { return submitted.sum(); }
+    public long droppedCount() { return dropped.sum(); }
+    public long handledCount() { return handled.sum(); }
+    public long rejectedCount() { return rejected.sum(); }
+    // Rejections with the given status; always 0 under NMEAErrorPolicy.SKIP
+    public long errorCount(NMEAStatus status) { return errors.errors(status); }
+    public int queuedCount() {
+        int n = 0;
+        for (ArrayBlockingQueue<Entry> q : queues) n += q.size();
+        return n;
+    }
+}
@@ -0,0 +1,145 @@
+package com.jari;
+
+import static com.jari.NMEAFields.*;
+
+// ===== Mutable flyweight over every typed sentence field =====
+// decode() overwrites the record in place, so one instance per thread serves a whole stream without allocating.
+// Fields that the current sentence type does not carry are reset to NaN / -1 / '\0'.
+public final class NMEARecord {
+
+    public static final int MAX_SATELLITES = NMEASentenceDecoder.MAX_FIELDS / GSV_SATELLITE_BLOCK;
+
+    public NMEAType type = NMEAType.UNKNOWN;
+    public int talker;
+    public int time;
+    public int date;
+    public char status;
+    public double latitude;
+    public double longitude;
+    public double altitude;
+    public char altitudeUnits;
+    public int fixQuality;
+    public int satellites;
+    public double speedKnots;
+    public double speedKmh;
+    public double trackAngle; // RMC track angle, VTG true track
+    public double trackMagnetic;
+    public char mode;
+    public int fixType;
+    public double pdop;
+    public double hdop;
+    public double vdop;
+    public double rms;
+    public double sigmaMajor;
+    public double sigmaMinor;
+    public double orientation;
+    public double sigmaLat;
+    public double sigmaLon;
+    public double sigmaAlt;
+
+    // GSA: satellite ids used; GSV: satellites of this message
+    public int totalMessages;
+    public int messageNumber;
+    public int satellitesInView;
+    public int satelliteCount;
+    public final int[] satelliteId = new int[MAX_SATELLITES];
+    public final int[] elevation = new int[MAX_SATELLITES];
+    public final int[] azimuth = new int[MAX_SATELLITES];
+    public final int[] snr = new int[MAX_SATELLITES];
+
+    public NMEARecord() {
+        clear();
+    }
+
+    public void clear() {
+        type = NMEAType.UNKNOWN;
+        talker = 0;
+        time = date = -1;
+        status = altitudeUnits = mode = '\0';
+        latitude = longitude = altitude = Double.NaN;
+        fixQuality = satellites = fixType = -1;
+        speedKnots = speedKmh = trackAngle = trackMagnetic = Double.NaN;
+        pdop = hdop = vdop = Double.NaN;
+        rms = sigmaMajor = sigmaMinor = orientation = sigmaLat = sigmaLon = sigmaAlt = Double.NaN;
+        totalMessages = messageNumber = satellitesInView = -1;
+        satelliteCount = 0;
+    }
+
+    // Returns false (and leaves the record cleared) for sentence types without a typed layout
+    public boolean decode(NMEASentenceDecoder d) {
+        clear();
+        type = d.type();
+        talker = d.talker();
+        switch (type) {
+            case GGA:
+                time = d.fieldAsTimeMillis(GGA_TIME);
+                latitude = d.fieldAsDegrees(GGA_LATITUDE, GGA_LAT_DIR);
+                longitude = d.fieldAsDegrees(GGA_LONGITUDE, GGA_LON_DIR);
+                fixQuality = d.fieldAsInt(GGA_FIX_QUALITY);
+                satellites = d.fieldAsInt(GGA_SATELLITES);
+                hdop = d.fieldAsDouble(GGA_HDOP);
+                altitude = d.fieldAsDouble(GGA_ALTITUDE);
+                altitudeUnits = d.fieldAsChar(GGA_ALTITUDE_UNITS);
+                return true;
+            case RMC:
+                time = d.fieldAsTimeMillis(RMC_TIME);
+                status = d.fieldAsChar(RMC_STATUS);
+                latitude = d.fieldAsDegrees(RMC_LATITUDE, RMC_LAT_DIR);
+                longitude = d.fieldAsDegrees(RMC_LONGITUDE, RMC_LON_DIR);
+                speedKnots = d.fieldAsDouble(RMC_SPEED_KNOTS);
+                trackAngle = d.fieldAsDouble(RMC_TRACK_ANGLE);
+                date = d.fieldAsDate(RMC_DATE);
+                return true;
+            case VTG:
+                trackAngle = d.fieldAsDouble(VTG_TRACK_TRUE);
+                trackMagnetic = d.fieldAsDouble(VTG_TRACK_MAGNETIC);
+                speedKnots = d.fieldAsDouble(VTG_SPEED_KNOTS);
+                speedKmh = d.fieldAsDouble(VTG_SPEED_KMH);
+                return true;
+            case GSA:
+                mode = d.fieldAsChar(GSA_MODE);
+                fixType = d.fieldAsInt(GSA_FIX_TYPE);
+                for (int i = GSA_FIRST_SATELLITE; i <= GSA_LAST_SATELLITE; i++) {
+                    if (!d.isFieldEmpty(i)) satelliteId[satelliteCount++] = d.fieldAsInt(i);
+                }
+                pdop = d.fieldAsDouble(GSA_PDOP);
+                hdop = d.fieldAsDouble(GSA_HDOP);
+                vdop = d.fieldAsDouble(GSA_VDOP);
+                return true;
+            case GSV:
+                totalMessages = d.fieldAsInt(GSV_TOTAL_MESSAGES, 1);
+                messageNumber = d.fieldAsInt(GSV_MESSAGE_NUMBER, 1);
+                satellitesInView = d.fieldAsInt(GSV_SATELLITES_IN_VIEW, 0);
+                for (int i = GSV_FIRST_SATELLITE; i + 3 < d.fieldCount() && satelliteCount < MAX_SATELLITES; i += GSV_SATELLITE_BLOCK) {
+                    satelliteId[satelliteCount] = d.fieldAsInt(i);
+                    elevation[satelliteCount] = d.fieldAsInt(i + 1);
+                    azimuth[satelliteCount] = d.fieldAsInt(i + 2);
+                    snr[satelliteCount++] = d.fieldAsInt(i + 3);
+                }
+                return true;
+            case GLL:
+                latitude = d.fieldAsDegrees(GLL_LATITUDE, GLL_LAT_DIR);
+                longitude = d.fieldAsDegrees(GLL_LONGITUDE, GLL_LON_DIR);
+                time = d.fieldAsTimeMillis(GLL_TIME);
+                status = d.fieldAsChar(GLL_STATUS);
+                return true;
+            case ZDA:
+                time = d.fieldAsTimeMillis(ZDA_TIME);
+                date = NMEANumbers.date(d.fieldAsInt(ZDA_YEAR), d.fieldAsInt(ZDA_MONTH), d.fieldAsInt(ZDA_DAY));
+                return true;
+            case GST:
+                time = d.fieldAsTimeMillis(GST_TIME);
+                rms = d.fieldAsDouble(GST_RMS);
+                sigmaMajor = d.fieldAsDouble(GST_SIGMA_MAJOR);
+                sigmaMinor = d.fieldAsDouble(GST_SIGMA_MINOR);
+                orientation = d.fieldAsDouble(GST_ORIENTATION);
+                sigmaLat = d.fieldAsDouble(GST_SIGMA_LAT);
+                sigmaLon = d.fieldAsDouble(GST_SIGMA_LON);
+                sigmaAlt = d.fieldAsDouble(GST_SIGMA_ALT);
+                return true;
+            default:
+                type = NMEAType.UNKNOWN;
+                return false;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.jari;
+
+// ===== Base of the typed, immutable sentence records =====
+// Missing values are NaN for doubles, -1 for ints and '\0' for chars.
+// Times are milliseconds since midnight UTC, dates are yyyymmdd, coordinates are signed decimal degrees.
+public abstract class NMEASentence {
+
+    public final NMEAType type;
+    public final int talker;
+
+    NMEASentence(NMEAType type, NMEASentenceDecoder d) {
+        this.type = type;
+        this.talker = d.talker();
+    }
+
+    public String talkerId() {
+        return (talker == 0) ? "" : new String(new char[] { (char) (talker >> 8), (char) (talker & 0xFF) });
+    }
+
+    // Returns null for sentence types without a typed record
+    public static NMEASentence from(NMEASentenceDecoder d) {
+        switch (d.type()) {
+            case GGA: return new GGASentence(d);
+            case RMC: return new RMCSentence(d);
+            case VTG: return new VTGSentence(d);
+            case GSA: return new GSASentence(d);
+            case GSV: return new GSVSentence(d);
+            case GLL: return new GLLSentence(d);
+            case ZDA: return new ZDASentence(d);
+            case GST: return new GSTSentence(d);
+            default: return null;
+        }
+    }
+}
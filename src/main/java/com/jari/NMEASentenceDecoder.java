@@ -0,0 +1,228 @@
+package com.jari;
+
+import java.nio.ByteBuffer;
+
+// ===== Reusable, allocation-free sentence decoder =====
+// One pass records the field boundaries and the XOR checksum; fields are converted on access.
+// Field indexes follow NMEAFields (index 0 is the address, e.g. "GPGGA").
+// Not thread-safe: keep one decoder per thread and reset() it for every sentence.
+public final class NMEASentenceDecoder {
+
+    // An NMEA 0183 sentence is at most 82 characters, so it can never hold more fields than this
+    public static final int MAX_FIELDS = 82;
+
+    private final boolean validateChecksum;
+    private final boolean requireChecksum;
+    private final int[] fieldStart = new int[MAX_FIELDS];
+    private final int[] fieldEnd = new int[MAX_FIELDS];
+    private final AsciiSequence bytes = new AsciiSequence();
+
+    private CharSequence source = "";
+    private int start;
+    private int end;
+    private int hash;
+    private int fieldCount;
+    private boolean hasChecksum;
+    private int computedChecksum;
+    private int declaredChecksum = -1;
+    private NMEAStatus status = NMEAStatus.EMPTY;
+
+    public NMEASentenceDecoder() {
+        this(true);
+    }
+
+    public NMEASentenceDecoder(boolean validateChecksum) {
+        this(validateChecksum, false);
+    }
+
+    // requireChecksum: a sentence without "*hh" counts as a checksum failure instead of passing
+    public NMEASentenceDecoder(boolean validateChecksum, boolean requireChecksum) {
+        this.validateChecksum = validateChecksum;
+        this.requireChecksum = requireChecksum;
+    }
+
+    // ======= RESET =======
+    // Each reset returns false when the sentence is rejected; status() tells why
+    public boolean reset(CharSequence sentence) {
+        return (sentence == null) ? fail(NMEAStatus.EMPTY) : scan(sentence, 0, sentence.length());
+    }
+
+    public boolean reset(CharSequence sentence, int start, int end) {
+        return (sentence == null) ? fail(NMEAStatus.EMPTY) : scan(sentence, start, end);
+    }
+
+    public boolean reset(byte[] sentence, int offset, int length) {
+        return (sentence == null) ? fail(NMEAStatus.EMPTY) : scan(bytes.reset(sentence, offset, length), 0, length);
+    }
+
+    // Absolute offset into the buffer, e.g. a mapped file, read in place; position and limit are left alone.
+    // Fields are read from the buffer on access, so it must not change until the next reset.
+    public boolean reset(ByteBuffer sentence, int offset, int length) {
+        return (sentence == null) ? fail(NMEAStatus.EMPTY) : scan(bytes.reset(sentence, offset, length), 0, length);
+    }
+
+    private boolean fail(NMEAStatus reason) {
+        status = reason;
+        return false;
+    }
+
+    private boolean scan(CharSequence s, int start, int end) {
+        source = s;
+        fieldCount = 0;
+        hasChecksum = false;
+        declaredChecksum = -1;
+        computedChecksum = 0;
+
+        while (end > start && s.charAt(end - 1) <= ' ') end--;
+        this.start = start;
+        this.end = end;
+        hash = 0;
+        if (end == start) return fail(NMEAStatus.EMPTY);
+        if (end - start < 2) return fail(NMEAStatus.TOO_SHORT);
+        char lead = s.charAt(start);
+        if (lead != '$' && lead != '!') return fail(NMEAStatus.MISSING_START);
+
+        int cs = 0;
+        int h = lead;
+        int from = start + 1;
+        int i = from;
+        for (; i < end; i++) {
+            char c = s.charAt(i);
+            if (c == '*') break;
+            if (c == ',') {
+                if (fieldCount == MAX_FIELDS) return fail(NMEAStatus.TOO_MANY_FIELDS);
+                fieldStart[fieldCount] = from;
+                fieldEnd[fieldCount++] = i;
+                from = i + 1;
+            }
+            cs ^= c;
+            h = 31 * h + c;
+        }
+        if (fieldCount == MAX_FIELDS) return fail(NMEAStatus.TOO_MANY_FIELDS);
+        fieldStart[fieldCount] = from;
+        fieldEnd[fieldCount++] = i;
+        computedChecksum = cs & 0xFF;
+        for (int k = i; k < end; k++) h = 31 * h + s.charAt(k);
+        hash = h;
+
+        if (i < end) {
+            hasChecksum = true;
+            if (i + 2 < end) declaredChecksum = NMEAChecksum.hexByte(s.charAt(i + 1), s.charAt(i + 2));
+        }
+        if (validateChecksum && !isChecksumValid())
+            return fail(hasChecksum ? NMEAStatus.CHECKSUM_MISMATCH : NMEAStatus.CHECKSUM_MISSING);
+        status = NMEAStatus.OK;
+        return true;
+    }
+
+    // ======= SENTENCE =======
+    public int fieldCount() { return fieldCount; }
+    public CharSequence source() { return source; }
+    // Bounds of the sentence within source(), trailing whitespace excluded
+    public int sentenceStart() { return start; }
+    public int sentenceEnd() { return end; }
+    // String.hashCode-style hash of the sentence text, computed during the scan (0 when rejected early)
+    public int hash() { return hash; }
+    public boolean hasChecksum() { return hasChecksum; }
+    public int computedChecksum() { return computedChecksum; }
+    // The "*hh" value, or -1 when absent or not hex
+    public int declaredChecksum() { return declaredChecksum; }
+
+    // Same contract as NMEAParser.isValidChecksum: a sentence without a checksum is accepted unless required
+    public boolean isChecksumValid() {
+        return hasChecksum ? declaredChecksum == computedChecksum : !requireChecksum;
+    }
+
+    public NMEAStatus status() { return status; }
+
+    // True when the last reset() was well-formed but rejected for its checksum
+    public boolean checksumFailed() { return status.isChecksumError(); }
+
+    public NMEAType type() {
+        return (fieldCount == 0) ? NMEAType.UNKNOWN : NMEAType.of(source, fieldStart[0], fieldEnd[0]);
+    }
+
+    // Two talker characters packed as (first << 8) | second, e.g. 'G','P' for GPGGA; 0 when absent
+    public int talker() {
+        if (fieldCount == 0 || fieldEnd[0] - fieldStart[0] < 2) return 0;
+        return (source.charAt(fieldStart[0]) << 8) | source.charAt(fieldStart[0] + 1);
+    }
+
+    // True when the address ends with the given formatter, e.g. "GGA" matches GPGGA and GNGGA
+    public boolean isFormatter(CharSequence formatter) {
+        if (fieldCount == 0) return false;
+        int len = formatter.length();
+        int end = fieldEnd[0];
+        if (end - fieldStart[0] < len) return false;
+        for (int k = 0; k < len; k++) if (source.charAt(end - len + k) != formatter.charAt(k)) return false;
+        return true;
+    }
+
+    // ======= FIELDS =======
+    public int fieldStart(int i) { return (i < fieldCount) ? fieldStart[i] : 0; }
+    public int fieldEnd(int i) { return (i < fieldCount) ? fieldEnd[i] : 0; }
+    public int fieldLength(int i) { return (i < fieldCount) ? fieldEnd[i] - fieldStart[i] : 0; }
+    public boolean isFieldEmpty(int i) { return fieldLength(i) == 0; }
+
+    public char fieldAsChar(int i) {
+        return isFieldEmpty(i) ? '\0' : source.charAt(fieldStart[i]);
+    }
+
+    public int fieldAsInt(int i) {
+        return fieldAsInt(i, -1);
+    }
+
+    public int fieldAsInt(int i, int def) {
+        return (i < fieldCount) ? NMEANumbers.parseInt(source, fieldStart[i], fieldEnd[i], def) : def;
+    }
+
+    public double fieldAsDouble(int i) {
+        return fieldAsDouble(i, Double.NaN);
+    }
+
+    public double fieldAsDouble(int i, double def) {
+        return (i < fieldCount) ? NMEANumbers.parseDouble(source, fieldStart[i], fieldEnd[i], def) : def;
+    }
+
+    // hhmmss[.sss] as milliseconds since midnight, or -1 when empty or malformed
+    public int fieldAsTimeMillis(int i) {
+        return (i < fieldCount) ? NMEANumbers.parseTimeMillis(source, fieldStart[i], fieldEnd[i]) : -1;
+    }
+
+    // ddmm.mmmm / dddmm.mmmm plus an N/S/E/W hemisphere field as signed decimal degrees, or NaN
+    public double fieldAsDegrees(int value, int direction) {
+        if (value >= fieldCount) return Double.NaN;
+        return NMEACoordinates.toDegrees(source, fieldStart[value], fieldEnd[value], fieldAsChar(direction));
+    }
+
+    // Same, as fixed-point 1e-7 degrees rounded half-up, or NMEACoordinates.INVALID
+    public long fieldAsDegreesE7(int value, int direction) {
+        if (value >= fieldCount) return NMEACoordinates.INVALID;
+        return NMEACoordinates.toE7(source, fieldStart[value], fieldEnd[value], fieldAsChar(direction));
+    }
+
+    // ddmmyy as yyyymmdd (e.g. 230394 -> 19940323), or -1; the two-digit year pivots at 80
+    public int fieldAsDate(int i) {
+        if (fieldLength(i) != 6) return -1;
+        int from = fieldStart[i];
+        int day = NMEANumbers.twoDigits(source, from);
+        int month = NMEANumbers.twoDigits(source, from + 2);
+        int year = NMEANumbers.twoDigits(source, from + 4);
+        if (day < 0 || month < 0 || year < 0) return -1;
+        year = (year < 80) ? 2000 + year : 1900 + year;
+        return (year * 100 + month) * 100 + day;
+    }
+
+    public boolean fieldEquals(int i, CharSequence value) {
+        int len = fieldLength(i);
+        if (len != value.length()) return false;
+        int from = fieldStart(i);
+        for (int k = 0; k < len; k++) if (source.charAt(from + k) != value.charAt(k)) return false;
+        return true;
+    }
+
+    // Allocates; meant for logging and the occasional non-hot-path caller
+    public String fieldAsString(int i) {
+        return (i < fieldCount) ? source.subSequence(fieldStart[i], fieldEnd[i]).toString() : "";
+    }
+}
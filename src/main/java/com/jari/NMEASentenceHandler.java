@@ -0,0 +1,7 @@
+package com.jari;
+
+// ===== Callback for decoded sentences, typically looked up in an NMEAHandlerRegistry =====
+@FunctionalInterface
+public interface NMEASentenceHandler {
+    void handle(NMEASentenceDecoder sentence);
+}
@@ -0,0 +1,720 @@
+package com.jari;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.Pipe;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+// ===== Load generator: synthetic receiver feeds or recorded logs, paced like the real thing =====
+// synthetic() emits one epoch per receiver every 1/rate seconds: GGA, GSA, a GSV group sized by the
+// satellite count, RMC, VTG, GLL, ZDA and GST, all with correct checksums. Each receiver sails east at
+// 12 knots from its own start point; all receivers share one stream, as behind a multiplexer.
+// corruption(p) flips one character of a fraction p of the sentences, which breaks their checksum.
+// replay(path) sends the sentences of a log file (per-line prefixes dropped), paced by their UTC times.
+// speed(1) is real time, speed(10) ten times faster, speed(0) as fast as the consumer reads.
+//
+//   NMEASimulator.synthetic().receivers(50).rate(10).seconds(60).sendTcp("localhost", 10110);
+//   NMEASimulator.Report r = NMEASimulator.replay(log).speed(0).measure(d -> record.decode(d));
+//
+// From the command line: java com.jari.NMEASimulator [replay FILE] [--tcp HOST:PORT | --udp HOST:PORT |
+// --measure] [--receivers N] [--rate HZ] [--seconds S] [--satellites N] [--corruption P] [--speed X]
+// [--seed N]; without an output option the stream goes to stdout.
+public final class NMEASimulator {
+
+    // Largest UDP payload that avoids fragmentation on a 1500-byte MTU
+    static final int DATAGRAM_SIZE = 1472;
+    // Lines whose send time is kept for latency matching; the sender never gets further ahead of the reader
+    static final int LATENCY_WINDOW = 1 << 16;
+
+    private static final long DAY = 86_400_000L;
+    private static final double KNOTS = 12.0;
+
+    private final Path log;
+    private int receivers = 1;
+    private double rate = 10;
+    private double seconds = 60;
+    private int satellites = 12;
+    private double corruption;
+    private double speed = 1;
+    private long seed = 1;
+    private long startMillis = 1_717_243_200_000L; // 2024-06-01 12:00:00 UTC
+
+    private NMEASimulator(Path log) {
+        this.log = log;
+    }
+
+    public static NMEASimulator synthetic() {
+        return new NMEASimulator(null);
+    }
+
+    public static NMEASimulator replay(Path log) {
+        return new NMEASimulator(log);
+    }
+
+    // ======= OPTIONS =======
+    public NMEASimulator receivers(int receivers) {
+        if (receivers < 1) throw new IllegalArgumentException("Receivers must be positive: " + receivers);
+        this.receivers = receivers;
+        return this;
+    }
+
+    // Epochs per second per receiver
+    public NMEASimulator rate(double hz) {
+        if (!(hz > 0)) throw new IllegalArgumentException("Rate must be positive: " + hz);
+        this.rate = hz;
+        return this;
+    }
+
+    // Simulated duration of a synthetic feed
+    public NMEASimulator seconds(double seconds) {
+        if (!(seconds > 0)) throw new IllegalArgumentException("Duration must be positive: " + seconds);
+        this.seconds = seconds;
+        return this;
+    }
+
+    // Satellites in view; the GSV group has one message per four
+    public NMEASimulator satellites(int satellites) {
+        if (satellites < 1 || satellites > 36) throw new IllegalArgumentException("Satellites out of range: " + satellites);
+        this.satellites = satellites;
+        return this;
+    }
+
+    public NMEASimulator corruption(double fraction) {
+        if (!(fraction >= 0 && fraction <= 1)) throw new IllegalArgumentException("Corruption out of range: " + fraction);
+        this.corruption = fraction;
+        return this;
+    }
+
+    public NMEASimulator speed(double speed) {
+        if (!(speed >= 0)) throw new IllegalArgumentException("Speed must not be negative: " + speed);
+        this.speed = speed;
+        return this;
+    }
+
+    public NMEASimulator seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    // UTC start of a synthetic feed
+    public NMEASimulator startMillis(long epochMillis) {
+        this.startMillis = epochMillis;
+        return this;
+    }
+
+    // ======= OUTPUT =======
+    // Writes "\r\n"-terminated sentences; the stream is flushed before every pause, not closed
+    public Result sendTo(OutputStream out) throws IOException {
+        OutputStream buffered = new BufferedOutputStream(out, 64 * 1024);
+        return send(new Sink() {
+            public void write(byte[] b, int off, int len) throws IOException { buffered.write(b, off, len); }
+            public void flush() throws IOException { buffered.flush(); }
+        }, null);
+    }
+
+    public Result sendTcp(String host, int port) throws IOException {
+        try (Socket socket = new Socket(host, port)) {
+            socket.setTcpNoDelay(true);
+            return sendTo(socket.getOutputStream());
+        }
+    }
+
+    // Packs whole sentences into datagrams of at most DATAGRAM_SIZE bytes
+    public Result sendUdp(String host, int port) throws IOException {
+        try (DatagramChannel channel = DatagramChannel.open()) {
+            channel.connect(new InetSocketAddress(host, port));
+            ByteBuffer datagram = ByteBuffer.allocate(DATAGRAM_SIZE);
+            return send(new Sink() {
+                public void write(byte[] b, int off, int len) throws IOException {
+                    if (datagram.remaining() < len) flush();
+                    datagram.put(b, off, Math.min(len, DATAGRAM_SIZE));
+                }
+
+                public void flush() throws IOException {
+                    if (datagram.position() == 0) return;
+                    datagram.flip();
+                    channel.write(datagram);
+                    datagram.clear();
+                }
+            }, null);
+        }
+    }
+
+    // ======= MEASUREMENT =======
+    // Streams the feed through an in-process pipe into an NMEAStreamReader on the calling thread and
+    // hands every accepted sentence to the consumer. Latency runs from the sender's write to the end of
+    // the consumer call. At speed(0) the feed is rendered up front, so generation does not limit it.
+    public Report measure(Consumer<? super NMEASentenceDecoder> consumer) throws IOException {
+        Pipe pipe = Pipe.open();
+        LineClock clock = new LineClock();
+        AtomicReference<Result> sent = new AtomicReference<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Rendered rendered = (speed == 0) ? render() : null;
+
+        Thread sender = Threads.platform("nmea-simulator-").newThread(() -> {
+            try (OutputStream out = Channels.newOutputStream(pipe.sink())) {
+                OutputStream buffered = new BufferedOutputStream(out, 64 * 1024);
+                Sink sink = new Sink() {
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        // Stay within the timestamp window; flushing lets the reader catch up
+                        if (clock.isFull()) {
+                            buffered.flush();
+                            while (clock.isFull()) LockSupport.parkNanos(10_000);
+                        }
+                        clock.sent(b, off, len);
+                        buffered.write(b, off, len);
+                    }
+
+                    public void flush() throws IOException { buffered.flush(); }
+                };
+                sent.set(send(sink, rendered));
+            } catch (Throwable t) {
+                failure.set(t);
+            }
+        });
+
+        LatencyHistogram latency = new LatencyHistogram();
+        long started = System.nanoTime();
+        sender.start();
+        ProgressChannel source = new ProgressChannel(pipe.source(), clock);
+        NMEAStreamReader reader = new NMEAStreamReader(source);
+        source.reader = reader;
+        NMEASentenceDecoder d;
+        while ((d = reader.next()) != null || !reader.isEndOfStream()) {
+            if (d == null) continue;
+            consumer.accept(d);
+            long at = clock.sentAt(reader.sentenceCount() + reader.rejectedCount() - 1);
+            if (at != LineClock.UNMATCHED) latency.record(System.nanoTime() - at);
+        }
+        long elapsed = System.nanoTime() - started;
+        try {
+            sender.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while measuring", e);
+        }
+        reader.close();
+        Throwable t = failure.get();
+        if (t instanceof IOException) throw (IOException) t;
+        if (t != null) throw new IOException(t);
+        return new Report(sent.get(), reader.sentenceCount(), reader.rejectedCount(), elapsed, latency);
+    }
+
+    // Send times of the lines in flight. The reader can turn one line into several results: every
+    // '$' / '!' inside it cuts off a TRUNCATED sentence. So each line records the number of the last
+    // reader result it will produce, and a sentence is matched to a line only when it is that result;
+    // anything else is counted but gets no latency sample.
+    static final class LineClock {
+        static final long UNMATCHED = Long.MIN_VALUE;
+
+        private final AtomicLongArray sentAt = new AtomicLongArray(LATENCY_WINDOW);
+        private final AtomicLongArray lastResult = new AtomicLongArray(LATENCY_WINDOW);
+        private final AtomicLong written = new AtomicLong();
+        private final AtomicLong received = new AtomicLong();
+        private long results; // sender side
+        private long line;    // reader side: first line with results still to come
+
+        boolean isFull() {
+            return written.get() - received.get() >= LATENCY_WINDOW - 1;
+        }
+
+        // Sender, just before the line's bytes go out
+        void sent(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '$' || b[i] == '!') results++;
+            }
+            long n = written.get();
+            lastResult.lazySet(slot(n), results - 1);
+            sentAt.lazySet(slot(n), System.nanoTime());
+            written.lazySet(n + 1);
+        }
+
+        // Reader, once results 0..count-1 are in: frees the lines that produce nothing more
+        void consumed(long count) {
+            long lines = written.get();
+            while (line < lines && lastResult.get(slot(line)) < count) line++;
+            received.lazySet(line);
+        }
+
+        // Reader: send time of the line whose last result is this one, or UNMATCHED
+        long sentAt(long result) {
+            consumed(result);
+            return (line < written.get() && lastResult.get(slot(line)) == result) ? sentAt.get(slot(line)) : UNMATCHED;
+        }
+
+        private static int slot(long line) {
+            return (int) (line & (LATENCY_WINDOW - 1));
+        }
+    }
+
+    // The reader only reads again once every complete line in its buffer is handled, rejected ones
+    // included; that is when the sender may move on, even if no sentence was accepted
+    static final class ProgressChannel implements ReadableByteChannel {
+        private final ReadableByteChannel channel;
+        private final LineClock clock;
+        NMEAStreamReader reader;
+
+        ProgressChannel(ReadableByteChannel channel, LineClock clock) {
+            this.channel = channel;
+            this.clock = clock;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            if (reader != null) clock.consumed(reader.sentenceCount() + reader.rejectedCount());
+            return channel.read(dst);
+        }
+
+        @Override
+        public boolean isOpen() { return channel.isOpen(); }
+
+        @Override
+        public void close() throws IOException { channel.close(); }
+    }
+
+    // ======= SENDING =======
+    interface Sink {
+        // One whole line, terminator included
+        void write(byte[] b, int off, int len) throws IOException;
+        void flush() throws IOException;
+    }
+
+    // The whole feed as one byte array, for unpaced sends
+    static final class Rendered {
+        byte[] bytes = new byte[1 << 16];
+        int length;
+        int[] lineEnds = new int[1 << 12];
+        int lines;
+        long corrupted;
+    }
+
+    private Rendered render() throws IOException {
+        Rendered r = new Rendered();
+        try (Feed feed = feed()) {
+            StringBuilder line = new StringBuilder(NMEAStreamReader.MAX_SENTENCE_LENGTH);
+            while (feed.next(line)) {
+                int chars = Math.min(line.length(), NMEAStreamReader.MAX_SENTENCE_LENGTH);
+                if (r.length + chars + 2 > r.bytes.length) r.bytes = Arrays.copyOf(r.bytes, Math.max(r.length + chars + 2, r.bytes.length * 2));
+                if (r.lines == r.lineEnds.length) r.lineEnds = Arrays.copyOf(r.lineEnds, r.lines * 2);
+                for (int i = 0; i < chars; i++) r.bytes[r.length++] = (byte) line.charAt(i);
+                r.bytes[r.length++] = '\r';
+                r.bytes[r.length++] = '\n';
+                r.lineEnds[r.lines++] = r.length;
+            }
+            r.corrupted = feed.corrupted;
+        }
+        return r;
+    }
+
+    private Result send(Sink sink, Rendered rendered) throws IOException {
+        long started = System.nanoTime();
+        long sentences = 0, bytes = 0, corrupted;
+        if (rendered != null) {
+            int from = 0;
+            for (int i = 0; i < rendered.lines; i++) {
+                int to = rendered.lineEnds[i];
+                sink.write(rendered.bytes, from, to - from);
+                from = to;
+            }
+            sentences = rendered.lines;
+            bytes = rendered.length;
+            corrupted = rendered.corrupted;
+        } else {
+            try (Feed feed = feed()) {
+                StringBuilder line = new StringBuilder(NMEAStreamReader.MAX_SENTENCE_LENGTH);
+                byte[] out = new byte[NMEAStreamReader.MAX_SENTENCE_LENGTH + 2];
+                while (feed.next(line)) {
+                    if (speed > 0) {
+                        long due = started + (long) (feed.dueNanos / speed);
+                        if (due - System.nanoTime() > 0) {
+                            sink.flush();
+                            for (long wait; (wait = due - System.nanoTime()) > 0; ) LockSupport.parkNanos(wait);
+                        }
+                    }
+                    int len = Math.min(line.length(), NMEAStreamReader.MAX_SENTENCE_LENGTH);
+                    for (int i = 0; i < len; i++) out[i] = (byte) line.charAt(i);
+                    out[len++] = '\r';
+                    out[len++] = '\n';
+                    sink.write(out, 0, len);
+                    sentences++;
+                    bytes += len;
+                }
+                corrupted = feed.corrupted;
+            }
+        }
+        sink.flush();
+        return new Result(sentences, corrupted, bytes, System.nanoTime() - started);
+    }
+
+    private Feed feed() throws IOException {
+        return (log == null) ? new SyntheticFeed() : new ReplayFeed(log);
+    }
+
+    // ======= FEEDS =======
+    abstract static class Feed implements Closeable {
+        // When the current line is due, relative to the start of the feed at speed 1
+        long dueNanos;
+        long corrupted;
+
+        // Replaces line with the next sentence (no line terminator); false at the end
+        abstract boolean next(StringBuilder line) throws IOException;
+
+        @Override
+        public void close() throws IOException {}
+    }
+
+    final class SyntheticFeed extends Feed {
+        private final Random random = new Random(seed);
+        private final long epochs = Math.max(1, Math.round(seconds * rate));
+        private final int groupSize = (satellites + 3) / 4;
+        private final String[] pending = new String[8 + groupSize];
+        private final StringBuilder body = new StringBuilder(NMEAStreamReader.MAX_SENTENCE_LENGTH);
+        private long epoch;
+        private int receiver;
+        private int count;
+        private int next;
+
+        @Override
+        boolean next(StringBuilder line) {
+            while (next == count) {
+                if (epoch == epochs) return false;
+                generate(epoch, receiver);
+                if (++receiver == receivers) {
+                    receiver = 0;
+                    epoch++;
+                }
+            }
+            line.setLength(0);
+            line.append(pending[next++]);
+            return true;
+        }
+
+        private void generate(long epoch, int receiver) {
+            long millis = startMillis + Math.round(epoch * 1000 / rate);
+            dueNanos = Math.round(epoch * 1e9 / rate);
+            int timeOfDay = (int) Math.floorMod(millis, DAY);
+            LocalDate date = LocalDate.ofEpochDay(Math.floorDiv(millis, DAY));
+            double hours = (millis - startMillis) / 3_600_000.0;
+            double lat = 48 + receiver * 0.05;
+            double lon = 11 + KNOTS * hours / (60 * Math.cos(Math.toRadians(lat)));
+            count = next = 0;
+
+            body.setLength(0);
+            body.append("GPGGA,");
+            time(timeOfDay);
+            position(lat, lon);
+            body.append(",1,");
+            pad(Math.min(satellites, 12), 2);
+            body.append(",0.9,545.4,M,46.9,M,,");
+            add();
+
+            body.setLength(0);
+            body.append("GPGSA,A,3");
+            for (int i = 1; i <= 12; i++) {
+                body.append(',');
+                if (i <= satellites) pad(i, 2);
+            }
+            body.append(",1.8,0.9,1.5");
+            add();
+
+            for (int m = 1; m <= groupSize; m++) {
+                body.setLength(0);
+                body.append("GPGSV,").append(groupSize).append(',').append(m).append(',');
+                pad(satellites, 2);
+                for (int id = (m - 1) * 4 + 1; id <= Math.min(m * 4, satellites); id++) {
+                    body.append(',');
+                    pad(id, 2);
+                    body.append(',');
+                    pad((int) ((id * 37 + epoch / 100) % 90), 2);
+                    body.append(',');
+                    pad((int) ((id * 71 + epoch / 50) % 360), 3);
+                    body.append(',');
+                    pad(30 + (id * 13 + (int) (epoch % 7)) % 20, 2);
+                }
+                add();
+            }
+
+            body.setLength(0);
+            body.append("GPRMC,");
+            time(timeOfDay);
+            body.append(",A");
+            position(lat, lon);
+            body.append(',');
+            fixed(KNOTS, 1);
+            body.append(",090.0,");
+            pad(date.getDayOfMonth(), 2);
+            pad(date.getMonthValue(), 2);
+            pad(date.getYear() % 100, 2);
+            body.append(",,");
+            add();
+
+            body.setLength(0);
+            body.append("GPVTG,090.0,T,087.0,M,");
+            fixed(KNOTS, 1);
+            body.append(",N,");
+            fixed(KNOTS * 1.852, 1);
+            body.append(",K");
+            add();
+
+            body.setLength(0);
+            body.append("GPGLL");
+            position(lat, lon);
+            body.append(',');
+            time(timeOfDay);
+            body.append(",A");
+            add();
+
+            body.setLength(0);
+            body.append("GPZDA,");
+            time(timeOfDay);
+            body.append(',');
+            pad(date.getDayOfMonth(), 2);
+            body.append(',');
+            pad(date.getMonthValue(), 2);
+            body.append(',').append(date.getYear()).append(",00,00");
+            add();
+
+            body.setLength(0);
+            body.append("GPGST,");
+            time(timeOfDay);
+            body.append(",1.2,0.8,0.6,45.0,0.7,0.6,1.1");
+            add();
+        }
+
+        private void add() {
+            int cs = NMEAChecksum.compute(body, 0, body.length());
+            if (corruption > 0 && random.nextDouble() < corruption) {
+                int at = random.nextInt(body.length());
+                body.setCharAt(at, (char) (body.charAt(at) ^ 1));
+                corrupted++;
+            }
+            StringBuilder s = new StringBuilder(body.length() + 4).append('$').append(body).append('*');
+            pending[count++] = NMEAChecksum.appendHex(s, cs).toString();
+        }
+
+        // hhmmss.ss
+        private void time(int millis) {
+            pad(millis / 3_600_000, 2);
+            pad(millis / 60_000 % 60, 2);
+            pad(millis / 1000 % 60, 2);
+            body.append('.');
+            pad(millis % 1000 / 10, 2);
+        }
+
+        // ",ddmm.mmmm,N,dddmm.mmmm,E"
+        private void position(double lat, double lon) {
+            body.append(',');
+            degrees(Math.abs(lat), 2);
+            body.append(lat < 0 ? ",S," : ",N,");
+            degrees(Math.abs(lon), 3);
+            body.append(lon < 0 ? ",W" : ",E");
+        }
+
+        private void degrees(double value, int width) {
+            long tenThousandths = Math.round(value * 600_000);
+            pad((int) (tenThousandths / 600_000), width);
+            pad((int) (tenThousandths % 600_000 / 10_000), 2);
+            body.append('.');
+            pad((int) (tenThousandths % 10_000), 4);
+        }
+
+        private void fixed(double value, int decimals) {
+            long scale = (long) Math.pow(10, decimals);
+            long v = Math.round(value * scale);
+            body.append(v / scale).append('.');
+            pad((int) (v % scale), decimals);
+        }
+
+        private void pad(int value, int width) {
+            for (int p = width - 1, div = (int) Math.pow(10, p); p >= 0; p--, div /= 10) body.append((char) ('0' + value / div % 10));
+        }
+    }
+
+    // Lines of a log file from their first '$' / '!'; the pace follows GGA / RMC / GLL / ZDA / GST times
+    static final class ReplayFeed extends Feed {
+        private final BufferedReader in;
+        private final NMEASentenceDecoder decoder = new NMEASentenceDecoder(false);
+        private long first = -1;
+        private long last = -1;
+        private long days;
+
+        ReplayFeed(Path log) throws IOException {
+            in = Files.newBufferedReader(log, StandardCharsets.ISO_8859_1);
+        }
+
+        @Override
+        boolean next(StringBuilder line) throws IOException {
+            String s;
+            while ((s = in.readLine()) != null) {
+                int start = 0;
+                while (start < s.length() && s.charAt(start) != '$' && s.charAt(start) != '!') start++;
+                if (start == s.length()) continue;
+                line.setLength(0);
+                line.append(s, start, s.length());
+                pace(line);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        private void pace(CharSequence line) {
+            if (!decoder.reset(line)) return;
+            int time;
+            switch (decoder.type()) {
+                case GGA: time = decoder.fieldAsTimeMillis(NMEAFields.GGA_TIME); break;
+                case RMC: time = decoder.fieldAsTimeMillis(NMEAFields.RMC_TIME); break;
+                case GLL: time = decoder.fieldAsTimeMillis(NMEAFields.GLL_TIME); break;
+                case ZDA: time = decoder.fieldAsTimeMillis(NMEAFields.ZDA_TIME); break;
+                case GST: time = decoder.fieldAsTimeMillis(NMEAFields.GST_TIME); break;
+                default: return;
+            }
+            if (time < 0) return;
+            if (last >= 0 && time < last - DAY / 2) days++;
+            last = time;
+            long t = days * DAY + time;
+            if (first < 0) first = t;
+            // Receivers interleave slightly out of order; never move the schedule backwards
+            dueNanos = Math.max(dueNanos, (t - first) * 1_000_000);
+        }
+    }
+
+    // ======= RESULTS =======
+    public static final class Result {
+        private final long sentences;
+        private final long corrupted;
+        private final long bytes;
+        private final long elapsedNanos;
+
+        Result(long sentences, long corrupted, long bytes, long elapsedNanos) {
+            this.sentences = sentences;
+            this.corrupted = corrupted;
+            this.bytes = bytes;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long sentences() { return sentences; }
+        public long corrupted() { return corrupted; }
+        public long bytes() { return bytes; }
+        public long elapsedNanos() { return elapsedNanos; }
+
+        public double sentencesPerSecond() {
+            return (elapsedNanos == 0) ? 0.0 : sentences * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "Sent " + sentences + " sentences (" + corrupted + " corrupted), " + bytes + " bytes in "
+                    + elapsedNanos / 1_000_000 + " ms, " + (long) sentencesPerSecond() + " sentences/sec";
+        }
+    }
+
+    public static final class Report {
+        private final Result sent;
+        private final long accepted;
+        private final long rejected;
+        private final long elapsedNanos;
+        private final LatencyHistogram latency;
+
+        Report(Result sent, long accepted, long rejected, long elapsedNanos, LatencyHistogram latency) {
+            this.sent = sent;
+            this.accepted = accepted;
+            this.rejected = rejected;
+            this.elapsedNanos = elapsedNanos;
+            this.latency = latency;
+        }
+
+        public Result sent() { return sent; }
+        public long accepted() { return accepted; }
+        public long rejected() { return rejected; }
+        public long elapsedNanos() { return elapsedNanos; }
+
+        // Accepted and rejected sentences per second of the whole run
+        public double sentencesPerSecond() {
+            return (elapsedNanos == 0) ? 0.0 : (accepted + rejected) * 1e9 / elapsedNanos;
+        }
+
+        // Send-to-consumed latency at the percentile (0..100), within 12.5%
+        public long latencyNanos(double percentile) { return latency.percentile(percentile); }
+        public double meanLatencyNanos() { return latency.mean(); }
+        // Accepted sentences matched to the line they were sent in
+        public long latencySamples() { return latency.count(); }
+
+        @Override
+        public String toString() {
+            return sent + "\nReceived " + accepted + " sentences (rejected " + rejected + "), "
+                    + (long) sentencesPerSecond() + " sentences/sec\nLatency (us): p50 " + latencyNanos(50) / 1000
+                    + ", p99 " + latencyNanos(99) / 1000 + ", p99.9 " + latencyNanos(99.9) / 1000
+                    + ", max " + latencyNanos(100) / 1000;
+        }
+    }
+
+    // ======= COMMAND LINE =======
+    public static void main(String[] args) throws IOException {
+        int i = 0;
+        NMEASimulator sim = synthetic();
+        if (args.length >= 2 && args[0].equals("replay")) {
+            sim = replay(Paths.get(args[1]));
+            i = 2;
+        }
+        String tcp = null, udp = null;
+        boolean measure = false;
+        for (; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--measure")) {
+                measure = true;
+                continue;
+            }
+            if (i + 1 == args.length) throw new IllegalArgumentException("Missing value for " + option);
+            String value = args[++i];
+            switch (option) {
+                case "--tcp": tcp = value; break;
+                case "--udp": udp = value; break;
+                case "--receivers": sim.receivers(Integer.parseInt(value)); break;
+                case "--rate": sim.rate(Double.parseDouble(value)); break;
+                case "--seconds": sim.seconds(Double.parseDouble(value)); break;
+                case "--satellites": sim.satellites(Integer.parseInt(value)); break;
+                case "--corruption": sim.corruption(Double.parseDouble(value)); break;
+                case "--speed": sim.speed(Double.parseDouble(value)); break;
+                case "--seed": sim.seed(Long.parseLong(value)); break;
+                default: throw new IllegalArgumentException("Unknown option " + option);
+            }
+        }
+        if (measure) {
+            NMEARecord record = new NMEARecord();
+            System.out.println(sim.measure(record::decode));
+        } else if (tcp != null) {
+            int colon = tcp.lastIndexOf(':');
+            System.err.println(sim.sendTcp(tcp.substring(0, colon), Integer.parseInt(tcp.substring(colon + 1))));
+        } else if (udp != null) {
+            int colon = udp.lastIndexOf(':');
+            System.err.println(sim.sendUdp(udp.substring(0, colon), Integer.parseInt(udp.substring(colon + 1))));
+        } else {
+            System.err.println(sim.sendTo(System.out));
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.jari;
+
+// ===== Outcome of decoding one sentence =====
+public enum NMEAStatus {
+    OK,
+    // Nothing but whitespace
+    EMPTY,
+    // Shorter than a sentence can be
+    TOO_SHORT,
+    // Does not start with '$' or '!'
+    MISSING_START,
+    TOO_MANY_FIELDS,
+    // "*hh" does not match the computed checksum
+    CHECKSUM_MISMATCH,
+    // No "*hh" although one is required
+    CHECKSUM_MISSING,
+    // Cut off by the start of the next sentence
+    TRUNCATED,
+    // Longer than NMEAStreamReader.MAX_SENTENCE_LENGTH
+    TOO_LONG;
+
+    public boolean isChecksumError() {
+        return this == CHECKSUM_MISMATCH || this == CHECKSUM_MISSING;
+    }
+}
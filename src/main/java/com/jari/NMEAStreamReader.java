@@ -0,0 +1,214 @@
+package com.jari;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+
+// ===== Streaming reader: frames $...*hh<CR><LF> sentences straight out of a byte buffer =====
+// Frames are handed to the decoder as byte ranges of the read buffer, so no String is ever built.
+// Partial sentences survive across reads; bytes outside a sentence are skipped and a sentence that
+// is cut off by a new '$' / '!' or grows past MAX_SENTENCE_LENGTH is dropped.
+public final class NMEAStreamReader implements Closeable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    // NMEA 0183 caps sentences at 82 bytes; anything far longer is line noise
+    public static final int MAX_SENTENCE_LENGTH = 512;
+
+    private final ReadableByteChannel channel;
+    private final NMEASentenceDecoder decoder;
+    private final ByteBuffer buffer;
+    private final byte[] bytes;
+    private NMEAMetrics metrics = NMEAMetrics.NOOP;
+    private ErrorReporter errors = ErrorReporter.SKIP;
+    private final NMEAError error = new NMEAError();
+    private int source = -1;
+
+    // nextFrame(): lines are framed but not decoded
+    private boolean framing;
+    private int frameStart;
+    private int frameEnd;
+
+    private int pos;
+    private int end;
+    private long offset; // stream position of bytes[0]
+    private boolean endOfStream;
+
+    private long sentences;
+    private long rejected;
+    private long discardedBytes;
+
+    public NMEAStreamReader(InputStream in) {
+        this(Channels.newChannel(in));
+    }
+
+    public NMEAStreamReader(ReadableByteChannel channel) {
+        this(channel, new NMEASentenceDecoder(true), DEFAULT_BUFFER_SIZE);
+    }
+
+    public NMEAStreamReader(ReadableByteChannel channel, NMEASentenceDecoder decoder, int bufferSize) {
+        if (bufferSize < MAX_SENTENCE_LENGTH * 2)
+            throw new IllegalArgumentException("Buffer too small: " + bufferSize);
+        this.channel = channel;
+        this.decoder = decoder;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        this.bytes = buffer.array();
+    }
+
+    public NMEAStreamReader metrics(NMEAMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
+    // SKIP (the default), COUNT per NMEAStatus, or DEAD_LETTER to hand every rejected sentence to sink
+    public NMEAStreamReader onError(NMEAErrorPolicy policy, NMEADeadLetterSink sink) {
+        this.errors = new ErrorReporter(policy, sink);
+        return this;
+    }
+
+    // For NMEAPipeline: rejections are reported to the pipeline's reporter, tagged with the source id
+    NMEAStreamReader reportTo(int source, ErrorReporter errors) {
+        this.source = source;
+        this.errors = errors;
+        return this;
+    }
+
+    // ======= READING =======
+    // Returns the decoder positioned on the next well-formed sentence, or null when no complete
+    // sentence is available: at end of stream, or when a non-blocking channel has no data yet.
+    public NMEASentenceDecoder next() throws IOException {
+        while (true) {
+            NMEASentenceDecoder d = nextBuffered();
+            if (d != null) return d;
+            if (endOfStream) return null;
+            int read = fill();
+            if (read < 0) {
+                endOfStream = true;
+                // A final sentence without a line terminator is still a sentence
+                int start = skipToStart(pos);
+                pos = end;
+                if (start == end) return null;
+                if (end - start > MAX_SENTENCE_LENGTH) {
+                    discardedBytes += end - start;
+                    reject(NMEAStatus.TOO_LONG, start, end);
+                    return null;
+                }
+                return frame(start, end) ? decoder : null;
+            }
+            if (read == 0) return null;
+        }
+    }
+
+    private NMEASentenceDecoder nextBuffered() {
+        while (pos < end) {
+            int start = skipToStart(pos);
+            pos = start;
+            if (start == end) return null;
+
+            int i = start + 1;
+            while (i < end) {
+                byte b = bytes[i];
+                if (b == '\n' || b == '\r' || b == '$' || b == '!') break;
+                i++;
+            }
+            if (i == end) {
+                if (end - start > MAX_SENTENCE_LENGTH) {
+                    discardedBytes += end - start;
+                    reject(NMEAStatus.TOO_LONG, start, end);
+                    pos = end;
+                }
+                return null;
+            }
+            if (bytes[i] == '$' || bytes[i] == '!') {
+                // Cut off by the next sentence: the remainder never arrived
+                pos = i;
+                discardedBytes += i - start;
+                reject(NMEAStatus.TRUNCATED, start, i);
+                continue;
+            }
+            pos = i + 1;
+            if (frame(start, i)) return decoder;
+        }
+        return null;
+    }
+
+    // Frames the next sentence without decoding it, for callers that decode it elsewhere; it lies in
+    // frameBytes()[frameStart()..frameEnd()) until the next call. Only framing rejections are counted.
+    boolean nextFrame() throws IOException {
+        framing = true;
+        try {
+            return next() != null;
+        } finally {
+            framing = false;
+        }
+    }
+
+    byte[] frameBytes() { return bytes; }
+    int frameStart() { return frameStart; }
+    int frameEnd() { return frameEnd; }
+
+    private boolean frame(int start, int stop) {
+        if (framing) {
+            frameStart = start;
+            frameEnd = stop;
+            return true;
+        }
+        long timer = metrics.timer();
+        if (decoder.reset(bytes, start, stop - start)) {
+            sentences++;
+            metrics.parsed(decoder.talker(), decoder.type(), timer);
+            return true;
+        }
+        rejected++;
+        metrics.rejected(decoder);
+        if (errors.wantsDetails()) errors.report(error.set(decoder.status(), source, offset + start).from(decoder));
+        else errors.count(decoder.status());
+        return false;
+    }
+
+    private void reject(NMEAStatus status, int start, int stop) {
+        rejected++;
+        metrics.malformed();
+        if (errors.wantsDetails()) errors.report(error.set(status, source, offset + start).text(bytes, start, stop));
+        else errors.count(status);
+    }
+
+    // Line terminators between sentences are expected; anything else skipped here is garbage
+    private int skipToStart(int from) {
+        int i = from;
+        for (; i < end; i++) {
+            byte b = bytes[i];
+            if (b == '$' || b == '!') break;
+            if (b != '\n' && b != '\r') discardedBytes++;
+        }
+        return i;
+    }
+
+    private int fill() throws IOException {
+        if (pos > 0) {
+            System.arraycopy(bytes, pos, bytes, 0, end - pos);
+            offset += pos;
+            end -= pos;
+            pos = 0;
+        }
+        buffer.limit(bytes.length).position(end);
+        int read = channel.read(buffer);
+        if (read > 0) end += read;
+        return read;
+    }
+
+    // ======= STATS =======
+    public boolean isEndOfStream() { return endOfStream; }
+    public long sentenceCount() { return sentences; }
+    public long rejectedCount() { return rejected; }
+    public long discardedBytes() { return discardedBytes; }
+    // Rejections with the given status; always 0 under NMEAErrorPolicy.SKIP
+    public long errorCount(NMEAStatus status) { return errors.errors(status); }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
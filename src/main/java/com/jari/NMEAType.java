@@ -0,0 +1,38 @@
+package com.jari;
+
+import java.util.Arrays;
+
+// ===== Sentence formatters understood by the typed decoders =====
+// The formatter is the last three characters of the address, so GPGGA, GNGGA and GLGGA are all GGA.
+public enum NMEAType {
+    GGA, RMC, VTG, GSA, GSV, GLL, ZDA, GST, UNKNOWN;
+
+    // Three upper-case letters pack into a dense index below CODES: a perfect hash for formatters
+    static final int CODES = 26 * 26 * 26;
+
+    private static final NMEAType[] BY_CODE = new NMEAType[CODES];
+
+    static {
+        Arrays.fill(BY_CODE, UNKNOWN);
+        for (NMEAType t : values()) {
+            if (t != UNKNOWN) BY_CODE[code(t.name().charAt(0), t.name().charAt(1), t.name().charAt(2))] = t;
+        }
+    }
+
+    // Packed formatter code, or -1 unless all three characters are 'A'..'Z'
+    static int code(char a, char b, char c) {
+        int x = a - 'A', y = b - 'A', z = c - 'A';
+        if ((x | y | z) < 0 || x > 25 || y > 25 || z > 25) return -1;
+        return (x * 26 + y) * 26 + z;
+    }
+
+    static NMEAType of(CharSequence s, int addressStart, int addressEnd) {
+        if (addressEnd - addressStart != 5 || s.charAt(addressStart) == 'P') return UNKNOWN;
+        return ofFormatter(s.charAt(addressEnd - 3), s.charAt(addressEnd - 2), s.charAt(addressEnd - 1));
+    }
+
+    static NMEAType ofFormatter(char a, char b, char c) {
+        int code = code(a, b, c);
+        return (code < 0) ? UNKNOWN : BY_CODE[code];
+    }
+}
@@ -0,0 +1,25 @@
+package com.jari;
+
+import static com.jari.NMEAFields.*;
+
+public final class RMCSentence extends NMEASentence {
+
+    public final int time;
+    public final char status;
+    public final double latitude;
+    public final double longitude;
+    public final double speedKnots;
+    public final double trackAngle;
+    public final int date;
+
+    RMCSentence(NMEASentenceDecoder d) {
+        super(NMEAType.RMC, d);
+        time = d.fieldAsTimeMillis(RMC_TIME);
+        status = d.fieldAsChar(RMC_STATUS);
+        latitude = d.fieldAsDegrees(RMC_LATITUDE, RMC_LAT_DIR);
+        longitude = d.fieldAsDegrees(RMC_LONGITUDE, RMC_LON_DIR);
+        speedKnots = d.fieldAsDouble(RMC_SPEED_KNOTS);
+        trackAngle = d.fieldAsDouble(RMC_TRACK_ANGLE);
+        date = d.fieldAsDate(RMC_DATE);
+    }
+}
@@ -0,0 +1,75 @@
+package com.jari;
+
+import java.util.Arrays;
+
+// ===== Satellites of one complete GSV group =====
+// Instances handed to a GSVAssembler.Listener are reused; call copy() to keep one past the callback.
+public final class SkyView {
+
+    public static final int MAX_SATELLITES = 64;
+
+    int source;
+    int talker;
+    int satellitesInView;
+    int satelliteCount;
+    final int[] id;
+    final int[] elevation;
+    final int[] azimuth;
+    final int[] snr;
+
+    SkyView() {
+        this(MAX_SATELLITES);
+    }
+
+    private SkyView(int capacity) {
+        id = new int[capacity];
+        elevation = new int[capacity];
+        azimuth = new int[capacity];
+        snr = new int[capacity];
+    }
+
+    void clear(int source, int talker) {
+        this.source = source;
+        this.talker = talker;
+        satellitesInView = 0;
+        satelliteCount = 0;
+    }
+
+    boolean add(int satelliteId, int elevation, int azimuth, int snr) {
+        if (satelliteCount == id.length) return false;
+        this.id[satelliteCount] = satelliteId;
+        this.elevation[satelliteCount] = elevation;
+        this.azimuth[satelliteCount] = azimuth;
+        this.snr[satelliteCount++] = snr;
+        return true;
+    }
+
+    public int source() { return source; }
+    public int talker() { return talker; }
+    public int satellitesInView() { return satellitesInView; }
+    public int satelliteCount() { return satelliteCount; }
+    public int satelliteId(int i) { return id[i]; }
+    public int elevation(int i) { return elevation[i]; }
+    public int azimuth(int i) { return azimuth[i]; }
+    // -1 when the satellite is not tracked
+    public int snr(int i) { return snr[i]; }
+
+    public SkyView copy() {
+        SkyView c = new SkyView(satelliteCount);
+        c.source = source;
+        c.talker = talker;
+        c.satellitesInView = satellitesInView;
+        c.satelliteCount = satelliteCount;
+        System.arraycopy(id, 0, c.id, 0, satelliteCount);
+        System.arraycopy(elevation, 0, c.elevation, 0, satelliteCount);
+        System.arraycopy(azimuth, 0, c.azimuth, 0, satelliteCount);
+        System.arraycopy(snr, 0, c.snr, 0, satelliteCount);
+        return c;
+    }
+
+    @Override
+    public String toString() {
+        return "SkyView{source=" + source + ", inView=" + satellitesInView
+                + ", ids=" + Arrays.toString(Arrays.copyOf(id, satelliteCount)) + "}";
+    }
+}
@@ -0,0 +1,77 @@
+package com.jari;
+
+import java.util.Arrays;
+
+// ===== Fixed-capacity map from a long key to a preallocated slot index =====
+// Open addressing with linear probing and backward-shift deletion; never allocates after construction.
+final class SlotTable {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final long[] keys;
+    private final int[] slots;
+    private final int mask;
+    private final int[] free;
+    private int freeCount;
+
+    SlotTable(int capacity) {
+        int tableSize = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1) * 2;
+        keys = new long[tableSize];
+        slots = new int[tableSize];
+        mask = tableSize - 1;
+        Arrays.fill(keys, EMPTY);
+        free = new int[capacity];
+        for (int i = 0; i < capacity; i++) free[i] = capacity - 1 - i;
+        freeCount = capacity;
+    }
+
+    int capacity() { return free.length; }
+    int size() { return free.length - freeCount; }
+
+    static long key(int source, int talker) {
+        return ((long) source << 16) | (talker & 0xFFFF);
+    }
+
+    // Slot of the key, or -1
+    int get(long key) {
+        for (int i = index(key); ; i = (i + 1) & mask) {
+            if (keys[i] == key) return slots[i];
+            if (keys[i] == EMPTY) return -1;
+        }
+    }
+
+    // Slot of the key, assigning a free one if needed; -1 when every slot is taken
+    int acquire(long key) {
+        int i = index(key);
+        for (; keys[i] != EMPTY; i = (i + 1) & mask) if (keys[i] == key) return slots[i];
+        if (freeCount == 0) return -1;
+        keys[i] = key;
+        slots[i] = free[--freeCount];
+        return slots[i];
+    }
+
+    void release(long key) {
+        int i = index(key);
+        while (keys[i] != key) {
+            if (keys[i] == EMPTY) return;
+            i = (i + 1) & mask;
+        }
+        free[freeCount++] = slots[i];
+        // Shift later entries of the probe run back so lookups never stop early
+        int hole = i;
+        for (int j = (i + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+            int home = index(keys[j]);
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                keys[hole] = keys[j];
+                slots[hole] = slots[j];
+                hole = j;
+            }
+        }
+        keys[hole] = EMPTY;
+    }
+
+    private int index(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
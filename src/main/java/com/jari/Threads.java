@@ -0,0 +1,34 @@
+package com.jari;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// ===== Thread factories for blocking I/O =====
+// Virtual threads when the runtime has them (Java 21+), daemon platform threads otherwise.
+// Looked up reflectively so the library still builds and runs on older JDKs.
+final class Threads {
+
+    private Threads() {}
+
+    static ThreadFactory forBlockingIo(String prefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            Method factory = builderType.getMethod("factory");
+            return (ThreadFactory) factory.invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return platform(prefix);
+        }
+    }
+
+    static ThreadFactory platform(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + count.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
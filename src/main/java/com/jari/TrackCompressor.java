@@ -0,0 +1,252 @@
+package com.jari;
+
+// ===== Streaming track simplification: keeps only the points needed to stay within an error bound =====
+// Fixes are tracked per (source, talker) in preallocated primitive windows, so memory is constant per
+// vessel. Two modes:
+//   OPENING_WINDOW  every dropped point lies within the tolerance of the straight line between the kept
+//                   points around it, measured at the point's own time (synchronized Euclidean distance).
+//                   Linear interpolation between kept points reconstructs the track.
+//   DEAD_RECKONING  a fix is kept when it strays more than the tolerance from where the last kept fix
+//                   would be by now at its speed and course (RMC/VTG); cheaper, larger error on turns.
+// Fixes without a position or time are ignored. Time is NMEAFix.epochMillis(); a fix without a date continues
+// the vessel's last date (or day 0), and its time of day jumping back by more than 12 hours is taken as midnight.
+// Not thread-safe: feed each compressor from one thread, e.g. from an EpochFusion listener.
+//
+//   TrackCompressor track = new TrackCompressor(1024, 64, 5.0, TrackCompressor.Mode.OPENING_WINDOW, store);
+//   EpochFusion fusion = new EpochFusion(1024, 500, track::accept);
+public final class TrackCompressor {
+
+    public enum Mode { OPENING_WINDOW, DEAD_RECKONING }
+
+    public interface Listener {
+        void onPoint(int source, int talker, long time, double latitude, double longitude, double speedKnots, double course);
+    }
+
+    private static final double EARTH_RADIUS_M = 6_371_008.8;
+    private static final double METERS_PER_DEGREE = EARTH_RADIUS_M * Math.PI / 180;
+    private static final double KNOTS_TO_MPS = 1852.0 / 3600.0;
+    private static final long DAY = 86_400_000L;
+
+    private final SlotTable table;
+    private final long[] keys;
+    private final boolean[] used;
+    // Points kept per slot: the window for OPENING_WINDOW, only the newest fix for DEAD_RECKONING
+    private final int window;
+    private final double tolerance;
+    private final Mode mode;
+    private final Listener listener;
+
+    // Last kept point per slot
+    private final boolean[] anchored;
+    private final long[] anchorTime;
+    private final double[] anchorLat;
+    private final double[] anchorLon;
+    private final double[] anchorSpeed;
+    private final double[] anchorCourse;
+
+    // Points seen since the anchor, slot * window + i; the newest one is pending until flush()
+    private final int[] pending;
+    private final long[] time;
+    private final double[] lat;
+    private final double[] lon;
+    private final double[] speed;
+    private final double[] course;
+    // Largest error among the dropped points of the open segment
+    private final double[] segmentError;
+    // Start of the current day for fixes without a date, and the last time seen, per slot
+    private final long[] dayStart;
+    private final long[] lastTime;
+
+    private long input;
+    private long emitted;
+    private long dropped;
+    private double maxError;
+
+    public TrackCompressor(int maxVessels, int window, double toleranceMeters, Mode mode, Listener listener) {
+        if (window < 1) throw new IllegalArgumentException("window must be positive: " + window);
+        this.table = new SlotTable(maxVessels);
+        this.keys = new long[maxVessels];
+        this.used = new boolean[maxVessels];
+        this.window = (mode == Mode.OPENING_WINDOW) ? window : 1;
+        this.tolerance = toleranceMeters;
+        this.mode = mode;
+        this.listener = listener;
+        anchored = new boolean[maxVessels];
+        anchorTime = new long[maxVessels];
+        anchorLat = new double[maxVessels];
+        anchorLon = new double[maxVessels];
+        anchorSpeed = new double[maxVessels];
+        anchorCourse = new double[maxVessels];
+        pending = new int[maxVessels];
+        time = new long[maxVessels * this.window];
+        lat = new double[maxVessels * this.window];
+        lon = new double[maxVessels * this.window];
+        speed = new double[maxVessels * this.window];
+        course = new double[maxVessels * this.window];
+        segmentError = new double[maxVessels];
+        dayStart = new long[maxVessels];
+        lastTime = new long[maxVessels];
+    }
+
+    // ======= INPUT =======
+    // Returns false when the fix has no position or time, or no vessel slot is free
+    public boolean accept(NMEAFix fix) {
+        if (!fix.hasPosition() || fix.time < 0) return false;
+
+        long key = SlotTable.key(fix.source, fix.talker);
+        int slot = table.get(key);
+        if (slot < 0) {
+            slot = table.acquire(key);
+            if (slot < 0) {
+                dropped++;
+                return false;
+            }
+            keys[slot] = key;
+            used[slot] = true;
+            anchored[slot] = false;
+            pending[slot] = 0;
+            dayStart[slot] = 0;
+            lastTime[slot] = Long.MIN_VALUE;
+        }
+        input++;
+
+        long t = fix.epochMillis();
+        if (t >= 0) {
+            dayStart[slot] = t - fix.time;
+        } else {
+            t = dayStart[slot] + fix.time;
+            if (lastTime[slot] != Long.MIN_VALUE && t < lastTime[slot] - DAY / 2) {
+                dayStart[slot] += DAY;
+                t += DAY;
+            }
+        }
+        lastTime[slot] = t;
+
+        if (!anchored[slot]) {
+            anchor(slot, t, fix.latitude, fix.longitude, fix.speedKnots, fix.course);
+            emit(slot);
+            return true;
+        }
+        if (mode == Mode.OPENING_WINDOW) openingWindow(slot, t, fix);
+        else deadReckoning(slot, t, fix);
+        return true;
+    }
+
+    private void openingWindow(int slot, long t, NMEAFix fix) {
+        int base = slot * window;
+        int n = pending[slot];
+        double worst = 0;
+        for (int i = 0; i < n && worst <= tolerance; i++) {
+            worst = Math.max(worst, sed(slot, base + i, t, fix.latitude, fix.longitude));
+        }
+        if (worst > tolerance || n == window) {
+            // The segment up to the previous point was within bounds: keep that point, start over from it
+            int last = base + n - 1;
+            maxError = Math.max(maxError, segmentError[slot]);
+            anchor(slot, time[last], lat[last], lon[last], speed[last], course[last]);
+            emit(slot);
+            n = 0;
+            worst = 0;
+        }
+        store(slot, n, t, fix);
+        segmentError[slot] = worst;
+    }
+
+    private void deadReckoning(int slot, long t, NMEAFix fix) {
+        double error = distanceToPrediction(slot, t, fix.latitude, fix.longitude);
+        if (error > tolerance) {
+            anchor(slot, t, fix.latitude, fix.longitude, fix.speedKnots, fix.course);
+            emit(slot);
+            pending[slot] = 0;
+            return;
+        }
+        maxError = Math.max(maxError, error);
+        store(slot, 0, t, fix);
+    }
+
+    private void store(int slot, int i, long t, NMEAFix fix) {
+        int at = slot * window + i;
+        time[at] = t;
+        lat[at] = fix.latitude;
+        lon[at] = fix.longitude;
+        speed[at] = fix.speedKnots;
+        course[at] = fix.course;
+        pending[slot] = i + 1;
+    }
+
+    private void anchor(int slot, long t, double latitude, double longitude, double speedKnots, double courseDeg) {
+        anchored[slot] = true;
+        anchorTime[slot] = t;
+        anchorLat[slot] = latitude;
+        anchorLon[slot] = longitude;
+        anchorSpeed[slot] = speedKnots;
+        anchorCourse[slot] = courseDeg;
+    }
+
+    private void emit(int slot) {
+        emitted++;
+        long key = keys[slot];
+        listener.onPoint((int) (key >>> 16), (int) (key & 0xFFFF), anchorTime[slot],
+                anchorLat[slot], anchorLon[slot], anchorSpeed[slot], anchorCourse[slot]);
+    }
+
+    // ======= GEOMETRY =======
+    // Distance of buffered point i from where the anchor -> (t, latitude, longitude) segment puts it at its time
+    private double sed(int slot, int i, long t, double latitude, double longitude) {
+        long span = t - anchorTime[slot];
+        double f = (span <= 0) ? 0 : (double) (time[i] - anchorTime[slot]) / span;
+        double expectedLat = anchorLat[slot] + f * (latitude - anchorLat[slot]);
+        double expectedLon = anchorLon[slot] + f * (longitude - anchorLon[slot]);
+        return meters(expectedLat, expectedLon, lat[i], lon[i]);
+    }
+
+    private double distanceToPrediction(int slot, long t, double latitude, double longitude) {
+        double predictedLat = anchorLat[slot], predictedLon = anchorLon[slot];
+        double v = anchorSpeed[slot], c = anchorCourse[slot];
+        if (!Double.isNaN(v) && !Double.isNaN(c)) {
+            double meters = v * KNOTS_TO_MPS * (t - anchorTime[slot]) / 1000.0;
+            double bearing = Math.toRadians(c);
+            predictedLat += meters * Math.cos(bearing) / METERS_PER_DEGREE;
+            predictedLon += meters * Math.sin(bearing) / (METERS_PER_DEGREE * Math.cos(Math.toRadians(anchorLat[slot])));
+        }
+        return meters(predictedLat, predictedLon, latitude, longitude);
+    }
+
+    // Equirectangular approximation; accurate to well under a percent over the distances compared here
+    static double meters(double lat1, double lon1, double lat2, double lon2) {
+        double dy = (lat2 - lat1) * METERS_PER_DEGREE;
+        double dx = (lon2 - lon1) * METERS_PER_DEGREE * Math.cos(Math.toRadians((lat1 + lat2) / 2));
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    // ======= FLUSH =======
+    // Keeps every vessel's newest point, e.g. at end of input, and forgets all vessels
+    public void flush() {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (!used[slot]) continue;
+            int n = pending[slot];
+            if (n > 0) {
+                int last = slot * window + n - 1;
+                maxError = Math.max(maxError, segmentError[slot]);
+                anchor(slot, time[last], lat[last], lon[last], speed[last], course[last]);
+                emit(slot);
+            }
+            pending[slot] = 0;
+            segmentError[slot] = 0;
+            table.release(keys[slot]);
+            used[slot] = false;
+        }
+    }
+
+    // ======= STATS =======
+    public long inputPoints() { return input; }
+    public long emittedPoints() { return emitted; }
+    public long droppedFixes() { return dropped; }
+    // Largest distance between a dropped point and the reconstructed track, in meters
+    public double maxErrorMeters() { return maxError; }
+
+    // Input points per kept point
+    public double compressionRatio() {
+        return (emitted == 0) ? 0 : (double) input / emitted;
+    }
+}
@@ -0,0 +1,19 @@
+package com.jari;
+
+import static com.jari.NMEAFields.*;
+
+public final class VTGSentence extends NMEASentence {
+
+    public final double trackTrue;
+    public final double trackMagnetic;
+    public final double speedKnots;
+    public final double speedKmh;
+
+    VTGSentence(NMEASentenceDecoder d) {
+        super(NMEAType.VTG, d);
+        trackTrue = d.fieldAsDouble(VTG_TRACK_TRUE);
+        trackMagnetic = d.fieldAsDouble(VTG_TRACK_MAGNETIC);
+        speedKnots = d.fieldAsDouble(VTG_SPEED_KNOTS);
+        speedKmh = d.fieldAsDouble(VTG_SPEED_KMH);
+    }
+}
@@ -0,0 +1,15 @@
+package com.jari;
+
+import static com.jari.NMEAFields.*;
+
+public final class ZDASentence extends NMEASentence {
+
+    public final int time;
+    public final int date;
+
+    ZDASentence(NMEASentenceDecoder d) {
+        super(NMEAType.ZDA, d);
+        time = d.fieldAsTimeMillis(ZDA_TIME);
+        date = NMEANumbers.date(d.fieldAsInt(ZDA_YEAR), d.fieldAsInt(ZDA_MONTH), d.fieldAsInt(ZDA_DAY));
+    }
+}
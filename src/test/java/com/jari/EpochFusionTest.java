@@ -0,0 +1,127 @@
+package com.jari;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+public class EpochFusionTest extends TestCase {
+
+    private final List<NMEAFix> fixes = new ArrayList<>();
+    private final NMEASentenceDecoder decoder = new NMEASentenceDecoder(false);
+
+    private void feed(EpochFusion fusion, int source, String sentence, long now) {
+        assertTrue(decoder.reset(sentence));
+        fusion.accept(source, decoder, now);
+    }
+
+    public void testMergesOneEpochIntoOneFix() {
+        EpochFusion fusion = new EpochFusion(8, EpochFusion.mask(NMEAType.GGA, NMEAType.RMC, NMEAType.VTG), 1000, f -> fixes.add(f.copy()));
+        feed(fusion, 1, "$GPGGA,123519,4807.038,N,01131.000,E,1,08,0.9,545.4,M,46.9,M,,", 0);
+        feed(fusion, 1, "$GPGSA,A,3,04,05,,09,12,,,24,,,,,2.5,1.3,2.1", 1);
+        feed(fusion, 1, "$GPRMC,123519,A,4807.038,N,01131.000,E,022.4,084.4,230394,003.1,W", 2);
+        assertTrue(fixes.isEmpty());
+        feed(fusion, 1, "$GPVTG,054.7,T,034.4,M,005.5,N,010.2,K", 3);
+
+        assertEquals(1, fixes.size());
+        NMEAFix fix = fixes.get(0);
+        assertEquals(45319000, fix.time);
+        assertEquals(19940323, fix.date);
+        assertEquals(48.1173, fix.latitude, 1e-9);
+        assertEquals(545.4, fix.altitude, 0.0);
+        assertEquals(22.4, fix.speedKnots, 0.0);
+        assertEquals(84.4, fix.course, 0.0);
+        assertEquals(1.3, fix.hdop, 0.0);
+        assertEquals(3, fix.fixType);
+        assertTrue(fix.has(NMEAType.GSA));
+        assertEquals(764426119000L, fix.epochMillis());
+    }
+
+    public void testNewEpochAndDeadlineFlushIncompleteFixes() {
+        EpochFusion fusion = new EpochFusion(8, 500, f -> fixes.add(f.copy()));
+        feed(fusion, 1, "$GPGGA,123519,4807.038,N,01131.000,E,1,08,0.9,545.4,M,46.9,M,,", 0);
+        feed(fusion, 1, "$GPGGA,123520,4807.038,N,01131.000,E,1,08,0.9,545.4,M,46.9,M,,", 100);
+        assertEquals(1, fixes.size());
+        assertEquals(45319000, fixes.get(0).time);
+
+        fusion.expire(700);
+        assertEquals(2, fixes.size());
+        assertEquals(1, fusion.emittedByDeadline());
+
+        feed(fusion, 1, "$GPRMC,123520,A,4807.038,N,01131.000,E,022.4,084.4,230394,003.1,W", 800);
+        assertEquals(1, fusion.lateSentences());
+    }
+
+    public void testKeepsReceiversApartAndCountsOrphans() {
+        EpochFusion fusion = new EpochFusion(8, 1000, f -> fixes.add(f.copy()));
+        feed(fusion, 1, "$GPVTG,054.7,T,034.4,M,005.5,N,010.2,K", 0);
+        assertEquals(1, fusion.orphanSentences());
+        feed(fusion, 1, "$GPGGA,123519,4807.038,N,01131.000,E,1,08,0.9,545.4,M,46.9,M,,", 0);
+        feed(fusion, 2, "$GPRMC,123519,A,4807.038,N,01131.000,E,022.4,084.4,230394,003.1,W", 0);
+        assertTrue(fixes.isEmpty());
+        feed(fusion, 2, "$GPGGA,123519,4807.038,N,01131.000,E,1,08,0.9,545.4,M,46.9,M,,", 0);
+        assertEquals(1, fixes.size());
+        assertEquals(2, fixes.get(0).source);
+        fusion.flush();
+        assertEquals(2, fixes.size());
+        assertFalse(fixes.get(1).has(NMEAType.RMC));
+    }
+
+    public void testWaitsForSentencesThatFollowedRmcLastEpoch() {
+        EpochFusion fusion = new EpochFusion(8, 1000, f -> fixes.add(f.copy()));
+        for (int second = 19; second <= 21; second++) {
+            feed(fusion, 1, "$GPGGA,1235" + second + ",4807.038,N,01131.000,E,1,08,0.9,545.4,M,46.9,M,,", 0);
+            feed(fusion, 1, "$GPRMC,1235" + second + ",A,4807.038,N,01131.000,E,022.4,084.4,230394,003.1,W", 0);
+            feed(fusion, 1, "$GPVTG,054.7,T,034.4,M,005.5,N,010.2,K", 0);
+            feed(fusion, 1, "$GPGSA,A,3,04,05,,09,12,,,24,,,,,2.5,1.3,2.1", 0);
+        }
+        // The first epoch closes on RMC; from then on VTG and GSA are expected and join their epoch
+        assertEquals(3, fixes.size());
+        assertEquals(2, fusion.orphanSentences());
+        assertFalse(fixes.get(0).has(NMEAType.GSA));
+        assertTrue(fixes.get(1).has(NMEAType.VTG));
+        assertTrue(fixes.get(1).has(NMEAType.GSA));
+        assertTrue(fixes.get(2).has(NMEAType.GSA));
+        assertEquals(0, fusion.emittedByDeadline());
+    }
+
+    public void testPeriodicExpireKeepsTrailingSentencesInTheirEpoch() {
+        EpochFusion fusion = new EpochFusion(8, 500, f -> fixes.add(f.copy()));
+        for (int second = 19; second <= 23; second++) {
+            long now = (second - 19) * 1000L;
+            feed(fusion, 1, "$GPGGA,1235" + second + ",4807.038,N,01131.000,E,1,08,0.9,545.4,M,46.9,M,,", now);
+            feed(fusion, 1, "$GPRMC,1235" + second + ",A,4807.038,N,01131.000,E,022.4,084.4,230394,003.1,W", now + 10);
+            feed(fusion, 1, "$GPVTG,054.7,T,034.4,M,005.5,N,010.2,K", now + 20);
+            feed(fusion, 1, "$GPGSA,A,3,04,05,,09,12,,,24,,,,,2.5,1.3,2.1", now + 30);
+            // Between 1 Hz epochs, past the 500 ms deadline but well within the idle timeout
+            fusion.expire(now + 600);
+        }
+        assertEquals(5, fixes.size());
+        assertEquals(2, fusion.orphanSentences());
+        for (int i = 1; i < 5; i++) {
+            assertTrue(fixes.get(i).has(NMEAType.VTG));
+            assertTrue(fixes.get(i).has(NMEAType.GSA));
+        }
+    }
+
+    public void testExpireReleasesIdleReceivers() {
+        EpochFusion fusion = new EpochFusion(4, 500, f -> fixes.add(f.copy())).idleTimeout(2000);
+        for (int source = 1; source <= 4; source++) {
+            feed(fusion, source, "$GPGGA,123519,4807.038,N,01131.000,E,1,08,0.9,545.4,M,46.9,M,,", 0);
+        }
+        fusion.expire(600);
+        assertEquals(4, fixes.size());
+        fusion.expire(1200);
+        // Past the deadline but not yet idle: no slot is free
+        feed(fusion, 5, "$GPGGA,123519,4807.038,N,01131.000,E,1,08,0.9,545.4,M,46.9,M,,", 1200);
+        assertEquals(1, fusion.droppedSentences());
+        fusion.expire(2000);
+        // Only four slots: the new receivers fit only if the idle ones were released
+        for (int source = 5; source <= 8; source++) {
+            feed(fusion, source, "$GPGGA,123519,4807.038,N,01131.000,E,1,08,0.9,545.4,M,46.9,M,,", 2000);
+        }
+        assertEquals(1, fusion.droppedSentences());
+        fusion.flush();
+        assertEquals(8, fixes.size());
+    }
+}
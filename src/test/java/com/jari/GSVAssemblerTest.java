@@ -0,0 +1,74 @@
+package com.jari;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+public class GSVAssemblerTest extends TestCase {
+
+    private static final String GSV1 = "$GPGSV,2,1,08,01,40,083,41,02,17,063,42,03,13,053,43,04,03,013,42";
+    private static final String GSV2 = "$GPGSV,2,2,08,05,20,123,44,06,05,223,45,07,11,323,43,08,32,073,";
+
+    private final List<SkyView> views = new ArrayList<>();
+    private final GSVAssembler assembler = new GSVAssembler(4, 1000, v -> views.add(v.copy()));
+    private final NMEASentenceDecoder decoder = new NMEASentenceDecoder();
+
+    private void feed(int source, String sentence, long now) {
+        assertTrue(decoder.reset(sentence));
+        assertTrue(assembler.accept(source, decoder, now));
+    }
+
+    public void testAssemblesCompleteGroup() {
+        feed(7, GSV1, 0);
+        assertTrue(views.isEmpty());
+        feed(7, GSV2, 10);
+        assertEquals(1, views.size());
+        SkyView v = views.get(0);
+        assertEquals(7, v.source());
+        assertEquals(8, v.satellitesInView());
+        assertEquals(8, v.satelliteCount());
+        assertEquals(123, v.azimuth(4));
+        assertEquals(-1, v.snr(7));
+        assertEquals(0, assembler.pendingGroups());
+    }
+
+    public void testKeepsReceiversAndTalkersApart() {
+        feed(1, GSV1, 0);
+        feed(2, GSV1, 0);
+        feed(1, GSV1.replace("$GP", "$GL"), 0);
+        assertEquals(3, assembler.pendingGroups());
+        feed(2, GSV2, 5);
+        feed(1, GSV2, 5);
+        assertEquals(2, views.size());
+        assertEquals(2, views.get(0).source());
+        assertEquals(1, assembler.pendingGroups());
+    }
+
+    public void testDiscardsOutOfSequenceAndStaleGroups() {
+        feed(1, GSV2, 0);
+        assertEquals(1, assembler.discardedMessages());
+        feed(1, GSV1, 0);
+        feed(1, GSV2, 5000);
+        assertEquals(1, assembler.timedOutGroups());
+        assertTrue(views.isEmpty());
+
+        feed(3, GSV1, 6000);
+        assembler.expire(8000);
+        assertEquals(2, assembler.timedOutGroups());
+        assertEquals(0, assembler.pendingGroups());
+    }
+
+    public void testReusesSlotsWhenFull() {
+        for (int source = 0; source < 4; source++) feed(source, GSV1, 0);
+        feed(9, GSV1, 5000);
+        assertEquals(4, assembler.timedOutGroups());
+        feed(9, GSV2, 5001);
+        assertEquals(1, views.size());
+    }
+
+    public void testIgnoresOtherSentences() {
+        assertTrue(decoder.reset("$GPGLL,4916.45,N,12311.12,W,225444,A"));
+        assertFalse(assembler.accept(1, decoder, 0));
+    }
+}
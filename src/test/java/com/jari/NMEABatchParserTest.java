@@ -0,0 +1,136 @@
+package com.jari;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+public class NMEABatchParserTest extends TestCase {
+
+    private static final String GGA = "$GPGGA,123519,4807.038,N,01131.000,E,1,08,0.9,545.4,M,46.9,M,,*47";
+    private static final String RMC = "$GPRMC,123519,A,4807.038,N,01131.000,E,022.4,084.4,230394,003.1,W*6A";
+    private static final String VTG = "$GPVTG,054.7,T,034.4,M,005.5,N,010.2,K*48";
+    private static final String GSA = "$GPGSA,A,3,04,05,,09,12,,,24,,,,,2.5,1.3,2.1*39";
+    private static final String EMPTY_GGA = "$GPGGA,,,,,,0,,,,,,,,*66";
+
+    public void testFillsColumnsAndValidity() {
+        NMEAColumns c = new NMEAColumns(16);
+        NMEABatchParser parser = new NMEABatchParser();
+        assertEquals(5, parser.parse(Arrays.asList(GGA, RMC, VTG, GSA, EMPTY_GGA), c));
+        assertEquals(5, c.size());
+
+        assertEquals(NMEAType.GGA, c.type(0));
+        assertEquals(('G' << 8) | 'P', c.talker[0]);
+        assertEquals(45319000, c.time[0]);
+        assertEquals(48.1173, c.latitude[0], 1e-9);
+        assertEquals(11.516666666, c.longitude[0], 1e-6);
+        assertEquals(545.4, c.altitude[0], 0.0);
+        assertEquals(0.9, c.hdop[0], 0.0);
+        assertEquals(1, c.fixQuality[0]);
+        assertEquals(8, c.satellites[0]);
+        assertFalse(c.isValid(NMEAColumns.SPEED, 0));
+
+        assertEquals(22.4, c.speedKnots[1], 0.0);
+        assertFalse(c.isValid(NMEAColumns.ALTITUDE, 1));
+        assertEquals(5.5, c.speedKnots[2], 0.0);
+        assertFalse(c.isValid(NMEAColumns.TIME, 2));
+        assertEquals(1.3, c.hdop[3], 0.0);
+
+        // An empty GGA is a row with nothing but its type, talker and fix quality 0
+        assertEquals(NMEAType.GGA, c.type(4));
+        assertFalse(c.isValid(NMEAColumns.TIME, 4));
+        assertFalse(c.isValid(NMEAColumns.LATITUDE, 4));
+        assertTrue(c.isValid(NMEAColumns.FIX_QUALITY, 4));
+
+        assertEquals(5, c.validCount(NMEAColumns.TYPE));
+        assertEquals(2, c.validCount(NMEAColumns.LATITUDE));
+        assertEquals(2, c.validCount(NMEAColumns.SPEED));
+        assertEquals(2, c.validCount(NMEAColumns.HDOP));
+    }
+
+    public void testStopsWhenFullAndResumes() {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 100; i++) lines.add(GGA);
+        NMEAColumns c = new NMEAColumns(64);
+        NMEABatchParser parser = new NMEABatchParser();
+
+        int next = parser.parse(lines, c);
+        assertEquals(64, next);
+        assertTrue(c.isFull());
+        c.clear();
+        assertEquals(0, c.validCount(NMEAColumns.TYPE));
+        assertEquals(100, parser.parse(lines, next, c));
+        assertEquals(36, c.size());
+        assertEquals(100, parser.rowCount());
+    }
+
+    public void testRejectsAndSkips() {
+        List<NMEAError> dead = new ArrayList<>();
+        NMEABatchParser parser = new NMEABatchParser()
+                .types(NMEAType.GGA)
+                .onError(NMEAErrorPolicy.DEAD_LETTER, e -> dead.add(e.copy()));
+        NMEAColumns c = new NMEAColumns(8);
+        parser.parse(Arrays.asList(GGA, "$GPGGA,123519*00", "garbage", RMC), c);
+
+        assertEquals(1, c.size());
+        assertEquals(1, parser.skippedCount());
+        assertEquals(2, parser.rejectedCount());
+        assertEquals(1, parser.errorCount(NMEAStatus.CHECKSUM_MISMATCH));
+        assertEquals(1, parser.errorCount(NMEAStatus.MISSING_START));
+        assertEquals(2, dead.size());
+    }
+
+    public void testByteBufferLeavesIncompleteLine() {
+        for (boolean direct : new boolean[] { false, true }) {
+            byte[] text = ("noise " + GGA + "\r\n" + RMC + "\n" + VTG + "\n$GPGSA,A,3").getBytes(StandardCharsets.US_ASCII);
+            ByteBuffer in = direct ? ByteBuffer.allocateDirect(text.length) : ByteBuffer.allocate(text.length);
+            in.put(text).flip();
+            NMEAColumns c = new NMEAColumns(8);
+            NMEABatchParser parser = new NMEABatchParser();
+
+            assertEquals(3, parser.parse(in, c));
+            assertEquals(NMEAType.VTG, c.type(2));
+            assertEquals(48.1173, c.latitude[1], 1e-9);
+            assertEquals(text.length - "$GPGSA,A,3".length(), in.position());
+            assertEquals(0, parser.rejectedCount());
+        }
+    }
+
+    public void testByteBufferErrorsHaveNoPosition() {
+        List<NMEAError> dead = new ArrayList<>();
+        NMEABatchParser parser = new NMEABatchParser()
+                .onError(NMEAErrorPolicy.DEAD_LETTER, e -> dead.add(e.copy()));
+        ByteBuffer in = ByteBuffer.allocate(256);
+        NMEAColumns c = new NMEAColumns(8);
+
+        in.put((GGA + "\n$GPGGA,123519*00\n" + RMC.substring(0, 4)).getBytes(StandardCharsets.US_ASCII)).flip();
+        parser.parse(in, c);
+        in.compact();
+        in.put((RMC.substring(4) + "\n$GPGGA,123519*00\n").getBytes(StandardCharsets.US_ASCII)).flip();
+        parser.parse(in, c);
+
+        assertEquals(2, c.size());
+        assertEquals(2, dead.size());
+        assertEquals(-1, dead.get(0).position());
+        assertEquals(-1, dead.get(1).position());
+    }
+
+    public void testByteBufferStopsWhenFull() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 10; i++) sb.append(GGA).append('\n');
+        ByteBuffer in = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.US_ASCII));
+        NMEAColumns c = new NMEAColumns(4);
+        NMEABatchParser parser = new NMEABatchParser();
+
+        assertEquals(4, parser.parse(in, c));
+        assertEquals(4 * (GGA.length() + 1), in.position());
+        c.clear();
+        assertEquals(4, parser.parse(in, c));
+        c.clear();
+        assertEquals(2, parser.parse(in, c));
+        assertFalse(in.hasRemaining());
+    }
+}
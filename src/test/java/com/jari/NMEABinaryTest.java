@@ -0,0 +1,133 @@
+package com.jari;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+import junit.framework.TestCase;
+
+public class NMEABinaryTest extends TestCase {
+
+    private static NMEAFix fix(int second) {
+        NMEAFix f = new NMEAFix();
+        f.clear(3, ('G' << 8) | 'P');
+        f.types = EpochFusion.DEFAULT_REQUIRED;
+        f.time = 45319000 + second * 1000;
+        f.date = 19940323;
+        f.status = 'A';
+        f.latitude = 48.1173 + second * 1e-5;
+        f.longitude = -11.516667;
+        f.altitude = 545.4;
+        f.fixQuality = 1;
+        f.satellites = 8;
+        f.speedKnots = 22.4;
+        f.course = 84.4;
+        f.hdop = 0.9;
+        return f;
+    }
+
+    // junit 3.8 does not treat two NaNs as equal
+    private static void assertClose(double expected, double actual, double delta) {
+        if (Double.isNaN(expected)) assertTrue("expected NaN but was " + actual, Double.isNaN(actual));
+        else assertEquals(expected, actual, delta);
+    }
+
+    private static void assertSameFix(NMEAFix expected, NMEAFix actual) {
+        assertEquals(expected.source, actual.source);
+        assertEquals(expected.talker, actual.talker);
+        assertEquals(expected.types, actual.types);
+        assertEquals(expected.time, actual.time);
+        assertEquals(expected.date, actual.date);
+        assertEquals(expected.status, actual.status);
+        assertClose(expected.latitude, actual.latitude, 1e-7);
+        assertClose(expected.longitude, actual.longitude, 1e-7);
+        assertClose(expected.altitude, actual.altitude, 1e-9);
+        assertEquals(expected.satellites, actual.satellites);
+        assertClose(expected.speedKnots, actual.speedKnots, 1e-9);
+        assertClose(expected.hdop, actual.hdop, 1e-9);
+        assertEquals(expected.fixType, actual.fixType);
+        assertTrue(Double.isNaN(actual.pdop) == Double.isNaN(expected.pdop));
+        assertTrue(Double.isNaN(actual.sigmaAlt) == Double.isNaN(expected.sigmaAlt));
+    }
+
+    public void testRowStreamRoundTrip() {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        NMEABinaryWriter writer = new NMEABinaryWriter(buffer);
+        SkyView view = new SkyView();
+        view.clear(3, ('G' << 8) | 'P');
+        view.satellitesInView = 2;
+        view.add(1, 40, 83, 41);
+        view.add(2, 17, 63, -1);
+
+        for (int i = 0; i < 10; i++) assertTrue(writer.write(fix(i)));
+        assertTrue(writer.write(view));
+        NMEAFix empty = new NMEAFix();
+        assertTrue(writer.write(empty));
+        buffer.flip();
+
+        NMEABinaryReader reader = new NMEABinaryReader(buffer);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(NMEABinary.FIX, reader.next());
+            assertSameFix(fix(i), reader.fix());
+        }
+        assertEquals(NMEABinary.SKY_VIEW, reader.next());
+        assertEquals(2, reader.skyView().satelliteCount());
+        assertEquals(63, reader.skyView().azimuth(1));
+        assertEquals(-1, reader.skyView().snr(1));
+        assertEquals(NMEABinary.FIX, reader.next());
+        assertSameFix(empty, reader.fix());
+        assertEquals(NMEABinary.END, reader.next());
+        assertEquals(0, buffer.position());
+    }
+
+    public void testDeltaEncodedFixesAreSmall() {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        NMEABinaryWriter writer = new NMEABinaryWriter(buffer);
+        int header = buffer.position();
+        writer.write(fix(0));
+        int first = buffer.position() - header;
+        writer.write(fix(1));
+        assertTrue("first fix: " + first, first <= 40);
+        assertTrue("following fix: " + ((buffer.position() - header - first)), buffer.position() - header - first <= 30);
+    }
+
+    public void testFullBufferLeavesStreamIntact() {
+        ByteBuffer buffer = ByteBuffer.allocate(48);
+        NMEABinaryWriter writer = new NMEABinaryWriter(buffer);
+        assertTrue(writer.write(fix(0)));
+        int used = buffer.position();
+        assertFalse(writer.write(fix(1)));
+        assertEquals(used, buffer.position());
+        assertEquals(1, writer.recordCount());
+    }
+
+    public void testRejectsUnknownVersion() {
+        ByteBuffer buffer = ByteBuffer.wrap(new byte[] { 'N', 'M', 'B', 9 });
+        try {
+            new NMEABinaryReader(buffer);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            assertTrue(expected.getMessage().contains("version"));
+        }
+    }
+
+    public void testColumnarRoundTrip() throws Exception {
+        NMEAColumnarWriter writer = new NMEAColumnarWriter();
+        for (int i = 0; i < 100; i++) writer.add(fix(i));
+        writer.add(new NMEAFix());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.writeTo(out);
+        assertEquals(writer.blockLength(), out.size());
+        assertEquals(ByteBuffer.wrap(out.toByteArray()), writer.toByteBuffer());
+
+        NMEAColumnarReader reader = new NMEAColumnarReader(ByteBuffer.wrap(out.toByteArray()));
+        assertEquals(101, reader.size());
+        NMEAFix f = new NMEAFix();
+        for (int i = 0; i < 100; i++) {
+            assertTrue(reader.next(f));
+            assertSameFix(fix(i), f);
+        }
+        assertTrue(reader.next(f));
+        assertSameFix(new NMEAFix(), f);
+        assertFalse(reader.next(f));
+    }
+}
@@ -0,0 +1,56 @@
+package com.jari;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import junit.framework.TestCase;
+
+public class NMEAChecksumTest extends TestCase {
+
+    private static final String GGA = "$GPGGA,123519,4807.038,N,01131.000,E,1,08,0.9,545.4,M,46.9,M,,*47";
+
+    public void testComputeOnAllSources() {
+        byte[] bytes = GGA.getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes);
+        assertEquals(0x47, NMEAChecksum.compute(GGA, 1, GGA.length()));
+        assertEquals(0x47, NMEAChecksum.compute(bytes, 1, bytes.length));
+        assertEquals(0x47, NMEAChecksum.compute(direct, 1, bytes.length));
+        assertEquals(0x47, NMEAChecksum.compute(ByteBuffer.wrap(bytes), 1, bytes.length));
+    }
+
+    public void testValidation() {
+        assertTrue(NMEAChecksum.isValid(GGA, 0, GGA.length(), true));
+        assertFalse(NMEAChecksum.isValid(GGA.replace("*47", "*48"), 0, GGA.length(), false));
+        assertFalse(NMEAChecksum.isValid(GGA.replace("*47", "*4"), 0, GGA.length() - 1, false));
+        assertFalse(NMEAChecksum.isValid(GGA.replace("*47", "*4G"), 0, GGA.length(), false));
+
+        String bare = GGA.substring(0, GGA.indexOf('*'));
+        assertTrue(NMEAChecksum.isValid(bare, 0, bare.length(), false));
+        assertFalse(NMEAChecksum.isValid(bare, 0, bare.length(), true));
+    }
+
+    public void testParserKeepsItsContract() {
+        assertTrue(NMEAParser.isValidChecksum(GGA + "\r\n"));
+        assertTrue(NMEAParser.isValidChecksum("$GPGGA,123519*7f".replace("7f", hex("GPGGA,123519").toLowerCase())));
+        assertTrue(NMEAParser.isValidChecksum("$GPGLL,4916.45,N,12311.12,W,225444,A"));
+        assertFalse(NMEAParser.isValidChecksum("$GPGLL,4916.45,N,12311.12,W,225444,A", true));
+        try {
+            NMEAParser.of("$GPGLL,4916.45,N,12311.12,W,225444,A", true, true);
+            fail();
+        } catch (RuntimeException expected) {
+            // ChecksumException is an auxiliary class of NMEAParser.java; naming it here makes javac warn
+            assertEquals("ChecksumException", expected.getClass().getSimpleName());
+        }
+    }
+
+    public void testDecoderRequireChecksum() {
+        NMEASentenceDecoder d = new NMEASentenceDecoder(true, true);
+        assertFalse(d.reset("$GPGLL,4916.45,N,12311.12,W,225444,A"));
+        assertTrue(d.reset(GGA));
+    }
+
+    private static String hex(String body) {
+        return NMEAChecksum.appendHex(new StringBuilder(), NMEAChecksum.compute(body, 0, body.length())).toString();
+    }
+}
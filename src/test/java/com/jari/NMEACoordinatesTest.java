@@ -0,0 +1,79 @@
+package com.jari;
+
+import junit.framework.TestCase;
+
+public class NMEACoordinatesTest extends TestCase {
+
+    private static long e7(String value, char dir) {
+        return NMEACoordinates.toE7(value, 0, value.length(), dir);
+    }
+
+    public void testFixedPoint() {
+        assertEquals(481173000L, e7("4807.038", 'N'));
+        assertEquals(115166667L, e7("01131.000", 'E'));
+        assertEquals(-1231853333L, e7("12311.12", 'W'));
+        assertEquals(-491075000L, e7("4906.45", 'S'));
+        assertEquals(480000000L, e7("4800", 'N'));
+        assertEquals(NMEACoordinates.INVALID, e7("", 'N'));
+        assertEquals(NMEACoordinates.INVALID, e7("48a7.0", 'N'));
+        assertEquals(NMEACoordinates.INVALID, e7("4.807", 'N'));
+    }
+
+    public void testRoundsHalfUpOnTheExactValue() {
+        // 0.0003 minutes is exactly 0.000005 degrees
+        String v = "0000.0003";
+        assertEquals(5, NMEACoordinates.toFixed(v, 0, v.length(), 'N', 6));
+        assertEquals(1, NMEACoordinates.toFixed(v, 0, v.length(), 'N', 5));
+        assertEquals(-1, NMEACoordinates.toFixed(v, 0, v.length(), 'S', 5));
+    }
+
+    public void testManyMinuteDecimalsFallBackToDouble() {
+        String v = "4807.03812345678901234";
+        assertEquals(481173021L, NMEACoordinates.toE7(v, 0, v.length(), 'N'));
+    }
+
+    public void testRejectsMinutesOfSixtyOrMore() {
+        assertEquals(NMEACoordinates.INVALID, e7("4875.000", 'N'));
+        assertEquals(NMEACoordinates.INVALID, e7("4860", 'N'));
+        assertEquals(489998333L, e7("4859.990", 'N'));
+        // Used to overflow minutes * 10^decimals with 10 fraction digits
+        String v = "4899.9999999999";
+        assertEquals(NMEACoordinates.INVALID, NMEACoordinates.toFixed(v, 0, v.length(), 'N', 7));
+        v = "4859.9999999999";
+        assertEquals(490000000L, NMEACoordinates.toFixed(v, 0, v.length(), 'N', 7));
+    }
+
+    public void testDegreesRejectWhatFixedRejects() {
+        String[] bad = { "4875.000", "4860", "4.807", "1e3", "-4807.038", "48.07.038", "", "4807,038" };
+        for (String v : bad) {
+            assertTrue(v, Double.isNaN(NMEACoordinates.toDegrees(v, 0, v.length(), 'N')));
+            assertEquals(v, NMEACoordinates.INVALID, e7(v, 'N'));
+        }
+        assertEquals(-48.1173, NMEACoordinates.toDegrees("4807.038", 0, 8, 'S'), 1e-12);
+        assertEquals(48.0, NMEACoordinates.toDegrees("4800", 0, 4, 'N'), 0.0);
+
+        NMEASentenceDecoder d = new NMEASentenceDecoder(false);
+        assertTrue(d.reset("$GPGLL,4875.000,N,01131.000,E,225444,A"));
+        assertTrue(Double.isNaN(d.fieldAsDegrees(NMEAFields.GLL_LATITUDE, NMEAFields.GLL_LAT_DIR)));
+    }
+
+    public void testFormat() {
+        assertEquals("48.117300", NMEACoordinates.format(48117300L, 6));
+        assertEquals("-0.000005", NMEACoordinates.format(-5L, 6));
+        assertEquals("11", NMEACoordinates.format(11L, 0));
+    }
+
+    public void testParserUsesCachedNumericCoordinates() {
+        NMEAParser p = NMEAParser.of("$GPGGA,123519,4807.038,N,01131.000,E,1,08,0.9,545.4,M,46.9,M,,*47");
+        assertEquals("48.117300", p.getFormattedLatitude());
+        assertEquals("11.516667", p.getFormattedLongitude());
+        assertSame(p.getFormattedLatitude(), p.getFormattedLatitude());
+        assertEquals(48.1173, p.getLatitude(), 0.0);
+        assertEquals(115166667L, p.getLongitudeE7());
+        assertEquals("48.117300", p.toData().formattedLatitude);
+
+        NMEAParser vtg = NMEAParser.of("$GPVTG,054.7,T,034.4,M,005.5,N,010.2,K*48");
+        assertEquals("", vtg.getFormattedLatitude());
+        assertTrue(Double.isNaN(vtg.getLatitude()));
+    }
+}
@@ -0,0 +1,59 @@
+package com.jari;
+
+import java.io.ByteArrayInputStream;
+
+import junit.framework.TestCase;
+
+public class NMEAErrorTest extends TestCase {
+
+    private static final String GGA = "$GPGGA,123519,4807.038,N,01131.000,E,1,08,0.9,545.4,M,46.9,M,,*47";
+
+    public void testTryParseReportsInsteadOfThrowing() {
+        NMEAError error = new NMEAError();
+        assertNotNull(NMEAParser.tryParse(GGA, error));
+        assertNull(NMEAParser.tryParse(GGA.replace("*47", "*48"), error));
+        assertEquals(NMEAStatus.CHECKSUM_MISMATCH, error.status());
+        assertEquals(GGA.replace("*47", "*48"), error.text().toString());
+        assertNull(NMEAParser.tryParse("GPGGA,123519", error));
+        assertEquals(NMEAStatus.MISSING_START, error.status());
+        assertNull(NMEAParser.tryParse("$GP", error));
+        assertEquals(NMEAStatus.TOO_SHORT, error.status());
+        assertNull(NMEAParser.tryParse(null, null));
+    }
+
+    public void testThrowingApiIsAWrapper() {
+        try {
+            NMEAParser.of(GGA.replace("*47", "*48"));
+            fail();
+        } catch (RuntimeException expected) {
+            // ChecksumException is an auxiliary class of NMEAParser.java; naming it here makes javac warn
+            assertEquals("ChecksumException", expected.getClass().getSimpleName());
+        }
+        try {
+            NMEAParser.of("$GP");
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+        assertNull(NMEAParser.of("").get("type"));
+    }
+
+    public void testPipelineCountsPerStatus() throws Exception {
+        NMEAPipeline pipeline = NMEAPipeline.create((source, d) -> { })
+                .workers(2).onError(NMEAErrorPolicy.COUNT, null).start();
+        pipeline.submit(1, GGA);
+        pipeline.submit(1, GGA.replace("*47", "*48"));
+        pipeline.submit(2, "GPGGA");
+        pipeline.close();
+        assertEquals(1, pipeline.errorCount(NMEAStatus.CHECKSUM_MISMATCH));
+        assertEquals(1, pipeline.errorCount(NMEAStatus.MISSING_START));
+        assertEquals(2, pipeline.rejectedCount());
+    }
+
+    public void testDeadLetterNeedsASink() {
+        try {
+            new NMEAStreamReader(new ByteArrayInputStream(new byte[0])).onError(NMEAErrorPolicy.DEAD_LETTER, null);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.jari;
+
+import junit.framework.TestCase;
+
+public class NMEAHandlerRegistryTest extends TestCase {
+
+    public void testLooksUpByFormatterForEveryTalker() {
+        NMEAHandlerRegistry<String> registry = new NMEAHandlerRegistry<String>().register("GGA", "gga");
+        NMEASentenceDecoder d = new NMEASentenceDecoder(false);
+        for (String talker : new String[] { "GP", "GN", "GL", "GA", "GB" }) {
+            assertTrue(d.reset("$" + talker + "GGA,123519"));
+            assertEquals("gga", registry.lookup(d));
+        }
+        assertTrue(d.reset("$GPRMC,123519"));
+        assertNull(registry.lookup(d));
+    }
+
+    public void testProprietaryAndRuntimeRegistration() {
+        NMEAHandlerRegistry<NMEASentenceHandler> registry = new NMEAHandlerRegistry<>();
+        NMEASentenceDecoder d = new NMEASentenceDecoder(false);
+        assertTrue(d.reset("$PGRME,15.0,M,45.0,M,25.0,M"));
+        assertNull(registry.lookup(d));
+
+        StringBuilder seen = new StringBuilder();
+        registry.registerProprietary("GRM", s -> seen.append(s.fieldAsString(0)));
+        registry.lookup(d).handle(d);
+        assertEquals("PGRME", seen.toString());
+
+        registry.unregisterProprietary("GRM");
+        assertNull(registry.lookup(d));
+    }
+
+    public void testRejectsBadIds() {
+        try {
+            new NMEAHandlerRegistry<String>().register("gga", "x");
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    public void testParserHandlesOtherTalkersAndCustomTypes() {
+        NMEAParser gn = NMEAParser.of("$GNGGA,123519,4807.038,N,01131.000,E,1,08,0.9,545.4,M,46.9,M,,", false);
+        assertEquals(NMEAType.GGA, gn.getSentenceType());
+        assertEquals("545.4", gn.toData().altitude);
+        assertTrue(gn.summary().contains("Altitude: 545.4 M"));
+
+        assertEquals("Unsupported sentence type: HEHDT", NMEAParser.of("$HEHDT,274.07,T", false).toData().message);
+        NMEAParser.registerHandler("HDT", (fields, data) -> data.put("heading", fields[1]));
+        try {
+            NMEAParser hdt = NMEAParser.of("$HEHDT,274.07,T", false);
+            assertEquals("274.07", hdt.get("heading"));
+            assertNull(hdt.toData().message);
+            assertTrue(hdt.summary().contains("heading: 274.07"));
+        } finally {
+            NMEAParser.unregisterHandler("HDT");
+        }
+        assertEquals("Unsupported sentence type: HEHDT", NMEAParser.of("$HEHDT,274.07,T", false).toData().message);
+    }
+
+    public void testUnregisterRestoresBuiltInHandler() {
+        String gga = "$GPGGA,123519,4807.038,N,01131.000,E,1,08,0.9,545.4,M,46.9,M,,";
+        NMEAParser.registerHandler("GGA", (fields, data) -> data.put("custom", "yes"));
+        try {
+            assertEquals("yes", NMEAParser.of(gga, false).get("custom"));
+        } finally {
+            NMEAParser.unregisterHandler("GGA");
+        }
+        NMEAParser restored = NMEAParser.of(gga, false);
+        assertNull(restored.get("custom"));
+        assertEquals("545.4", restored.toData().altitude);
+    }
+}
@@ -0,0 +1,58 @@
+package com.jari;
+
+import junit.framework.TestCase;
+
+public class NMEALazySentenceTest extends TestCase {
+
+    private static final String GGA = "$GPGGA,123519,4807.038,N,01131.000,E,1,08,0.9,545.4,M,46.9,M,,*47";
+    private static final String RMC = "$GPRMC,123519,A,4807.038,N,01131.000,W,022.4,084.4,230394,003.1,W";
+    private static final String GSA = "$GPGSA,A,3,04,05,,09,12,,,24,,,,,2.5,1.3,2.1*39";
+
+    public void testPositionAndTime() {
+        NMEALazySentence s = NMEALazySentence.of(GGA + "\r\n");
+        assertEquals(NMEAType.GGA, s.type());
+        assertEquals(GGA, s.text());
+        assertEquals(45319000, s.time());
+        assertEquals(48.1173, s.latitude(), 1e-9);
+        assertEquals(11.516666666, s.longitude(), 1e-8);
+        assertEquals(545.4, s.altitude(), 0.0);
+        assertEquals(0.9, s.hdop(), 0.0);
+        assertEquals(-1, s.date());
+        assertEquals(0, s.satelliteUsedCount());
+    }
+
+    public void testMemoizedValuesAreStable() {
+        NMEALazySentence s = NMEALazySentence.of(RMC);
+        assertEquals(22.4, s.speedKnots(), 0.0);
+        assertEquals(22.4, s.speedKnots(), 0.0);
+        assertEquals(-11.516666666, s.longitude(), 1e-8);
+        assertEquals(19940323, s.date());
+        assertEquals(19940323, s.date());
+        assertEquals(84.4, s.course(), 0.0);
+        assertTrue(Double.isNaN(s.altitude()));
+    }
+
+    public void testSatellitesUsed() {
+        NMEALazySentence s = NMEALazySentence.of(GSA);
+        assertEquals(5, s.satelliteUsedCount());
+        assertEquals(24, s.satelliteUsed(4));
+        assertEquals(1.3, s.hdop(), 0.0);
+        assertFalse(s.hasPosition());
+    }
+
+    public void testIndependentOfDecoder() {
+        NMEASentenceDecoder d = new NMEASentenceDecoder();
+        byte[] bytes = ("xx" + GSA).getBytes();
+        assertTrue(d.reset(bytes, 2, bytes.length - 2));
+        NMEALazySentence s = NMEALazySentence.from(d);
+        assertTrue(d.reset(GGA));
+        assertEquals(NMEAType.GSA, s.type());
+        assertEquals(GSA, s.text());
+        assertEquals(2.1, s.fieldAsDouble(NMEAFields.GSA_VDOP), 0.0);
+        assertEquals("A", s.fieldAsString(NMEAFields.GSA_MODE));
+    }
+
+    public void testRejectsBadChecksum() {
+        assertNull(NMEALazySentence.of(GGA.replace("*47", "*48")));
+    }
+}
@@ -0,0 +1,126 @@
+package com.jari;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import junit.framework.TestCase;
+
+public class NMEALogFileTest extends TestCase {
+
+    private Path file;
+    private ForkJoinPool pool;
+
+    @Override
+    protected void setUp() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            // Millis-of-day doubles as the sequence number used to check ordering
+            sb.append(String.format("1700000000.%03d ", i % 1000));
+            sb.append(withChecksum(String.format("GPGGA,%06d.%03d,4807.038,N,01131.000,E,1,08,0.9,545.4,M,46.9,M,,", i / 1000, i % 1000)));
+            sb.append("\r\n");
+            if (i % 10 == 0) sb.append("$GPVTG,054.7,T,034.4,M,005.5,N,010.2,K*00\n"); // bad checksum
+            if (i % 25 == 0) sb.append(withChecksum("PGRME,15.0,M,45.0,M,25.0,M")).append('\n');
+        }
+        file = Files.createTempFile("nmea", ".log");
+        Files.write(file, sb.toString().getBytes(StandardCharsets.US_ASCII));
+        pool = new ForkJoinPool(4);
+    }
+
+    @Override
+    protected void tearDown() throws IOException {
+        pool.shutdown();
+        Files.deleteIfExists(file);
+    }
+
+    static String withChecksum(String body) {
+        int cs = 0;
+        for (int i = 0; i < body.length(); i++) cs ^= body.charAt(i);
+        return String.format("$%s*%02X", body, cs);
+    }
+
+    public void testOrderedParseKeepsFileOrder() throws IOException {
+        List<NMEASentence> out = new ArrayList<>();
+        NMEALogStats stats;
+        try (NMEALogFile log = NMEALogFile.open(file).chunkSize(1024).pool(pool)) {
+            assertTrue(log.chunkBounds().length > 10);
+            stats = log.parse(out::add);
+        }
+        assertEquals(500, out.size());
+        for (int i = 0; i < out.size(); i++) assertEquals(i, ((GGASentence) out.get(i)).time);
+        assertEquals(500, stats.count(NMEAType.GGA));
+        assertEquals(20, stats.count(NMEAType.UNKNOWN));
+        assertEquals(50, stats.rejected());
+        assertEquals(Files.size(file), stats.bytes());
+    }
+
+    public void testUnorderedParseCountsEverything() throws IOException {
+        AtomicLong sum = new AtomicLong();
+        NMEALogStats stats;
+        try (NMEALogFile log = NMEALogFile.open(file).chunkSize(700).pool(pool)) {
+            stats = log.parseUnordered(s -> sum.addAndGet(((GGASentence) s).time));
+        }
+        assertEquals(499L * 500 / 2, sum.get());
+        assertEquals(520, stats.sentences());
+    }
+
+    public void testRejectedLinesGoToTheDeadLetterSink() throws IOException {
+        AtomicLong dead = new AtomicLong();
+        NMEALogStats stats;
+        try (NMEALogFile log = NMEALogFile.open(file).chunkSize(1024).pool(pool)
+                .onError(NMEAErrorPolicy.DEAD_LETTER, e -> {
+                    if (e.status() == NMEAStatus.CHECKSUM_MISMATCH && e.text().charAt(0) == '$') dead.incrementAndGet();
+                })) {
+            stats = log.parseUnordered(s -> { });
+        }
+        assertEquals(50, dead.get());
+        assertEquals(50, stats.errors(NMEAStatus.CHECKSUM_MISMATCH));
+    }
+
+    public void testFailedParseCancelsPendingChunks() throws Exception {
+        ForkJoinPool single = new ForkJoinPool(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicLong decoded = new AtomicLong();
+        Thread caller = Thread.currentThread();
+        try (NMEALogFile log = NMEALogFile.open(file).chunkSize(700).pool(single)
+                .onError(NMEAErrorPolicy.DEAD_LETTER, e -> decoded.incrementAndGet())) {
+            // Hold the only worker, so the parse's chunks stay queued behind it
+            single.execute(() -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            started.await();
+            // Interrupt the parse once it waits on its queued chunks
+            Thread interrupter = new Thread(() -> {
+                while (single.getQueuedSubmissionCount() < 2) Thread.yield();
+                caller.interrupt();
+            });
+            interrupter.start();
+            try {
+                log.parse(s -> { });
+                fail();
+            } catch (IOException expected) {
+                assertTrue(Thread.interrupted());
+            }
+            interrupter.join();
+            release.countDown();
+            assertTrue(single.awaitQuiescence(10, TimeUnit.SECONDS));
+        } finally {
+            single.shutdown();
+        }
+        // Both queued chunks hold one bad line; the waiting caller may decode one itself, never both
+        assertTrue("decoded " + decoded.get(), decoded.get() < 2);
+    }
+}
@@ -0,0 +1,169 @@
+package com.jari;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import junit.framework.TestCase;
+
+import static com.jari.NMEALogFileTest.withChecksum;
+
+public class NMEALogIndexTest extends TestCase {
+
+    // 2024-06-01 23:00:00 UTC; one fix per second for two hours, crossing midnight
+    private static final long START = 1717282800000L;
+    private static final int FIXES = 7200;
+
+    private Path file;
+    private ForkJoinPool pool;
+
+    @Override
+    protected void setUp() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < FIXES; i++) {
+            long t = START + i * 1000L;
+            String time = String.format("%02d%02d%02d.00", t / 3_600_000 % 24, t / 60_000 % 60, t / 1000 % 60);
+            // Heads east along 48N, 0.0005 degrees (about 37 m) per second
+            double lon = 11 + i * 0.0005;
+            String position = String.format("4800.000,N,%03d%06.3f,E", (int) lon, (lon - (int) lon) * 60);
+            sb.append(withChecksum("GPGGA," + time + "," + position + ",1,08,0.9,545.4,M,46.9,M,,")).append("\r\n");
+            // The date arrives only every tenth second, so GGA before it must borrow one
+            if (i % 10 == 5) {
+                String date = (t < START + 3_600_000) ? "010624" : "020624";
+                sb.append(withChecksum("GPRMC," + time + ",A," + position + ",072.0,090.0," + date + ",,")).append("\r\n");
+            }
+        }
+        file = Files.createTempFile("nmea", ".log");
+        Files.write(file, sb.toString().getBytes(StandardCharsets.US_ASCII));
+        pool = new ForkJoinPool(4);
+    }
+
+    @Override
+    protected void tearDown() throws IOException {
+        pool.shutdown();
+        Files.deleteIfExists(NMEALogIndex.sidecar(file));
+        Files.deleteIfExists(file);
+    }
+
+    private NMEALogIndex build(NMEALogFile log) throws IOException {
+        return NMEALogIndex.build(log, Files.getLastModifiedTime(file).toMillis(), 4096, 0.01);
+    }
+
+    private static List<GGASentence> fixes(NMEALogFile log, long[] ranges) throws IOException {
+        List<GGASentence> out = new ArrayList<>();
+        log.parse(ranges, s -> {
+            if (s instanceof GGASentence) out.add((GGASentence) s);
+        });
+        return out;
+    }
+
+    public void testTimeQueryReadsOnlyMatchingBlocks() throws IOException {
+        try (NMEALogFile log = NMEALogFile.open(file).chunkSize(20_000).pool(pool)) {
+            NMEALogIndex index = build(log);
+            assertTrue(index.blockCount() > 100);
+
+            // 23:59:00 .. 00:01:00, across midnight
+            long from = START + 3_540_000, to = START + 3_660_000;
+            long[] ranges = index.ranges(from, to);
+            long bytes = 0;
+            for (int i = 0; i < ranges.length; i += 2) bytes += ranges[i + 1] - ranges[i];
+            assertTrue(bytes < log.size() / 20);
+
+            List<GGASentence> fixes = fixes(log, ranges);
+            int inRange = 0;
+            for (GGASentence g : fixes) {
+                long t = (g.time < 3_600_000) ? START + 3_600_000 + g.time : START - 82_800_000 + g.time;
+                if (t >= from && t <= to) inRange++;
+            }
+            assertEquals(121, inRange);
+        }
+    }
+
+    public void testAreaQueryFindsEveryFixInTheBox() throws IOException {
+        try (NMEALogFile log = NMEALogFile.open(file).chunkSize(20_000).pool(pool)) {
+            NMEALogIndex index = build(log);
+            long[] ranges = index.ranges(47.99, 12.0, 48.01, 12.1);
+            List<GGASentence> fixes = fixes(log, ranges);
+            int inBox = 0;
+            for (GGASentence g : fixes) {
+                if (g.longitude >= 12.0 && g.longitude <= 12.1) inBox++;
+            }
+            // 0.1 degrees at 0.0005 per fix
+            assertEquals(201, inBox, 1);
+            assertTrue(fixes.size() < FIXES / 10);
+
+            assertEquals(0, index.ranges(50, 12, 51, 13).length);
+            assertEquals(0, index.ranges(START, START + 600_000, 47.99, 14.0, 48.01, 14.1).length);
+        }
+    }
+
+    public void testSidecarRoundTripAndStaleness() throws IOException {
+        NMEALogIndex built = NMEALogIndex.forFile(file);
+        assertTrue(Files.exists(NMEALogIndex.sidecar(file)));
+        NMEALogIndex loaded = NMEALogIndex.read(NMEALogIndex.sidecar(file));
+        assertEquals(built.blockCount(), loaded.blockCount());
+        long from = START + 1_000_000, to = START + 1_100_000;
+        assertTrue(Arrays.equals(built.ranges(from, to), loaded.ranges(from, to)));
+        assertTrue(Arrays.equals(built.ranges(48, 11.5, 48.1, 11.6), loaded.ranges(48, 11.5, 48.1, 11.6)));
+        assertTrue(loaded.isCurrent(file));
+
+        Files.write(file, "$GPGGA,000000,,,,,0,,,,,,,,\n".getBytes(StandardCharsets.US_ASCII), StandardOpenOption.APPEND);
+        assertFalse(loaded.isCurrent(file));
+        assertTrue(NMEALogIndex.forFile(file).logSize() == Files.size(file));
+    }
+
+    public void testWholeFileRangeParsesEverything() throws IOException {
+        try (NMEALogFile log = NMEALogFile.open(file).chunkSize(20_000).pool(pool)) {
+            NMEALogIndex index = build(log);
+            long[] all = index.ranges(Long.MIN_VALUE + 1, Long.MAX_VALUE);
+            assertEquals(2, all.length);
+            assertEquals(0, all[0]);
+            assertEquals(log.size(), all[1]);
+            assertEquals(FIXES, fixes(log, all).size());
+        }
+    }
+
+    public void testDamagedSidecarIsRebuilt() throws IOException {
+        NMEALogIndex built = NMEALogIndex.forFile(file);
+        Path sidecar = NMEALogIndex.sidecar(file);
+        byte[] bytes = Files.readAllBytes(sidecar);
+
+        Files.write(sidecar, Arrays.copyOf(bytes, bytes.length / 2));
+        assertEquals(built.blockCount(), NMEALogIndex.forFile(file).blockCount());
+        assertEquals(bytes.length, Files.size(sidecar));
+
+        Files.write(sidecar, "not an index".getBytes(StandardCharsets.US_ASCII));
+        assertEquals(built.blockCount(), NMEALogIndex.forFile(file).blockCount());
+        assertTrue(NMEALogIndex.read(sidecar).isCurrent(file));
+    }
+
+    public void testCorruptCountsInSidecarAreRebuilt() throws IOException {
+        NMEALogIndex built = NMEALogIndex.forFile(file);
+        Path sidecar = NMEALogIndex.sidecar(file);
+        byte[] bytes = Files.readAllBytes(sidecar);
+        int blockCount = 3 + 1 + 8 + 8 + 4 + 8;
+        int cellCount = blockCount + 4 + 8 * 8;
+
+        for (int offset : new int[] { blockCount, cellCount }) {
+            for (int n : new int[] { -1, Integer.MAX_VALUE }) {
+                byte[] corrupt = bytes.clone();
+                ByteBuffer.wrap(corrupt).putInt(offset, n);
+                Files.write(sidecar, corrupt);
+                try {
+                    NMEALogIndex.read(sidecar);
+                    fail("count " + n + " at " + offset);
+                } catch (IOException expected) {
+                }
+                assertEquals(built.blockCount(), NMEALogIndex.forFile(file).blockCount());
+                assertTrue(Arrays.equals(bytes, Files.readAllBytes(sidecar)));
+            }
+        }
+    }
+}
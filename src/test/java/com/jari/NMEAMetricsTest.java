@@ -0,0 +1,85 @@
+package com.jari;
+
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+
+import javax.management.ObjectName;
+
+import junit.framework.TestCase;
+
+public class NMEAMetricsTest extends TestCase {
+
+    private static final String GGA = "$GPGGA,123519,4807.038,N,01131.000,E,1,08,0.9,545.4,M,46.9,M,,*47";
+    private static final String GSA = "$GNGSA,A,3,04,05,,09,12,,,24,,,,,2.5,1.3,2.1";
+
+    public void testHistogramBucketsBoundValues() {
+        for (long v : new long[] { 0, 1, 15, 16, 17, 100, 1_000, 123_456, 1L << 40, Long.MAX_VALUE }) {
+            int b = LatencyHistogram.bucket(v);
+            assertTrue(v <= LatencyHistogram.highestValue(b));
+            assertTrue(b == 0 || v > LatencyHistogram.highestValue(b - 1));
+            assertTrue(LatencyHistogram.highestValue(b) - v <= v / 8);
+        }
+        LatencyHistogram h = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) h.record(i * 10);
+        assertEquals(50.5 * 10, h.mean(), 1e-9);
+        long p50 = h.percentile(50);
+        assertTrue(p50 >= 500 && p50 <= 500 * 9 / 8);
+        assertEquals(LatencyHistogram.highestValue(LatencyHistogram.bucket(1000)), h.percentile(100));
+    }
+
+    public void testStreamReaderCountsByTalkerAndType() throws Exception {
+        NMEAMetricsRegistry metrics = new NMEAMetricsRegistry();
+        String feed = GGA + "\r\n" + GSA + "\r\n" + GGA.replace("*47", "*48") + "\r\n$GPGGA,1" + GGA + "\r\n";
+        NMEAStreamReader reader = new NMEAStreamReader(new ByteArrayInputStream(feed.getBytes())).metrics(metrics);
+        while (reader.next() != null) { }
+
+        assertEquals(3, metrics.getSentences());
+        assertEquals(2, metrics.count("GP", NMEAType.GGA));
+        assertEquals(1, metrics.count("GN", NMEAType.GSA));
+        assertEquals(1, metrics.getChecksumFailures());
+        assertEquals(1, metrics.getMalformedSentences());
+        assertEquals(Long.valueOf(2), metrics.getSentencesByTalkerAndType().get("GP.GGA"));
+    }
+
+    public void testParserAndAssemblerReportToMetrics() {
+        NMEAMetricsRegistry metrics = new NMEAMetricsRegistry();
+        NMEAParser.setMetrics(metrics);
+        try {
+            NMEAParser.of(GGA);
+            NMEAParser.of("$GPHDT,274.07,T*03", false);
+            try {
+                NMEAParser.of(GGA.replace("*47", "*48"));
+                fail();
+            } catch (RuntimeException expected) {
+                // ChecksumException is an auxiliary class of NMEAParser.java; naming it here makes javac warn
+                assertEquals("ChecksumException", expected.getClass().getSimpleName());
+            }
+        } finally {
+            NMEAParser.setMetrics(null);
+        }
+        assertEquals(2, metrics.getSentences());
+        assertEquals(1, metrics.getUnsupportedSentences());
+        assertEquals(1, metrics.getChecksumFailures());
+        assertTrue(metrics.getParseNanosMax() > 0);
+
+        GSVAssembler assembler = new GSVAssembler(4, 1000, v -> { }).metrics(metrics);
+        NMEASentenceDecoder d = new NMEASentenceDecoder(false);
+        d.reset("$GPGSV,1,1,01,01,40,083,41");
+        assembler.accept(1, d, 0);
+        d.reset("$GPGSV,2,1,08,01,40,083,41");
+        assembler.accept(1, d, 0);
+        assembler.expire(5000);
+        assertEquals(0.5, metrics.getGsvCompletionRate(), 0.0);
+    }
+
+    public void testExposedThroughJmx() throws Exception {
+        NMEAMetricsRegistry metrics = new NMEAMetricsRegistry().register("test");
+        try {
+            metrics.checksumFailure();
+            ObjectName name = new ObjectName("com.jari:type=NMEAMetrics,name=\"test\"");
+            assertEquals(1L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "ChecksumFailures"));
+        } finally {
+            metrics.unregister("test");
+        }
+    }
+}
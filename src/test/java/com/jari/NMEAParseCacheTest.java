@@ -0,0 +1,65 @@
+package com.jari;
+
+import java.util.EnumSet;
+
+import junit.framework.TestCase;
+
+public class NMEAParseCacheTest extends TestCase {
+
+    private static final String GSA = "$GPGSA,A,3,04,05,,09,12,,,24,,,,,2.5,1.3,2.1*39";
+    private static final String VTG = "$GPVTG,054.7,T,034.4,M,005.5,N,010.2,K";
+    private static final String GGA = "$GPGGA,123519,4807.038,N,01131.000,E,1,08,0.9,545.4,M,46.9,M,,";
+
+    public void testDecoderHashMatchesStringHash() {
+        NMEASentenceDecoder d = new NMEASentenceDecoder();
+        assertTrue(d.reset(GSA + "\r\n"));
+        assertEquals(GSA.hashCode(), d.hash());
+        assertTrue(d.reset(GSA.getBytes(), 0, GSA.length()));
+        assertEquals(GSA.hashCode(), d.hash());
+    }
+
+    public void testReturnsSameInstanceForIdenticalSentences() {
+        NMEAParseCache<NMEASentence> cache = NMEAParseCache.forSentences(16);
+        NMEASentence first = cache.get(GSA);
+        assertTrue(first instanceof GSASentence);
+        assertSame(first, cache.get(GSA));
+        assertSame(first, cache.get(new StringBuilder(GSA)));
+        assertNotSame(first, cache.get(VTG));
+        assertEquals(2, cache.hits());
+        assertEquals(2, cache.misses());
+        assertNull(cache.get("$GPGSA,broken*00"));
+    }
+
+    public void testTypesOutsideTheEnabledSetBypassTheCache() {
+        NMEAParseCache<NMEASentence> cache = NMEAParseCache.forSentences(16);
+        assertNotSame(cache.get(GGA), cache.get(GGA));
+        assertEquals(2, cache.bypassed());
+        assertEquals(0, cache.size());
+
+        cache.enabledTypes(EnumSet.of(NMEAType.GGA));
+        assertSame(cache.get(GGA), cache.get(GGA));
+        assertEquals(1, cache.hits());
+    }
+
+    public void testEvictsLeastRecentlyUsed() {
+        NMEAParseCache<NMEASentence> cache = NMEAParseCache.forSentences(2);
+        String vtg2 = VTG.replace("005.5", "006.5");
+        NMEASentence gsa = cache.get(GSA);
+        cache.get(VTG);
+        cache.get(GSA);            // VTG is now the eviction candidate
+        cache.get(vtg2);
+        assertEquals(1, cache.evictions());
+        assertEquals(2, cache.size());
+        assertSame(gsa, cache.get(GSA));
+        long misses = cache.misses();
+        cache.get(VTG);
+        assertEquals(misses + 1, cache.misses());
+    }
+
+    public void testCachesParsers() {
+        NMEAParseCache<NMEAParser> cache = NMEAParseCache.forParsers(8);
+        NMEAParser p = cache.get(GSA);
+        assertEquals("2.5", p.get("pdop"));
+        assertSame(p, cache.get(GSA));
+    }
+}
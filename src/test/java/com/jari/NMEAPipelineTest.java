@@ -0,0 +1,136 @@
+package com.jari;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+public class NMEAPipelineTest extends TestCase {
+
+    private static String gga(int seq) {
+        return "$GPGGA," + seq + ",4807.038,N,01131.000,E,1,08,0.9,545.4,M,46.9,M,,";
+    }
+
+    public void testKeepsPerSourceOrderAcrossWorkers() throws Exception {
+        ConcurrentHashMap<Integer, Integer> last = new ConcurrentHashMap<>();
+        AtomicBoolean ordered = new AtomicBoolean(true);
+        NMEAPipeline pipeline = NMEAPipeline.create((source, d) -> {
+            int seq = d.fieldAsInt(NMEAFields.GGA_TIME);
+            Integer prev = last.put(source, seq);
+            if (prev != null && prev + 1 != seq) ordered.set(false);
+        }).workers(4).queueCapacity(64).start();
+
+        for (int seq = 0; seq < 500; seq++) {
+            for (int source = 0; source < 6; source++) assertTrue(pipeline.submit(source, gga(seq)));
+        }
+        assertTrue(pipeline.submit(0, "$GPGGA,garbage*00"));
+        pipeline.close();
+
+        assertTrue(ordered.get());
+        assertEquals(6, last.size());
+        assertEquals(3000, pipeline.handledCount());
+        assertEquals(1, pipeline.rejectedCount());
+        assertFalse(pipeline.submit(0, gga(0)));
+    }
+
+    public void testDropsNewestWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        NMEAPipeline pipeline = NMEAPipeline.create((source, d) -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }).workers(1).queueCapacity(1).overflowPolicy(NMEAPipeline.OverflowPolicy.DROP_NEWEST).start();
+
+        for (int i = 0; i < 10; i++) pipeline.submit(1, gga(i));
+        assertEquals(10, pipeline.submittedCount());
+        assertTrue(pipeline.droppedCount() >= 8);
+
+        release.countDown();
+        pipeline.close();
+        assertEquals(10, pipeline.handledCount() + pipeline.droppedCount());
+    }
+
+    public void testAttachedStreamsAreReadOnSourceThreads() throws Exception {
+        AtomicInteger count = new AtomicInteger();
+        NMEAPipeline pipeline = NMEAPipeline.create((source, d) -> count.incrementAndGet()).workers(2).start();
+        StringBuilder log = new StringBuilder();
+        for (int i = 0; i < 100; i++) log.append(gga(i)).append("\r\n");
+        byte[] bytes = log.toString().getBytes(StandardCharsets.US_ASCII);
+
+        Thread a = pipeline.attach(1, new ByteArrayInputStream(bytes));
+        Thread b = pipeline.attach(2, new ByteArrayInputStream(bytes));
+        a.join();
+        b.join();
+        pipeline.close();
+        assertEquals(200, count.get());
+    }
+
+    public void testAttachedStreamsFollowThePipelineSettings() throws Exception {
+        String bad = "$GPVTG,054.7,T,034.4,M,005.5,N,010.2,K*49";   // checksum is 48
+        String stream = gga(1) + "*00\r\n" + bad + "\r\n$GPRMC,123519,A" + gga(2) + "\r\n";
+        List<NMEAError> dead = Collections.synchronizedList(new ArrayList<>());
+
+        // Checksums off: the bad lines pass; only the sentence cut off by the next '$' is rejected
+        AtomicInteger count = new AtomicInteger();
+        NMEAPipeline lenient = NMEAPipeline.create((source, d) -> count.incrementAndGet())
+                .validateChecksum(false).onError(NMEAErrorPolicy.DEAD_LETTER, e -> dead.add(e.copy())).start();
+        lenient.attach(7, new ByteArrayInputStream(stream.getBytes(StandardCharsets.US_ASCII))).join();
+        lenient.close();
+        assertEquals(3, count.get());
+        assertEquals(3, lenient.handledCount());
+        assertEquals(1, lenient.rejectedCount());
+        assertEquals(1, lenient.errorCount(NMEAStatus.TRUNCATED));
+        assertEquals(7, dead.get(0).source());
+        assertEquals(stream.indexOf("$GPRMC"), dead.get(0).position());
+
+        // Checksums on: both bad checksums are counted by the pipeline
+        NMEAPipeline strict = NMEAPipeline.create((source, d) -> { }).onError(NMEAErrorPolicy.COUNT, null).start();
+        strict.attach(7, new ByteArrayInputStream(stream.getBytes(StandardCharsets.US_ASCII))).join();
+        strict.close();
+        assertEquals(1, strict.handledCount());
+        assertEquals(3, strict.rejectedCount());
+        assertEquals(2, strict.errorCount(NMEAStatus.CHECKSUM_MISMATCH));
+        assertEquals(1, strict.errorCount(NMEAStatus.TRUNCATED));
+    }
+
+    public void testCloseDuringSubmitLosesNothingAndTerminates() throws Exception {
+        for (NMEAPipeline.OverflowPolicy policy : NMEAPipeline.OverflowPolicy.values()) {
+            AtomicInteger count = new AtomicInteger();
+            AtomicInteger accepted = new AtomicInteger();
+            NMEAPipeline pipeline = NMEAPipeline.create((source, d) -> count.incrementAndGet())
+                    .workers(2).queueCapacity(4).overflowPolicy(policy).start();
+            Thread[] producers = new Thread[4];
+            for (int p = 0; p < producers.length; p++) {
+                final int source = p;
+                producers[p] = new Thread(() -> {
+                    try {
+                        for (int seq = 0; seq < 20_000; seq++) {
+                            if (pipeline.submit(source, gga(seq))) accepted.incrementAndGet();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                producers[p].start();
+            }
+            Thread.sleep(5);
+            pipeline.shutdown();
+            assertTrue(policy.name(), pipeline.awaitTermination(10, TimeUnit.SECONDS));
+            for (Thread t : producers) t.join();
+
+            // Everything accepted was handled, apart from what DROP_OLDEST pushed out of a queue
+            assertEquals(policy.name(), accepted.get(), count.get() + (policy == NMEAPipeline.OverflowPolicy.DROP_OLDEST ? pipeline.droppedCount() : 0));
+            pipeline.close();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.jari;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import junit.framework.TestCase;
+
+import static com.jari.NMEAFields.*;
+
+public class NMEASentenceDecoderTest extends TestCase {
+
+    private static final String GGA = "$GPGGA,123519,4807.038,N,01131.000,E,1,08,0.9,545.4,M,46.9,M,,*47";
+
+    public void testDecodesGgaFields() {
+        NMEASentenceDecoder d = new NMEASentenceDecoder();
+        assertTrue(d.reset(GGA));
+        assertTrue(d.isFormatter("GGA"));
+        assertEquals(15, d.fieldCount());
+        assertEquals(12 * 3600000 + 35 * 60000 + 19000, d.fieldAsTimeMillis(GGA_TIME));
+        assertEquals(4807.038, d.fieldAsDouble(GGA_LATITUDE), 0.0);
+        assertEquals('N', d.fieldAsChar(GGA_LAT_DIR));
+        assertEquals(8, d.fieldAsInt(GGA_SATELLITES));
+        assertEquals(545.4, d.fieldAsDouble(GGA_ALTITUDE), 0.0);
+        assertTrue(d.isFieldEmpty(14));
+        assertTrue(Double.isNaN(d.fieldAsDouble(14)));
+        assertEquals("M", d.fieldAsString(GGA_ALTITUDE_UNITS));
+    }
+
+    public void testBytesAndCharsDecodeTheSame() {
+        NMEASentenceDecoder d = new NMEASentenceDecoder();
+        byte[] raw = ("xx" + GGA + "\r\n").getBytes(StandardCharsets.US_ASCII);
+        assertTrue(d.reset(raw, 2, raw.length - 2));
+        assertEquals(15, d.fieldCount());
+        assertEquals(1131.0, d.fieldAsDouble(GGA_LONGITUDE), 0.0);
+        assertEquals(0x47, d.computedChecksum());
+    }
+
+    public void testDecodesInPlaceFromDirectBuffer() {
+        NMEASentenceDecoder d = new NMEASentenceDecoder();
+        byte[] raw = ("xx" + GGA + "\r\n").getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(raw.length).put(raw);
+        buffer.flip();
+        assertTrue(d.reset(buffer, 2, GGA.length()));
+        assertEquals(0, buffer.position());
+        assertEquals(1131.0, d.fieldAsDouble(GGA_LONGITUDE), 0.0);
+        assertEquals("GPGGA", d.fieldAsString(0));
+        assertEquals(GGA, d.source().toString());
+        assertFalse(d.reset(buffer, 2, GGA.length() - 1));
+    }
+
+    public void testChecksum() {
+        NMEASentenceDecoder strict = new NMEASentenceDecoder(true);
+        assertFalse(strict.reset(GGA.replace("*47", "*48")));
+        assertFalse(strict.isChecksumValid());
+        assertTrue(strict.reset("$GPGLL,4916.45,N,12311.12,W,225444,A"));
+        assertFalse(strict.hasChecksum());
+
+        NMEASentenceDecoder lenient = new NMEASentenceDecoder(false);
+        assertTrue(lenient.reset(GGA.replace("*47", "*48")));
+        assertFalse(lenient.isChecksumValid());
+    }
+
+    public void testRejectsMalformed() {
+        NMEASentenceDecoder d = new NMEASentenceDecoder(false);
+        assertFalse(d.reset("GPGGA,123519"));
+        assertFalse(d.reset(""));
+        assertFalse(d.reset((String) null));
+        assertEquals(NMEAStatus.EMPTY, d.status());
+        assertFalse(d.reset("GPGGA,123519"));
+        assertEquals(NMEAStatus.MISSING_START, d.status());
+        assertFalse(d.reset("$"));
+        assertEquals(NMEAStatus.TOO_SHORT, d.status());
+        assertFalse(new NMEASentenceDecoder(true, true).reset("$GPVTG,054.7,T"));
+    }
+
+    public void testStatusNamesTheChecksumFailure() {
+        NMEASentenceDecoder d = new NMEASentenceDecoder(true, true);
+        assertFalse(d.reset(GGA.replace("*47", "*48")));
+        assertEquals(NMEAStatus.CHECKSUM_MISMATCH, d.status());
+        assertEquals(0x48, d.declaredChecksum());
+        assertFalse(d.reset(GGA.substring(0, GGA.indexOf('*'))));
+        assertEquals(NMEAStatus.CHECKSUM_MISSING, d.status());
+        assertTrue(d.reset(GGA));
+        assertEquals(NMEAStatus.OK, d.status());
+    }
+
+    public void testNumbersMatchJdk() {
+        String[] values = { "0", "0.9", "-12.5", "4807.038", "01131.000", "0.000001", "123456789.123456", "1e3" };
+        NMEASentenceDecoder d = new NMEASentenceDecoder(false);
+        for (String v : values) {
+            assertTrue(d.reset("$GPXXX," + v));
+            assertEquals(v, Double.parseDouble(v), d.fieldAsDouble(1), 0.0);
+        }
+        assertTrue(d.reset("$GPXXX,1.5,abc,"));
+        assertEquals(-1, d.fieldAsInt(1));
+        assertTrue(Double.isNaN(d.fieldAsDouble(2)));
+    }
+}
@@ -0,0 +1,77 @@
+package com.jari;
+
+import junit.framework.TestCase;
+
+public class NMEASentenceTest extends TestCase {
+
+    private static NMEASentence decode(String sentence) {
+        NMEASentenceDecoder d = new NMEASentenceDecoder();
+        assertTrue(sentence, d.reset(sentence));
+        return NMEASentence.from(d);
+    }
+
+    public void testGga() {
+        GGASentence gga = (GGASentence) decode("$GPGGA,123519,4807.038,N,01131.000,E,1,08,0.9,545.4,M,46.9,M,,*47");
+        assertEquals("GP", gga.talkerId());
+        assertEquals(45319000, gga.time);
+        assertEquals(48.1173, gga.latitude, 1e-9);
+        assertEquals(11.516666667, gga.longitude, 1e-9);
+        assertEquals(1, gga.fixQuality);
+        assertEquals(8, gga.satellites);
+        assertEquals(545.4, gga.altitude, 0.0);
+    }
+
+    public void testRmcAndZdaDates() {
+        RMCSentence rmc = (RMCSentence) decode("$GPRMC,123519,A,4807.038,N,01131.000,E,022.4,084.4,230394,003.1,W*6A");
+        assertEquals(19940323, rmc.date);
+        assertEquals(22.4, rmc.speedKnots, 0.0);
+        assertEquals('A', rmc.status);
+
+        ZDASentence zda = (ZDASentence) decode("$GPZDA,201530.00,04,07,2002,00,00*60");
+        assertEquals(20020704, zda.date);
+        assertEquals(((20 * 60 + 15) * 60 + 30) * 1000, zda.time);
+    }
+
+    public void testSatelliteLists() {
+        GSASentence gsa = (GSASentence) decode("$GPGSA,A,3,04,05,,09,12,,,24,,,,,2.5,1.3,2.1*39");
+        assertEquals(5, gsa.satelliteCount());
+        assertEquals(24, gsa.satelliteUsed(4));
+        assertEquals(2.1, gsa.vdop, 0.0);
+
+        GSVSentence gsv = (GSVSentence) decode("$GPGSV,2,1,08,01,40,083,41,02,17,063,42,03,13,053,43,04,03,013,42*7D");
+        assertEquals(4, gsv.satelliteCount());
+        assertEquals(83, gsv.azimuth(0));
+        assertEquals(42, gsv.snr(3));
+    }
+
+    public void testOtherTalkersAndUnknownTypes() {
+        assertTrue(decode("$GNGLL,4916.45,N,12311.12,W,225444,A") instanceof GLLSentence);
+        assertNull(decode("$PGRME,15.0,M,45.0,M,25.0,M"));
+    }
+
+    public void testFlyweightMatchesRecords() {
+        NMEASentenceDecoder d = new NMEASentenceDecoder();
+        NMEARecord r = new NMEARecord();
+        assertTrue(d.reset("$GPGST,024603.00,1.2,0.8,1.0,45.0,0.5,0.6,0.7*6B"));
+        assertTrue(r.decode(d));
+        assertEquals(NMEAType.GST, r.type);
+        assertEquals(0.7, r.sigmaAlt, 0.0);
+        assertTrue(d.reset("$GPVTG,054.7,T,034.4,M,005.5,N,010.2,K*48"));
+        assertTrue(r.decode(d));
+        assertTrue(Double.isNaN(r.sigmaAlt));
+        assertEquals(10.2, r.speedKmh, 0.0);
+    }
+
+    public void testParserExportsTypedRecord() {
+        NMEASentence s = NMEAParser.of("$GPGLL,4916.45,N,12311.12,W,225444,A*31").toSentence();
+        assertEquals(-123.1853333, ((GLLSentence) s).longitude, 1e-7);
+    }
+
+    public void testParserDecodesTypedRecordOnce() {
+        NMEAParser parser = NMEAParser.of("$GPGLL,4916.45,N,12311.12,W,225444,A*31");
+        assertSame(parser.toSentence(), parser.toSentence());
+        NMEAParser unknown = NMEAParser.of("$GPXXX,1,2");
+        assertNull(unknown.toSentence());
+        assertNull(unknown.toSentence());
+    }
+}
@@ -0,0 +1,189 @@
+package com.jari;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+public class NMEASimulatorTest extends TestCase {
+
+    private static Map<NMEAType, Integer> count(NMEAStreamReader reader) throws IOException {
+        Map<NMEAType, Integer> counts = new EnumMap<>(NMEAType.class);
+        NMEASentenceDecoder d;
+        while ((d = reader.next()) != null) counts.merge(d.type(), 1, Integer::sum);
+        return counts;
+    }
+
+    public void testSyntheticFeedCoversEveryTypeWithValidChecksums() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        NMEASimulator.Result sent = NMEASimulator.synthetic().receivers(3).rate(10).seconds(2).satellites(10).speed(0).sendTo(out);
+
+        // 20 epochs x 3 receivers x (7 sentences + 3 GSV)
+        assertEquals(600, sent.sentences());
+        assertEquals(out.size(), sent.bytes());
+        NMEAStreamReader reader = new NMEAStreamReader(new ByteArrayInputStream(out.toByteArray()));
+        Map<NMEAType, Integer> counts = count(reader);
+        assertEquals(0, reader.rejectedCount());
+        assertEquals(180, (int) counts.get(NMEAType.GSV));
+        for (NMEAType type : new NMEAType[] { NMEAType.GGA, NMEAType.RMC, NMEAType.VTG, NMEAType.GSA, NMEAType.GLL, NMEAType.ZDA, NMEAType.GST }) {
+            assertEquals(type.name(), 60, (int) counts.get(type));
+        }
+    }
+
+    public void testSyntheticFixesAreConsistent() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        NMEASimulator.synthetic().rate(1).seconds(3600).speed(0).sendTo(out);
+        NMEAStreamReader reader = new NMEAStreamReader(new ByteArrayInputStream(out.toByteArray()));
+        NMEARecord record = new NMEARecord();
+        GGASentence first = null, last = null;
+        NMEASentenceDecoder d;
+        while ((d = reader.next()) != null) {
+            if (d.type() != NMEAType.GGA) continue;
+            NMEASentence s = NMEASentence.from(d);
+            if (first == null) first = (GGASentence) s;
+            last = (GGASentence) s;
+            assertTrue(record.decode(d));
+        }
+        assertEquals(43_200_000, first.time);
+        assertEquals(43_200_000 + 3599_000, last.time);
+        // 12 knots for an hour is 12 nautical miles, i.e. 12 minutes of longitude scaled by cos(48)
+        double miles = (last.longitude - first.longitude) * 60 * Math.cos(Math.toRadians(48));
+        assertEquals(12.0, miles, 0.01);
+    }
+
+    public void testCorruptionBreaksChecksums() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        NMEASimulator.Result sent = NMEASimulator.synthetic().receivers(10).seconds(10).corruption(0.05).seed(7).speed(0).sendTo(out);
+        NMEAStreamReader reader = new NMEAStreamReader(new ByteArrayInputStream(out.toByteArray())).onError(NMEAErrorPolicy.COUNT, null);
+        count(reader);
+
+        assertEquals(sent.corrupted(), reader.rejectedCount());
+        assertEquals(sent.sentences(), reader.sentenceCount() + reader.rejectedCount());
+        assertEquals(0.05, (double) sent.corrupted() / sent.sentences(), 0.01);
+        assertEquals(sent.corrupted(), reader.errorCount(NMEAStatus.CHECKSUM_MISMATCH));
+    }
+
+    public void testPacing() throws IOException {
+        long started = System.nanoTime();
+        NMEASimulator.synthetic().rate(10).seconds(1).speed(5).sendTo(new ByteArrayOutputStream());
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        // The last of ten epochs is due 0.9 s in, 180 ms at five times real time
+        assertTrue("elapsed " + elapsedMillis, elapsedMillis >= 170);
+    }
+
+    public void testReplayDropsPrefixesAndFollowsLogTime() throws IOException {
+        Path log = Files.createTempFile("nmea", ".log");
+        try {
+            String gga1 = NMEALogFileTest.withChecksum("GPGGA,235959.50,4807.038,N,01131.000,E,1,08,0.9,545.4,M,46.9,M,,");
+            String vtg = NMEALogFileTest.withChecksum("GPVTG,054.7,T,034.4,M,005.5,N,010.2,K");
+            String gga2 = NMEALogFileTest.withChecksum("GPGGA,000000.50,4807.038,N,01131.000,E,1,08,0.9,545.4,M,46.9,M,,");
+            Files.write(log, ("1700000000.000 " + gga1 + "\r\nno sentence here\n" + vtg + "\n" + gga2 + "\n").getBytes(StandardCharsets.US_ASCII));
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            long started = System.nanoTime();
+            NMEASimulator.Result sent = NMEASimulator.replay(log).speed(4).sendTo(out);
+            long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+            assertEquals(3, sent.sentences());
+            assertEquals(gga1 + "\r\n" + vtg + "\r\n" + gga2 + "\r\n", new String(out.toByteArray(), StandardCharsets.US_ASCII));
+            // One second across midnight at four times real time
+            assertTrue("elapsed " + elapsedMillis, elapsedMillis >= 240);
+        } finally {
+            Files.deleteIfExists(log);
+        }
+    }
+
+    public void testTcpAndUdp() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (ServerSocket server = new ServerSocket(0)) {
+            Future<Long> tcp = executor.submit(() -> {
+                try (Socket socket = server.accept(); NMEAStreamReader reader = new NMEAStreamReader(socket.getInputStream())) {
+                    count(reader);
+                    return reader.sentenceCount();
+                }
+            });
+            NMEASimulator.Result sent = NMEASimulator.synthetic().receivers(5).seconds(5).speed(0).sendTcp("localhost", server.getLocalPort());
+            assertEquals(sent.sentences(), (long) tcp.get(10, TimeUnit.SECONDS));
+        }
+
+        try (DatagramChannel channel = DatagramChannel.open().bind(new InetSocketAddress("localhost", 0))) {
+            int port = ((InetSocketAddress) channel.getLocalAddress()).getPort();
+            Future<Long> udp = executor.submit(() -> {
+                ByteBuffer datagram = ByteBuffer.allocate(NMEASimulator.DATAGRAM_SIZE);
+                long lines = 0;
+                while (lines < 80) {
+                    datagram.clear();
+                    channel.receive(datagram);
+                    for (int i = 0; i < datagram.position(); i++) if (datagram.get(i) == '\n') lines++;
+                    // Datagrams hold whole sentences only
+                    assertEquals('\n', datagram.get(datagram.position() - 1));
+                }
+                return lines;
+            });
+            // Ten epochs of eight sentences
+            NMEASimulator.synthetic().seconds(1).satellites(4).speed(0).sendUdp("localhost", port);
+            assertEquals(80, (long) udp.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public void testMeasureCountsEveryLine() throws IOException {
+        NMEARecord record = new NMEARecord();
+        NMEASimulator.Report report = NMEASimulator.synthetic().receivers(20).seconds(10).corruption(0.01).speed(0).measure(record::decode);
+
+        assertEquals(report.sent().sentences(), report.accepted() + report.rejected());
+        assertEquals(report.sent().corrupted(), report.rejected());
+        assertTrue(report.sentencesPerSecond() > 0);
+        assertTrue(report.latencyNanos(50) > 0);
+        assertTrue(report.latencyNanos(99) >= report.latencyNanos(50));
+    }
+
+    public void testMeasureMatchesLinesSplitByTheReader() throws IOException {
+        Path log = Files.createTempFile("nmea", ".log");
+        try {
+            String gga = NMEALogFileTest.withChecksum("GPGGA,120000.00,4807.038,N,01131.000,E,1,08,0.9,545.4,M,46.9,M,,");
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < 100; i++) {
+                // Every other line carries a sentence cut off by the next '$': two reader results, one line
+                if (i % 2 == 0) text.append("$GPGGA,1200");
+                text.append(gga).append('\n');
+            }
+            Files.write(log, text.toString().getBytes(StandardCharsets.US_ASCII));
+
+            NMEASimulator.Report report = NMEASimulator.replay(log).speed(0).measure(d -> { });
+
+            assertEquals(100, report.accepted());
+            assertEquals(50, report.rejected());
+            assertEquals(100, report.latencySamples());
+            assertTrue(report.latencyNanos(100) < TimeUnit.SECONDS.toNanos(10));
+        } finally {
+            Files.deleteIfExists(log);
+        }
+    }
+
+    public void testMeasureDoesNotStallOnRejectedLines() throws IOException {
+        // More lines than the latency window, none of them accepted
+        NMEASimulator.Report report = NMEASimulator.synthetic().receivers(100).seconds(10).corruption(1).speed(0).measure(d -> { });
+
+        assertEquals(0, report.accepted());
+        assertEquals(report.sent().sentences(), report.rejected());
+        assertTrue(report.rejected() > NMEASimulator.LATENCY_WINDOW);
+        assertEquals(0, report.latencySamples());
+    }
+}
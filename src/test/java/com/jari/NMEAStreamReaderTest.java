@@ -0,0 +1,84 @@
+package com.jari;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+public class NMEAStreamReaderTest extends TestCase {
+
+    private static final String STREAM =
+            "noise$GPGGA,123519,4807.038,N,01131.000,E,1,08,0.9,545.4,M,46.9,M,,*47\r\n"
+            + "$GPVTG,054.7,T,034.4,M,005.5,N,010.2,K*48\r\n"
+            + "$GPRMC,123519,A,4807.0"                     // truncated by the next sentence
+            + "!AIVDM,1,1,,A,13aEOK?P00PD2wVMdLDRhgvL289?,0*26\r\n"
+            + "$GPVTG,054.7,T,034.4,M,005.5,N,010.2,K*49\r\n" // bad checksum
+            + "$GPZDA,201530.00,04,07,2002,00,00*60";        // no terminator at end of stream
+
+    // Hands out at most three bytes per read to exercise sentences split across reads
+    private static InputStream trickle(String s) {
+        return new ByteArrayInputStream(s.getBytes(StandardCharsets.US_ASCII)) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 3));
+            }
+        };
+    }
+
+    public void testFramesSentencesAcrossReads() throws IOException {
+        NMEAStreamReader reader = new NMEAStreamReader(trickle(STREAM));
+        StringBuilder types = new StringBuilder();
+        NMEASentenceDecoder d;
+        while ((d = reader.next()) != null) types.append(d.fieldAsString(0)).append(' ');
+
+        assertEquals("GPGGA GPVTG AIVDM GPZDA ", types.toString());
+        assertTrue(reader.isEndOfStream());
+        assertEquals(4, reader.sentenceCount());
+        assertEquals(2, reader.rejectedCount());
+        assertEquals("noise".length() + "$GPRMC,123519,A,4807.0".length(), reader.discardedBytes());
+    }
+
+    public void testDecoderSeesFieldsWithoutStrings() throws IOException {
+        NMEAStreamReader reader = new NMEAStreamReader(trickle(STREAM));
+        NMEASentenceDecoder d = reader.next();
+        assertEquals(NMEAType.GGA, d.type());
+        assertEquals(545.4, d.fieldAsDouble(NMEAFields.GGA_ALTITUDE), 0.0);
+    }
+
+    public void testDeadLettersCarryStatusAndPosition() throws IOException {
+        List<NMEAError> dead = new ArrayList<>();
+        NMEAStreamReader reader = new NMEAStreamReader(trickle(STREAM))
+                .onError(NMEAErrorPolicy.DEAD_LETTER, e -> dead.add(e.copy()));
+        while (reader.next() != null) { }
+
+        assertEquals(2, dead.size());
+        assertEquals(NMEAStatus.TRUNCATED, dead.get(0).status());
+        assertEquals("$GPRMC,123519,A,4807.0", dead.get(0).text().toString());
+        assertEquals(STREAM.indexOf("$GPRMC"), dead.get(0).position());
+        assertEquals(NMEAStatus.CHECKSUM_MISMATCH, dead.get(1).status());
+        assertEquals(0x48, dead.get(1).computedChecksum());
+        assertEquals("$GPVTG,054.7,T,034.4,M,005.5,N,010.2,K*49", dead.get(1).text().toString());
+        assertEquals(1, reader.errorCount(NMEAStatus.TRUNCATED));
+    }
+
+    public void testOverLongFinalLineIsRejected() throws IOException {
+        StringBuilder tail = new StringBuilder("$GPTXT");
+        while (tail.length() <= NMEAStreamReader.MAX_SENTENCE_LENGTH) tail.append(",0123456789");
+        String stream = "$GPVTG,054.7,T,034.4,M,005.5,N,010.2,K*48\r\n" + tail;   // no terminator at end of stream
+
+        // Whole stream in one read, and split across many
+        InputStream[] inputs = { new ByteArrayInputStream(stream.getBytes(StandardCharsets.US_ASCII)), trickle(stream) };
+        for (InputStream in : inputs) {
+            NMEAStreamReader reader = new NMEAStreamReader(in).onError(NMEAErrorPolicy.COUNT, null);
+            while (reader.next() != null) { }
+            assertEquals(1, reader.sentenceCount());
+            assertEquals(1, reader.rejectedCount());
+            assertEquals(1, reader.errorCount(NMEAStatus.TOO_LONG));
+            assertEquals(tail.length(), reader.discardedBytes());
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.jari;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+public class TrackCompressorTest extends TestCase {
+
+    private static final double METERS_PER_DEGREE = 6_371_008.8 * Math.PI / 180;
+
+    private final List<double[]> kept = new ArrayList<>();
+
+    private TrackCompressor compressor(TrackCompressor.Mode mode, double tolerance) {
+        return new TrackCompressor(4, 256, tolerance, mode,
+                (source, talker, time, lat, lon, speed, course) -> kept.add(new double[] { source, time, lat, lon }));
+    }
+
+    // A 10 Hz fix for receiver `source`, `north` and `east` meters from 48N 11E
+    private static NMEAFix fix(int source, int tenths, double north, double east, double speedKnots, double course) {
+        NMEAFix f = new NMEAFix();
+        f.source = source;
+        f.talker = ('G' << 8) | 'P';
+        f.time = 43_200_000 + tenths * 100;
+        f.date = 20240601;
+        f.latitude = 48 + north / METERS_PER_DEGREE;
+        f.longitude = 11 + east / (METERS_PER_DEGREE * Math.cos(Math.toRadians(48)));
+        f.speedKnots = speedKnots;
+        f.course = course;
+        return f;
+    }
+
+    public void testStraightLineKeepsOnlyEndpoints() {
+        TrackCompressor c = compressor(TrackCompressor.Mode.OPENING_WINDOW, 2.0);
+        for (int i = 0; i <= 100; i++) assertTrue(c.accept(fix(1, i, 0, i, Double.NaN, Double.NaN)));
+        assertEquals(1, kept.size());
+        c.flush();
+
+        assertEquals(2, kept.size());
+        assertEquals(0.0, (kept.get(1)[1] - kept.get(0)[1]) / 1000 - 10, 1e-9);
+        assertEquals(101, c.inputPoints());
+        assertEquals(2, c.emittedPoints());
+        assertEquals(50.5, c.compressionRatio(), 1e-9);
+        assertTrue(c.maxErrorMeters() < 0.01);
+    }
+
+    public void testTurnKeepsTheCorner() {
+        TrackCompressor c = compressor(TrackCompressor.Mode.OPENING_WINDOW, 1.0);
+        for (int i = 0; i <= 50; i++) c.accept(fix(1, i, 0, i, Double.NaN, Double.NaN));
+        for (int i = 1; i <= 50; i++) c.accept(fix(1, 50 + i, i, 50, Double.NaN, Double.NaN));
+        c.flush();
+
+        assertEquals(3, kept.size());
+        double[] corner = kept.get(1);
+        assertEquals(48.0, corner[2], 1e-9);
+        assertEquals(fix(1, 50, 0, 50, 0, 0).longitude, corner[3], 1e-9);
+    }
+
+    public void testErrorStaysWithinTolerance() {
+        TrackCompressor c = compressor(TrackCompressor.Mode.OPENING_WINDOW, 3.0);
+        List<NMEAFix> input = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            NMEAFix f = fix(1, i, 40 * Math.sin(i / 100.0), i * 0.5 + Math.sin(i * 1.7) * 0.4, Double.NaN, Double.NaN);
+            input.add(f);
+            c.accept(f);
+        }
+        c.flush();
+
+        assertTrue(c.compressionRatio() > 5);
+        assertTrue(c.maxErrorMeters() <= 3.0);
+        // Every input point is within the tolerance of the track interpolated between kept points
+        int k = 0;
+        for (NMEAFix f : input) {
+            long t = f.epochMillis();
+            while (kept.get(k + 1)[1] < t) k++;
+            double[] a = kept.get(k), b = kept.get(k + 1);
+            double r = (t - a[1]) / (b[1] - a[1]);
+            double lat = a[2] + r * (b[2] - a[2]), lon = a[3] + r * (b[3] - a[3]);
+            assertTrue(TrackCompressor.meters(lat, lon, f.latitude, f.longitude) <= 3.0 + 1e-6);
+        }
+    }
+
+    public void testDeadReckoningFollowsSpeedAndCourse() {
+        TrackCompressor c = compressor(TrackCompressor.Mode.DEAD_RECKONING, 2.0);
+        double knots = 10 / (1852.0 / 3600.0) / 10; // 1 m/s
+        for (int i = 0; i <= 100; i++) c.accept(fix(1, i, 0, i * 0.1, knots, 90));
+        assertEquals(1, kept.size());
+        // Veers north while still reporting east: kept once the drift passes 2 m
+        for (int i = 1; i <= 30; i++) c.accept(fix(1, 100 + i, i * 0.1, 10 + i * 0.1, knots, 90));
+        assertEquals(2, kept.size());
+        c.flush();
+
+        assertEquals(3, kept.size());
+        assertTrue(c.maxErrorMeters() <= 2.0);
+    }
+
+    public void testVesselsAreTrackedSeparatelyAndCapacityIsBounded() {
+        TrackCompressor c = compressor(TrackCompressor.Mode.OPENING_WINDOW, 1.0);
+        for (int i = 0; i < 20; i++) {
+            for (int source = 1; source <= 4; source++) assertTrue(c.accept(fix(source, i, source * 100, i, Double.NaN, Double.NaN)));
+        }
+        assertFalse(c.accept(fix(5, 0, 0, 0, Double.NaN, Double.NaN)));
+        assertEquals(1, c.droppedFixes());
+        c.flush();
+
+        assertEquals(8, kept.size());
+        assertTrue(c.accept(fix(5, 0, 0, 0, Double.NaN, Double.NaN)));
+    }
+
+    public void testIgnoresFixesWithoutPositionOrTime() {
+        TrackCompressor c = compressor(TrackCompressor.Mode.OPENING_WINDOW, 1.0);
+        NMEAFix noPosition = fix(1, 0, 0, 0, 0, 0);
+        noPosition.latitude = Double.NaN;
+        NMEAFix noTime = fix(1, 0, 0, 0, 0, 0);
+        noTime.time = -1;
+        assertFalse(c.accept(noPosition));
+        assertFalse(c.accept(noTime));
+        assertEquals(0, c.inputPoints());
+        assertEquals(0.0, c.compressionRatio(), 0.0);
+    }
+
+    public void testUndatedFixesCrossMidnight() {
+        TrackCompressor c = compressor(TrackCompressor.Mode.OPENING_WINDOW, 2.0);
+        for (int i = 0; i <= 100; i++) {
+            NMEAFix f = fix(1, i, 0, i, Double.NaN, Double.NaN);
+            f.date = -1;
+            f.time = (86_400_000 - 5000 + i * 100) % 86_400_000;
+            assertTrue(c.accept(f));
+        }
+        c.flush();
+
+        // Still one straight segment; the last point is dated the next day
+        assertEquals(2, kept.size());
+        assertEquals(10_000.0, kept.get(1)[1] - kept.get(0)[1], 0.0);
+    }
+
+    public void testDeadReckoningUsesOneBufferedPointPerVessel() {
+        TrackCompressor c = new TrackCompressor(2, 1 << 20, 5.0, TrackCompressor.Mode.DEAD_RECKONING,
+                (source, talker, time, lat, lon, speed, course) -> kept.add(new double[] { source, time, lat, lon }));
+        for (int i = 0; i <= 10; i++) assertTrue(c.accept(fix(1, i, 0, i * 0.514, 10, 90)));
+        c.flush();
+        assertEquals(2, kept.size());
+    }
+}